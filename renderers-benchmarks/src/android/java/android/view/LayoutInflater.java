@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.view;
+
+import android.content.Context;
+
+/**
+ * Replaces the framework LayoutInflater. Benchmark Renderers create their views directly, so
+ * inflating any layout returns a plain View.
+ */
+public abstract class LayoutInflater {
+
+    private final Context context;
+
+    protected LayoutInflater(Context context) {
+        this.context = context;
+    }
+
+    public static LayoutInflater from(Context context) {
+        return new LayoutInflater(context) {
+        };
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public View inflate(int resource, ViewGroup root) {
+        return inflate(resource, root, root != null);
+    }
+
+    public View inflate(int resource, ViewGroup root, boolean attachToRoot) {
+        return new View(context);
+    }
+}
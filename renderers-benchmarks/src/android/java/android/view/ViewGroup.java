@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.view;
+
+import android.content.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the framework ViewGroup with a plain list of children.
+ */
+public abstract class ViewGroup extends View {
+
+    private final List<View> children = new ArrayList<>();
+
+    public ViewGroup(Context context) {
+        super(context);
+    }
+
+    public void addView(View child) {
+        children.add(child);
+    }
+
+    public void removeView(View child) {
+        children.remove(child);
+    }
+
+    public void removeAllViews() {
+        children.clear();
+    }
+
+    public int getChildCount() {
+        return children.size();
+    }
+
+    public View getChildAt(int index) {
+        return children.get(index);
+    }
+
+    protected abstract void onLayout(boolean changed, int left, int top, int right, int bottom);
+
+    public static class LayoutParams {
+
+        public static final int MATCH_PARENT = -1;
+        public static final int WRAP_CONTENT = -2;
+
+        public int width;
+        public int height;
+
+        public LayoutParams(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        public LayoutParams(LayoutParams source) {
+            this(source.width, source.height);
+        }
+    }
+
+    public static class MarginLayoutParams extends LayoutParams {
+
+        public int leftMargin;
+        public int topMargin;
+        public int rightMargin;
+        public int bottomMargin;
+
+        public MarginLayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public MarginLayoutParams(LayoutParams source) {
+            super(source);
+        }
+    }
+}
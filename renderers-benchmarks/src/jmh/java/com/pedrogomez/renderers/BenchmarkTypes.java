@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+/**
+ * Content and Renderer classes used by the benchmarks. RendererBuilder resolves the view type
+ * comparing Renderer classes, so every binding needs its own Renderer class.
+ */
+final class BenchmarkTypes {
+
+    static final int MAX_BINDINGS = 16;
+    static final int MAX_DEPTH = 8;
+
+    private static final Class<?>[] CLASS_RENDERERS = {
+          ClassRenderer0.class, ClassRenderer1.class, ClassRenderer2.class, ClassRenderer3.class,
+          ClassRenderer4.class, ClassRenderer5.class, ClassRenderer6.class, ClassRenderer7.class,
+          ClassRenderer8.class, ClassRenderer9.class, ClassRenderer10.class, ClassRenderer11.class,
+          ClassRenderer12.class, ClassRenderer13.class, ClassRenderer14.class, ClassRenderer15.class
+    };
+    private static final Class<?>[] TYPE_RENDERERS = {
+          TypeRenderer0.class, TypeRenderer1.class, TypeRenderer2.class, TypeRenderer3.class,
+          TypeRenderer4.class, TypeRenderer5.class, TypeRenderer6.class, TypeRenderer7.class,
+          TypeRenderer8.class, TypeRenderer9.class, TypeRenderer10.class, TypeRenderer11.class,
+          TypeRenderer12.class, TypeRenderer13.class, TypeRenderer14.class, TypeRenderer15.class
+    };
+    private static final Class<?>[] UNRELATED = {
+          Unrelated0.class, Unrelated1.class, Unrelated2.class, Unrelated3.class,
+          Unrelated4.class, Unrelated5.class, Unrelated6.class, Unrelated7.class,
+          Unrelated8.class, Unrelated9.class, Unrelated10.class, Unrelated11.class,
+          Unrelated12.class, Unrelated13.class, Unrelated14.class, Unrelated15.class
+    };
+    private static final Class<?>[] LEVELS = {
+          Level0.class, Level1.class, Level2.class, Level3.class,
+          Level4.class, Level5.class, Level6.class, Level7.class,
+          Level8.class
+    };
+
+    private BenchmarkTypes() { }
+
+    /**
+     * @return a new prototype of the Renderer used by the class binding index.
+     */
+    static Renderer newClassRenderer(int index) {
+        return newInstance(CLASS_RENDERERS[index]);
+    }
+
+    /**
+     * @return a new prototype of the Renderer used by the int type binding index.
+     */
+    static Renderer newTypeRenderer(int index) {
+        return newInstance(TYPE_RENDERERS[index]);
+    }
+
+    /**
+     * @return content class not related with the content rendered, bound to fill the bindings.
+     */
+    static Class<?> unrelatedClass(int index) {
+        return UNRELATED[index];
+    }
+
+    /**
+     * @return content whose class extends {@link Level0} through depth classes.
+     */
+    static Object newLevel(int depth) {
+        return newInstance(LEVELS[depth]);
+    }
+
+    static ViewGroup newParent() {
+        return new ViewGroup(null) {
+            @Override protected void onLayout(boolean changed, int left, int top, int right, int bottom) { }
+        };
+    }
+
+    private static <T> T newInstance(Class<?> clazz) {
+        try {
+            //noinspection unchecked
+            return (T) clazz.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Renderer creating a plain View and rendering nothing, so the benchmarks only measure the
+     * library code.
+     */
+    abstract static class BenchmarkRenderer extends Renderer<Object> {
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            Context context = parent.getContext();
+            return new View(context);
+        }
+
+        @Override public void render(List<Object> payloads) { }
+    }
+
+    static final class ClassRenderer0 extends BenchmarkRenderer { }
+    static final class ClassRenderer1 extends BenchmarkRenderer { }
+    static final class ClassRenderer2 extends BenchmarkRenderer { }
+    static final class ClassRenderer3 extends BenchmarkRenderer { }
+    static final class ClassRenderer4 extends BenchmarkRenderer { }
+    static final class ClassRenderer5 extends BenchmarkRenderer { }
+    static final class ClassRenderer6 extends BenchmarkRenderer { }
+    static final class ClassRenderer7 extends BenchmarkRenderer { }
+    static final class ClassRenderer8 extends BenchmarkRenderer { }
+    static final class ClassRenderer9 extends BenchmarkRenderer { }
+    static final class ClassRenderer10 extends BenchmarkRenderer { }
+    static final class ClassRenderer11 extends BenchmarkRenderer { }
+    static final class ClassRenderer12 extends BenchmarkRenderer { }
+    static final class ClassRenderer13 extends BenchmarkRenderer { }
+    static final class ClassRenderer14 extends BenchmarkRenderer { }
+    static final class ClassRenderer15 extends BenchmarkRenderer { }
+
+    static final class TypeRenderer0 extends BenchmarkRenderer { }
+    static final class TypeRenderer1 extends BenchmarkRenderer { }
+    static final class TypeRenderer2 extends BenchmarkRenderer { }
+    static final class TypeRenderer3 extends BenchmarkRenderer { }
+    static final class TypeRenderer4 extends BenchmarkRenderer { }
+    static final class TypeRenderer5 extends BenchmarkRenderer { }
+    static final class TypeRenderer6 extends BenchmarkRenderer { }
+    static final class TypeRenderer7 extends BenchmarkRenderer { }
+    static final class TypeRenderer8 extends BenchmarkRenderer { }
+    static final class TypeRenderer9 extends BenchmarkRenderer { }
+    static final class TypeRenderer10 extends BenchmarkRenderer { }
+    static final class TypeRenderer11 extends BenchmarkRenderer { }
+    static final class TypeRenderer12 extends BenchmarkRenderer { }
+    static final class TypeRenderer13 extends BenchmarkRenderer { }
+    static final class TypeRenderer14 extends BenchmarkRenderer { }
+    static final class TypeRenderer15 extends BenchmarkRenderer { }
+
+    static final class Unrelated0 { }
+    static final class Unrelated1 { }
+    static final class Unrelated2 { }
+    static final class Unrelated3 { }
+    static final class Unrelated4 { }
+    static final class Unrelated5 { }
+    static final class Unrelated6 { }
+    static final class Unrelated7 { }
+    static final class Unrelated8 { }
+    static final class Unrelated9 { }
+    static final class Unrelated10 { }
+    static final class Unrelated11 { }
+    static final class Unrelated12 { }
+    static final class Unrelated13 { }
+    static final class Unrelated14 { }
+    static final class Unrelated15 { }
+
+    static class Level0 { }
+    static class Level1 extends Level0 { }
+    static class Level2 extends Level1 { }
+    static class Level3 extends Level2 { }
+    static class Level4 extends Level3 { }
+    static class Level5 extends Level4 { }
+    static class Level6 extends Level5 { }
+    static class Level7 extends Level6 { }
+    static class Level8 extends Level7 { }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * AdapterDataObserver counting the notifications received and the items they affect, registered
+ * in the adapters benchmarked so every notification is dispatched as with a RecyclerView attached.
+ *
+ * The public fields and notifications() are reported by JMH as the total events of every iteration,
+ * next to the calls benchmarked during it.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+    public long calls;
+    public long changed;
+    public long rangeChanged;
+    public long rangeInserted;
+    public long rangeRemoved;
+    public long rangeMoved;
+    public long itemsNotified;
+
+    @Override public void onChanged() {
+        changed++;
+    }
+
+    @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+        rangeChanged++;
+        itemsNotified += itemCount;
+    }
+
+    @Override public void onItemRangeInserted(int positionStart, int itemCount) {
+        rangeInserted++;
+        itemsNotified += itemCount;
+    }
+
+    @Override public void onItemRangeRemoved(int positionStart, int itemCount) {
+        rangeRemoved++;
+        itemsNotified += itemCount;
+    }
+
+    @Override public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        rangeMoved++;
+        itemsNotified += itemCount;
+    }
+
+    public long notifications() {
+        return changed + rangeChanged + rangeInserted + rangeRemoved + rangeMoved;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the RendererAdapter mutation methods over the collections the adapter can be built
+ * with, notifying a {@link RecordingObserver}.
+ *
+ * Every invocation calls the method benchmarked BATCH_SIZE times over an adapter rebuilt with size
+ * items, so the collection never drifts far from its initial size and the invocation is long enough
+ * to be timed on its own. Index based mutations work in the middle of the collection, the average
+ * position for every List implementation. The notifications received are reported as auxiliary
+ * counters next to the calls made in every iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RendererAdapterMutationBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int ELEMENTS_PER_CALL = 10;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"ArrayList", "LinkedList", "CopyOnWriteArrayList"})
+    public String collection;
+
+    private final RendererBuilder rendererBuilder = RendererBuilder.create(BenchmarkTypes.newClassRenderer(0))
+          .getRendererBuilder();
+    private List<Integer> elements;
+    private List<List<Integer>> newElements;
+    private List<Set<Integer>> spreadElements;
+    private RecordingObserver observer;
+    private RendererAdapter<Object> adapter;
+
+    @Setup(Level.Trial)
+    public void setUpElements() {
+        Integer[] content = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = i;
+        }
+        elements = Arrays.asList(content);
+        newElements = new ArrayList<>(BATCH_SIZE);
+        spreadElements = new ArrayList<>(BATCH_SIZE);
+        int spacing = size / ELEMENTS_PER_CALL;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            List<Integer> added = new ArrayList<>(ELEMENTS_PER_CALL);
+            Set<Integer> spread = new HashSet<>(ELEMENTS_PER_CALL);
+            for (int j = 0; j < ELEMENTS_PER_CALL; j++) {
+                added.add(size + i * ELEMENTS_PER_CALL + j);
+                spread.add(content[j * spacing + i]);
+            }
+            newElements.add(added);
+            spreadElements.add(spread);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpObserver(RecordingObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Rebuilds the adapter before every batch of calls and counts them.
+     */
+    @Setup(Level.Invocation)
+    public void setUpAdapter() {
+        adapter = new RendererAdapter<>(rendererBuilder, newCollection());
+        adapter.registerAdapterDataObserver(observer);
+        observer.calls += BATCH_SIZE;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addAndNotify(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(adapter.addAndNotify(newElements.get(i).get(0)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addAndNotifyAtIndex() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            adapter.addAndNotify(adapter.getItemCount() / 2, newElements.get(i).get(0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void addAllAndNotify(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(adapter.addAllAndNotify(newElements.get(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void removeAtAndNotify(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(adapter.removeAtAndNotify(adapter.getItemCount() / 2));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void removeAndNotify(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(adapter.removeAndNotify(elements.get(size / 2 + i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void moveAndNotify() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            int from = adapter.getItemCount() / 4;
+            adapter.moveAndNotify(from, adapter.getItemCount() - from, adapter.getItem(from));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void removeAllAndNotify(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(adapter.removeAllAndNotify(spreadElements.get(i)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void indexOf(Blackhole blackhole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            blackhole.consume(adapter.indexOf(elements.get(size / 2 + i)));
+        }
+    }
+
+    private List<Object> newCollection() {
+        Collection<Integer> content = elements;
+        switch (collection) {
+            case "ArrayList":
+                return new ArrayList<Object>(content);
+            case "LinkedList":
+                return new LinkedList<Object>(content);
+            case "CopyOnWriteArrayList":
+                return new CopyOnWriteArrayList<Object>(content);
+            default:
+                throw new IllegalArgumentException("Unknown collection " + collection);
+        }
+    }
+}
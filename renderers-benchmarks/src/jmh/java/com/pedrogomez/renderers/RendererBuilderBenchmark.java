@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how RendererBuilder resolves the Renderer of every item and creates the ViewHolders.
+ *
+ * The builder has bindingCount class bindings and bindingCount int type bindings. The items not
+ * wrapped in RendererContent extend the only class bound rendering them through hierarchyDepth
+ * classes, every other class binding is unrelated with them. rendererContentShare is the
+ * percentage of items wrapped in RendererContent, spread over the int types bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RendererBuilderBenchmark {
+
+    private static final int ITEM_COUNT = 1024;
+    private static final long SEED = 42;
+
+    @Param({"1", "4", "16"})
+    public int bindingCount;
+
+    @Param({"0", "4", "8"})
+    public int hierarchyDepth;
+
+    @Param({"0", "50", "100"})
+    public int rendererContentShare;
+
+    private RendererBuilder<Object> rendererBuilder;
+    private Object[] items;
+    private int[] viewTypes;
+
+    @Setup
+    public void setUp() {
+        RendererBuilder.ExtendedRendererBuilder<Object> builder = RendererBuilder.create();
+        for (int i = 0; i < bindingCount - 1; i++) {
+            builder.bind(BenchmarkTypes.unrelatedClass(i), BenchmarkTypes.newClassRenderer(i));
+        }
+        builder.bind(BenchmarkTypes.Level0.class, BenchmarkTypes.newClassRenderer(bindingCount - 1));
+        for (int i = 0; i < bindingCount; i++) {
+            builder.bind(i, BenchmarkTypes.newTypeRenderer(i));
+        }
+        rendererBuilder = builder.getRendererBuilder();
+
+        Random random = new Random(SEED);
+        items = new Object[ITEM_COUNT];
+        viewTypes = new int[ITEM_COUNT];
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            if (random.nextInt(100) < rendererContentShare) {
+                items[i] = new RendererContent<>(i, random.nextInt(bindingCount));
+            } else {
+                items[i] = BenchmarkTypes.newLevel(hierarchyDepth);
+            }
+            viewTypes[i] = rendererBuilder.getItemViewType(items[i]);
+        }
+
+        ViewGroup parent = BenchmarkTypes.newParent();
+        rendererBuilder.withParent(parent);
+        rendererBuilder.withLayoutInflater(LayoutInflater.from(parent.getContext()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void getItemViewType(Blackhole blackhole) {
+        for (Object item : items) {
+            blackhole.consume(rendererBuilder.getItemViewType(item));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void getPrototypeClass(Blackhole blackhole) {
+        for (Object item : items) {
+            blackhole.consume(rendererBuilder.getPrototypeClass(item));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEM_COUNT)
+    public void buildRendererViewHolder(Blackhole blackhole) {
+        for (int viewType : viewTypes) {
+            rendererBuilder.withViewType(viewType);
+            blackhole.consume(rendererBuilder.buildRendererViewHolder());
+        }
+    }
+}
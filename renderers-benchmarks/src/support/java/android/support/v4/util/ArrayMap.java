@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.support.v4.util;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Stand-in of the support ArrayMap. Its collection views iterate the arrays of SimpleArrayMap
+ * allocating one iterator per loop, as the real ones do.
+ */
+public class ArrayMap<K, V> extends SimpleArrayMap<K, V> implements Map<K, V> {
+
+    public ArrayMap() {
+    }
+
+    public ArrayMap(int capacity) {
+        super(capacity);
+    }
+
+    @Override public boolean containsValue(Object value) {
+        for (int i = 0; i < size; i++) {
+            Object current = valueAt(i);
+            if (value == null ? current == null : value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override public Iterator<K> iterator() {
+                return new IndexIterator<K>() {
+                    @Override K get(int index) {
+                        return keyAt(index);
+                    }
+                };
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override public Iterator<V> iterator() {
+                return new IndexIterator<V>() {
+                    @Override V get(int index) {
+                        return valueAt(index);
+                    }
+                };
+            }
+
+            @Override public int size() {
+                return size;
+            }
+        };
+    }
+
+    private abstract class IndexIterator<E> implements Iterator<E> {
+
+        int index = -1;
+
+        abstract E get(int index);
+
+        @Override public boolean hasNext() {
+            return index + 1 < size;
+        }
+
+        @Override public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            index++;
+            return get(index);
+        }
+
+        @Override public void remove() {
+            removeAt(index);
+            index--;
+        }
+    }
+
+    private final class EntryIterator extends IndexIterator<Map.Entry<K, V>> implements Map.Entry<K, V> {
+
+        @Override Map.Entry<K, V> get(int index) {
+            return this;
+        }
+
+        @Override public K getKey() {
+            return keyAt(index);
+        }
+
+        @Override public V getValue() {
+            return valueAt(index);
+        }
+
+        @Override public V setValue(V value) {
+            return setValueAt(index, value);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.support.v4.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stand-in of the support LruCache, backed by an access ordered LinkedHashMap as the real one.
+ */
+public class LruCache<K, V> {
+
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(0, 0.75f, true);
+    private int maxSize;
+    private int size;
+
+    public LruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public final synchronized V get(K key) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        V created = create(key);
+        if (created != null) {
+            put(key, created);
+        }
+        return created;
+    }
+
+    public final synchronized V put(K key, V value) {
+        size += sizeOf(key, value);
+        V previous = map.put(key, value);
+        if (previous != null) {
+            size -= sizeOf(key, previous);
+            entryRemoved(false, key, previous, value);
+        }
+        trimToSize(maxSize);
+        return previous;
+    }
+
+    public final synchronized V remove(K key) {
+        V previous = map.remove(key);
+        if (previous != null) {
+            size -= sizeOf(key, previous);
+            entryRemoved(false, key, previous, null);
+        }
+        return previous;
+    }
+
+    public synchronized void trimToSize(int maxSize) {
+        while (size > maxSize && !map.isEmpty()) {
+            Map.Entry<K, V> eldest = map.entrySet().iterator().next();
+            map.remove(eldest.getKey());
+            size -= sizeOf(eldest.getKey(), eldest.getValue());
+            entryRemoved(true, eldest.getKey(), eldest.getValue(), null);
+        }
+    }
+
+    public final void evictAll() {
+        trimToSize(-1);
+    }
+
+    public final synchronized int size() {
+        return size;
+    }
+
+    public final synchronized int maxSize() {
+        return maxSize;
+    }
+
+    public final synchronized Map<K, V> snapshot() {
+        return new LinkedHashMap<>(map);
+    }
+
+    protected void entryRemoved(boolean evicted, K key, V oldValue, V newValue) {
+    }
+
+    protected V create(K key) {
+        return null;
+    }
+
+    protected int sizeOf(K key, V value) {
+        return 1;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.support.v4.util;
+
+import java.util.Arrays;
+
+/**
+ * Stand-in of the support SimpleArrayMap. Like the real one it keeps the hashes sorted in one array
+ * and the keys and values in another, so lookups are binary searches over the hashes.
+ */
+public class SimpleArrayMap<K, V> {
+
+    private static final int BASE_SIZE = 4;
+
+    int[] hashes;
+    Object[] array;
+    int size;
+
+    public SimpleArrayMap() {
+        this(0);
+    }
+
+    public SimpleArrayMap(int capacity) {
+        hashes = new int[capacity];
+        array = new Object[capacity << 1];
+    }
+
+    public int indexOfKey(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        int index = Arrays.binarySearch(hashes, 0, size, hash);
+        if (index < 0) {
+            return index;
+        }
+        if (equal(key, array[index << 1])) {
+            return index;
+        }
+        int end;
+        for (end = index + 1; end < size && hashes[end] == hash; end++) {
+            if (equal(key, array[end << 1])) {
+                return end;
+            }
+        }
+        for (int i = index - 1; i >= 0 && hashes[i] == hash; i--) {
+            if (equal(key, array[i << 1])) {
+                return i;
+            }
+        }
+        return ~end;
+    }
+
+    public boolean containsKey(Object key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    public V get(Object key) {
+        int index = indexOfKey(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K keyAt(int index) {
+        return (K) array[index << 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) array[(index << 1) + 1];
+    }
+
+    public V setValueAt(int index, V value) {
+        V old = valueAt(index);
+        array[(index << 1) + 1] = value;
+        return old;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public V put(K key, V value) {
+        int index = indexOfKey(key);
+        if (index >= 0) {
+            return setValueAt(index, value);
+        }
+        index = ~index;
+        if (size >= hashes.length) {
+            int capacity = size < BASE_SIZE ? BASE_SIZE : size + (size >> 1);
+            hashes = Arrays.copyOf(hashes, capacity);
+            array = Arrays.copyOf(array, capacity << 1);
+        }
+        System.arraycopy(hashes, index, hashes, index + 1, size - index);
+        System.arraycopy(array, index << 1, array, (index + 1) << 1, (size - index) << 1);
+        hashes[index] = key == null ? 0 : key.hashCode();
+        array[index << 1] = key;
+        array[(index << 1) + 1] = value;
+        size++;
+        return null;
+    }
+
+    public V remove(Object key) {
+        int index = indexOfKey(key);
+        return index >= 0 ? removeAt(index) : null;
+    }
+
+    public V removeAt(int index) {
+        V old = valueAt(index);
+        System.arraycopy(hashes, index + 1, hashes, index, size - index - 1);
+        System.arraycopy(array, (index + 1) << 1, array, index << 1, (size - index - 1) << 1);
+        size--;
+        array[size << 1] = null;
+        array[(size << 1) + 1] = null;
+        return old;
+    }
+
+    public void clear() {
+        Arrays.fill(array, 0, size << 1, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static boolean equal(Object first, Object second) {
+        return first == null ? second == null : first.equals(second);
+    }
+}
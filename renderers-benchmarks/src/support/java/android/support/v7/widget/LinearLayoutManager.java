@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.support.v7.widget;
+
+import android.content.Context;
+
+/**
+ * Stand-in of the support LinearLayoutManager with the API used by the library sources.
+ */
+public class LinearLayoutManager extends RecyclerView.LayoutManager {
+
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+
+    private int orientation;
+    private boolean recycleChildrenOnDetach;
+
+    public LinearLayoutManager(Context context) {
+        this(context, VERTICAL, false);
+    }
+
+    public LinearLayoutManager(Context context, int orientation, boolean reverseLayout) {
+        this.orientation = orientation;
+    }
+
+    @Override public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+        return new RecyclerView.LayoutParams(RecyclerView.LayoutParams.WRAP_CONTENT,
+              RecyclerView.LayoutParams.WRAP_CONTENT);
+    }
+
+    public int getOrientation() {
+        return orientation;
+    }
+
+    public void setOrientation(int orientation) {
+        this.orientation = orientation;
+    }
+
+    public void setRecycleChildrenOnDetach(boolean recycleChildrenOnDetach) {
+        this.recycleChildrenOnDetach = recycleChildrenOnDetach;
+    }
+
+    public boolean getRecycleChildrenOnDetach() {
+        return recycleChildrenOnDetach;
+    }
+
+    public int findFirstVisibleItemPosition() {
+        return RecyclerView.NO_POSITION;
+    }
+
+    public int findLastVisibleItemPosition() {
+        return RecyclerView.NO_POSITION;
+    }
+}
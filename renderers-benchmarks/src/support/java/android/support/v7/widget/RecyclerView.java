@@ -0,0 +1,437 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.support.v7.widget;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Parcelable;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in of the support RecyclerView with the API used by the library sources, so they can be
+ * compiled and benchmarked on the JVM. Adapters notify their observers and the RecycledViewPool
+ * keeps its ViewHolders like the real ones, the widget itself doesn't lay out anything.
+ */
+public class RecyclerView extends ViewGroup {
+
+    public static final int NO_POSITION = -1;
+    public static final long NO_ID = -1;
+    public static final int INVALID_TYPE = -1;
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+    public static final int SCROLL_STATE_IDLE = 0;
+    public static final int SCROLL_STATE_DRAGGING = 1;
+    public static final int SCROLL_STATE_SETTLING = 2;
+
+    private Adapter adapter;
+    private LayoutManager layoutManager;
+    private RecycledViewPool recycledViewPool;
+    private boolean hasFixedSize;
+
+    public RecyclerView(Context context) {
+        super(context);
+    }
+
+    @Override protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+    }
+
+    public void setAdapter(Adapter adapter) {
+        this.adapter = adapter;
+    }
+
+    public Adapter getAdapter() {
+        return adapter;
+    }
+
+    public void swapAdapter(Adapter adapter, boolean removeAndRecycleExistingViews) {
+        this.adapter = adapter;
+    }
+
+    public void setLayoutManager(LayoutManager layoutManager) {
+        this.layoutManager = layoutManager;
+    }
+
+    public LayoutManager getLayoutManager() {
+        return layoutManager;
+    }
+
+    public void setRecycledViewPool(RecycledViewPool recycledViewPool) {
+        this.recycledViewPool = recycledViewPool;
+    }
+
+    public RecycledViewPool getRecycledViewPool() {
+        if (recycledViewPool == null) {
+            recycledViewPool = new RecycledViewPool();
+        }
+        return recycledViewPool;
+    }
+
+    public void setHasFixedSize(boolean hasFixedSize) {
+        this.hasFixedSize = hasFixedSize;
+    }
+
+    public boolean hasFixedSize() {
+        return hasFixedSize;
+    }
+
+    public void setItemViewCacheSize(int size) {
+    }
+
+    public void setViewCacheExtension(ViewCacheExtension extension) {
+    }
+
+    public void addOnScrollListener(OnScrollListener listener) {
+    }
+
+    public void removeOnScrollListener(OnScrollListener listener) {
+    }
+
+    public int getScrollState() {
+        return SCROLL_STATE_IDLE;
+    }
+
+    public ViewHolder getChildViewHolder(View child) {
+        return null;
+    }
+
+    public void scrollToPosition(int position) {
+    }
+
+    public abstract static class ViewCacheExtension {
+
+        public abstract View getViewForPositionAndType(Recycler recycler, int position, int type);
+    }
+
+    public abstract static class OnScrollListener {
+
+        public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        }
+
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        }
+    }
+
+    public static class LayoutParams extends ViewGroup.MarginLayoutParams {
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
+    }
+
+    public static class State {
+    }
+
+    public final class Recycler {
+    }
+
+    public abstract static class LayoutManager {
+
+        public abstract LayoutParams generateDefaultLayoutParams();
+
+        public void onAttachedToWindow(RecyclerView view) {
+        }
+
+        public void onDetachedFromWindow(RecyclerView view, Recycler recycler) {
+        }
+
+        public void measureChildWithMargins(View child, int widthUsed, int heightUsed) {
+        }
+
+        public void calculateItemDecorationsForChild(View child, Rect outRect) {
+        }
+
+        public int getWidth() {
+            return 0;
+        }
+
+        public int getHeight() {
+            return 0;
+        }
+
+        public int getWidthMode() {
+            return 0;
+        }
+
+        public int getHeightMode() {
+            return 0;
+        }
+
+        public int getPaddingLeft() {
+            return 0;
+        }
+
+        public int getPaddingTop() {
+            return 0;
+        }
+
+        public int getPaddingRight() {
+            return 0;
+        }
+
+        public int getPaddingBottom() {
+            return 0;
+        }
+
+        public boolean canScrollVertically() {
+            return false;
+        }
+
+        public boolean canScrollHorizontally() {
+            return false;
+        }
+
+        public void scrollToPosition(int position) {
+        }
+
+        public Parcelable onSaveInstanceState() {
+            return null;
+        }
+
+        public void onRestoreInstanceState(Parcelable state) {
+        }
+
+        public static int getChildMeasureSpec(int parentSize, int parentMode, int padding, int childDimension,
+              boolean canScroll) {
+            return 0;
+        }
+    }
+
+    public static class RecycledViewPool {
+
+        private static final int DEFAULT_MAX_SCRAP = 5;
+
+        private final SparseArray<ArrayList<ViewHolder>> scrap = new SparseArray<>();
+        private final SparseArray<Integer> maxScrap = new SparseArray<>();
+
+        public void clear() {
+            scrap.clear();
+        }
+
+        public void setMaxRecycledViews(int viewType, int max) {
+            maxScrap.put(viewType, max);
+            ArrayList<ViewHolder> scrapHeap = scrap.get(viewType);
+            while (scrapHeap != null && scrapHeap.size() > max) {
+                scrapHeap.remove(scrapHeap.size() - 1);
+            }
+        }
+
+        public ViewHolder getRecycledView(int viewType) {
+            ArrayList<ViewHolder> scrapHeap = scrap.get(viewType);
+            if (scrapHeap != null && !scrapHeap.isEmpty()) {
+                return scrapHeap.remove(scrapHeap.size() - 1);
+            }
+            return null;
+        }
+
+        public void putRecycledView(ViewHolder scrapViewHolder) {
+            int viewType = scrapViewHolder.getItemViewType();
+            ArrayList<ViewHolder> scrapHeap = scrap.get(viewType);
+            if (scrapHeap == null) {
+                scrapHeap = new ArrayList<>();
+                scrap.put(viewType, scrapHeap);
+            }
+            if (scrapHeap.size() < maxScrap.get(viewType, DEFAULT_MAX_SCRAP)) {
+                scrapHeap.add(scrapViewHolder);
+            }
+        }
+    }
+
+    public abstract static class ViewHolder {
+
+        public final View itemView;
+        int itemViewType = INVALID_TYPE;
+        int position = NO_POSITION;
+        long itemId = NO_ID;
+
+        public ViewHolder(View itemView) {
+            if (itemView == null) {
+                throw new IllegalArgumentException("itemView may not be null");
+            }
+            this.itemView = itemView;
+        }
+
+        public final int getAdapterPosition() {
+            return position;
+        }
+
+        public final int getLayoutPosition() {
+            return position;
+        }
+
+        public final long getItemId() {
+            return itemId;
+        }
+
+        public final int getItemViewType() {
+            return itemViewType;
+        }
+    }
+
+    public abstract static class AdapterDataObserver {
+
+        public void onChanged() {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+        }
+
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        }
+    }
+
+    public abstract static class Adapter<VH extends ViewHolder> {
+
+        private final List<AdapterDataObserver> observers = new ArrayList<>();
+        private boolean hasStableIds;
+
+        public abstract VH onCreateViewHolder(ViewGroup parent, int viewType);
+
+        public abstract void onBindViewHolder(VH holder, int position);
+
+        public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
+            onBindViewHolder(holder, position);
+        }
+
+        public final VH createViewHolder(ViewGroup parent, int viewType) {
+            VH holder = onCreateViewHolder(parent, viewType);
+            holder.itemViewType = viewType;
+            return holder;
+        }
+
+        public final void bindViewHolder(VH holder, int position) {
+            holder.position = position;
+            if (hasStableIds) {
+                holder.itemId = getItemId(position);
+            }
+            onBindViewHolder(holder, position, Collections.emptyList());
+        }
+
+        public int getItemViewType(int position) {
+            return 0;
+        }
+
+        public void setHasStableIds(boolean hasStableIds) {
+            this.hasStableIds = hasStableIds;
+        }
+
+        public final boolean hasStableIds() {
+            return hasStableIds;
+        }
+
+        public long getItemId(int position) {
+            return NO_ID;
+        }
+
+        public abstract int getItemCount();
+
+        public void onViewRecycled(VH holder) {
+        }
+
+        public void onViewAttachedToWindow(VH holder) {
+        }
+
+        public void onViewDetachedFromWindow(VH holder) {
+        }
+
+        public void onAttachedToRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public void onDetachedFromRecyclerView(RecyclerView recyclerView) {
+        }
+
+        public final boolean hasObservers() {
+            return !observers.isEmpty();
+        }
+
+        public void registerAdapterDataObserver(AdapterDataObserver observer) {
+            observers.add(observer);
+        }
+
+        public void unregisterAdapterDataObserver(AdapterDataObserver observer) {
+            observers.remove(observer);
+        }
+
+        public final void notifyDataSetChanged() {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onChanged();
+            }
+        }
+
+        public final void notifyItemChanged(int position) {
+            notifyItemRangeChanged(position, 1, null);
+        }
+
+        public final void notifyItemChanged(int position, Object payload) {
+            notifyItemRangeChanged(position, 1, payload);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount) {
+            notifyItemRangeChanged(positionStart, itemCount, null);
+        }
+
+        public final void notifyItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeChanged(positionStart, itemCount, payload);
+            }
+        }
+
+        public final void notifyItemInserted(int position) {
+            notifyItemRangeInserted(position, 1);
+        }
+
+        public final void notifyItemRangeInserted(int positionStart, int itemCount) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeInserted(positionStart, itemCount);
+            }
+        }
+
+        public final void notifyItemMoved(int fromPosition, int toPosition) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeMoved(fromPosition, toPosition, 1);
+            }
+        }
+
+        public final void notifyItemRemoved(int position) {
+            notifyItemRangeRemoved(position, 1);
+        }
+
+        public final void notifyItemRangeRemoved(int positionStart, int itemCount) {
+            for (int i = observers.size() - 1; i >= 0; i--) {
+                observers.get(i).onItemRangeRemoved(positionStart, itemCount);
+            }
+        }
+    }
+}
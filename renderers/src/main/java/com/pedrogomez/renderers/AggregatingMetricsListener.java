@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RendererMetricsListener aggregating the events of every view type: how many ViewHolders are
+ * created, bound, recycled, attached and detached, the create and bind latency percentiles and the
+ * hit rate of the RecyclerView pool. Latencies are kept in fixed size histograms, so the memory
+ * used doesn't grow with the number of events.
+ *
+ * Like the adapter notifying it, it has to be used from the main thread.
+ */
+public final class AggregatingMetricsListener implements RendererMetricsListener {
+
+    private final SparseArray<ViewTypeMetrics> metrics = new SparseArray<>();
+
+    @Override public void onCreate(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) {
+        ViewTypeMetrics viewTypeMetrics = getOrCreate(viewType, rendererClass);
+        viewTypeMetrics.createLatency.record(durationNanos);
+    }
+
+    @Override public void onBind(int viewType, Class<? extends Renderer> rendererClass, long durationNanos,
+          boolean reused) {
+        ViewTypeMetrics viewTypeMetrics = getOrCreate(viewType, rendererClass);
+        viewTypeMetrics.bindLatency.record(durationNanos);
+        if (reused) {
+            viewTypeMetrics.reusedBinds++;
+        }
+    }
+
+    @Override public void onRecycle(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) {
+        getOrCreate(viewType, rendererClass).recycles++;
+    }
+
+    @Override public void onAttach(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) {
+        getOrCreate(viewType, rendererClass).attaches++;
+    }
+
+    @Override public void onDetach(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) {
+        getOrCreate(viewType, rendererClass).detaches++;
+    }
+
+    /**
+     * @param viewType of the adapter.
+     * @return the metrics of the view type, null if it has no events yet.
+     */
+    public ViewTypeMetrics getMetrics(int viewType) {
+        return metrics.get(viewType);
+    }
+
+    /**
+     * @return the metrics of every view type with events, sorted by view type.
+     */
+    public List<ViewTypeMetrics> getAllMetrics() {
+        int size = metrics.size();
+        List<ViewTypeMetrics> allMetrics = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            allMetrics.add(metrics.valueAt(i));
+        }
+        return allMetrics;
+    }
+
+    /**
+     * Discards every event aggregated.
+     */
+    public void reset() {
+        metrics.clear();
+    }
+
+    private ViewTypeMetrics getOrCreate(int viewType, Class<? extends Renderer> rendererClass) {
+        ViewTypeMetrics viewTypeMetrics = metrics.get(viewType);
+        if (viewTypeMetrics == null) {
+            viewTypeMetrics = new ViewTypeMetrics(viewType, rendererClass);
+            metrics.put(viewType, viewTypeMetrics);
+        }
+        return viewTypeMetrics;
+    }
+
+    /**
+     * Events aggregated for one view type.
+     */
+    public static final class ViewTypeMetrics {
+
+        private final int viewType;
+        private final Class<? extends Renderer> rendererClass;
+        private final LatencyHistogram createLatency = new LatencyHistogram();
+        private final LatencyHistogram bindLatency = new LatencyHistogram();
+        private int reusedBinds;
+        private int recycles;
+        private int attaches;
+        private int detaches;
+
+        ViewTypeMetrics(int viewType, Class<? extends Renderer> rendererClass) {
+            this.viewType = viewType;
+            this.rendererClass = rendererClass;
+        }
+
+        public int getViewType() {
+            return viewType;
+        }
+
+        public Class<? extends Renderer> getRendererClass() {
+            return rendererClass;
+        }
+
+        public int getCreateCount() {
+            return createLatency.getCount();
+        }
+
+        public int getBindCount() {
+            return bindLatency.getCount();
+        }
+
+        public int getReusedBindCount() {
+            return reusedBinds;
+        }
+
+        public int getRecycleCount() {
+            return recycles;
+        }
+
+        public int getAttachCount() {
+            return attaches;
+        }
+
+        public int getDetachCount() {
+            return detaches;
+        }
+
+        public LatencyHistogram getCreateLatency() {
+            return createLatency;
+        }
+
+        public LatencyHistogram getBindLatency() {
+            return bindLatency;
+        }
+
+        /**
+         * @return share of the ViewHolders needed by this view type that came from the pool
+         * instead of being created, 0 if none was needed yet.
+         */
+        public float getPoolHitRate() {
+            int needed = reusedBinds + createLatency.getCount();
+            return needed == 0 ? 0 : (float) reusedBinds / needed;
+        }
+
+        @Override public String toString() {
+            return "ViewTypeMetrics{viewType=" + viewType
+                  + ", renderer=" + rendererClass.getSimpleName()
+                  + ", creates=" + getCreateCount()
+                  + ", binds=" + getBindCount()
+                  + ", poolHitRate=" + getPoolHitRate()
+                  + ", createP50=" + createLatency.getP50Nanos()
+                  + ", bindP50=" + bindLatency.getP50Nanos()
+                  + ", bindP95=" + bindLatency.getP95Nanos()
+                  + ", bindP99=" + bindLatency.getP99Nanos()
+                  + '}';
+        }
+    }
+
+    /**
+     * Log-linear histogram of durations in nanoseconds. Every power of two is split in eight
+     * buckets, so the percentiles returned are at most 12.5% above the real ones.
+     */
+    public static final class LatencyHistogram {
+
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private final int[] counts = new int[BUCKETS];
+        private int count;
+
+        void record(long durationNanos) {
+            counts[indexOf(Math.max(0, durationNanos))]++;
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getP50Nanos() {
+            return getPercentileNanos(50);
+        }
+
+        public long getP95Nanos() {
+            return getPercentileNanos(95);
+        }
+
+        public long getP99Nanos() {
+            return getPercentileNanos(99);
+        }
+
+        /**
+         * @param percentile between 0 and 100.
+         * @return the upper bound of the bucket containing the percentile, 0 without durations.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("The percentile has to be between 0 and 100");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBoundOf(i);
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        private static int indexOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long upperBoundOf(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            int subBucket = index % SUB_BUCKETS;
+            long width = 1L << (exponent - SUB_BUCKET_BITS);
+            long lowerBound = (1L << exponent) + subBucket * width;
+            return lowerBound + width - 1;
+        }
+    }
+}
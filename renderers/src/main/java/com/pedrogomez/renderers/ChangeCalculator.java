@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Compares two versions of the same element to compute the fields changed. RendererAdapter uses
+ * the ChangeCalculator registered for the class of the elements updated to notify the change with
+ * a {@link ChangePayload}, so the Renderer can update only the views related to those fields.
+ *
+ * @param <T> the type of the elements compared.
+ */
+public interface ChangeCalculator<T> {
+
+    /**
+     * @param oldContent element replaced.
+     * @param newContent element replacing the previous one.
+     * @return a bitmask with one bit per field changed, 0 if nothing changed or
+     * {@link ChangePayload#ALL} if the element has to be fully rendered.
+     */
+    int computeChanges(T oldContent, T newContent);
+}
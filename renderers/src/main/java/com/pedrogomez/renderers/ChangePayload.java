@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import java.util.List;
+
+/**
+ * Payload with a bitmask of the fields changed in one element, computed by a
+ * {@link ChangeCalculator}. Renderers can merge the payloads received in render using
+ * {@link #merge(List)} and update only the views related to the bits set.
+ */
+public final class ChangePayload {
+
+    /**
+     * Mask with every bit set, used when the element has to be fully rendered.
+     */
+    public static final int ALL = ~0;
+
+    private final int mask;
+
+    private ChangePayload(int mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * @param mask of the fields changed.
+     * @return a new ChangePayload instance.
+     */
+    public static ChangePayload of(int mask) {
+        return new ChangePayload(mask);
+    }
+
+    /**
+     * Merges the payloads received in {@link Renderer#render(List)} without allocating.
+     *
+     * @param payloads passed to the Renderer.
+     * @return the union of the masks or {@link #ALL} if the list is empty or contains payloads not
+     * created by a ChangeCalculator, meaning the Renderer has to render the whole content.
+     */
+    public static int merge(List<Object> payloads) {
+        if (payloads == null || payloads.isEmpty()) {
+            return ALL;
+        }
+        int mask = 0;
+        for (int i = 0, size = payloads.size(); i < size; i++) {
+            Object payload = payloads.get(i);
+            if (!(payload instanceof ChangePayload)) {
+                return ALL;
+            }
+            mask |= ((ChangePayload) payload).mask;
+        }
+        return mask;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * @param flags to check.
+     * @return true if any of the flags is set in the mask.
+     */
+    public boolean contains(int flags) {
+        return (mask & flags) != 0;
+    }
+
+    @Override public boolean equals(Object o) {
+        return this == o || o instanceof ChangePayload && ((ChangePayload) o).mask == mask;
+    }
+
+    @Override public int hashCode() {
+        return mask;
+    }
+
+    @Override public String toString() {
+        return "ChangePayload{mask=" + Integer.toBinaryString(mask) + "}";
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.os.Bundle;
+import android.support.annotation.Nullable;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renderer composed of several child Renderers sharing one root view, for example a card built out
+ * of a header, a body and an actions bar. Every child is bound to a slice of the content obtained
+ * with its {@link Slicer} and its root view is added to the container created in
+ * {@link #inflateContainer(LayoutInflater, ViewGroup)}, a vertical LinearLayout by default.
+ *
+ * Children whose slice is a {@link VersionedContent} with the id and version rendered before are not
+ * rendered again unless the render has payloads, which are forwarded to every child. Other slices
+ * are rendered again on every render, unless {@link #setSkipRenderForEqualSlices(boolean)} is
+ * enabled and the slice is a different instance equal to the one rendered before. The RenderScope
+ * of a child is only cancelled when it is fully rendered again or recycled, so the work of the
+ * children not rendered again, or only rendered with payloads, keeps running. The lifecycle events
+ * and the view state of the children are forwarded too.
+ *
+ * Children have to be added from the constructor of the prototype using
+ * {@link #addChild(Renderer, Slicer)}, every copy of the prototype creates its own copy of them.
+ *
+ * @param <T> the type of the content rendered.
+ */
+public abstract class CompositeRenderer<T> extends Renderer<T> {
+
+    private static final String CHILD_STATE_KEY = "CompositeRenderer.child";
+
+    private List<Child> children = new ArrayList<>();
+    private boolean skipRenderForEqualSlices;
+
+    /**
+     * Adds one child Renderer.
+     *
+     * @param renderer prototype of the child.
+     * @param slicer used to obtain the content of the child.
+     */
+    protected <S> void addChild(Renderer<S> renderer, Slicer<? super T, ? extends S> slicer) {
+        if (renderer == null || slicer == null) {
+            throw new IllegalArgumentException("CompositeRenderer children need a Renderer and a Slicer");
+        }
+        children.add(new Child(renderer, slicer));
+    }
+
+    /**
+     * Configures if children whose slice is equal to the one they rendered before are rendered again.
+     * The same instance is always rendered again because it could have been modified, so enable it
+     * only if the slices are immutable and their equals covers every value rendered. Call it from
+     * the constructor of the prototype so every copy shares the configuration.
+     *
+     * @param skipRenderForEqualSlices true to skip rendering equal slices.
+     */
+    protected void setSkipRenderForEqualSlices(boolean skipRenderForEqualSlices) {
+        this.skipRenderForEqualSlices = skipRenderForEqualSlices;
+    }
+
+    /**
+     * @return the number of child Renderers.
+     */
+    public int getChildCount() {
+        return children.size();
+    }
+
+    /**
+     * @param index of the child.
+     * @return the child Renderer.
+     */
+    protected Renderer getChild(int index) {
+        return children.get(index).renderer;
+    }
+
+    /**
+     * Creates the view group containing the root views of the children.
+     *
+     * @param inflater LayoutInflater service to inflate.
+     * @param parent view group associated to the current Renderer instance.
+     * @return the container, used as root view of this Renderer.
+     */
+    protected ViewGroup inflateContainer(LayoutInflater inflater, ViewGroup parent) {
+        LinearLayout container = new LinearLayout(parent.getContext());
+        container.setOrientation(LinearLayout.VERTICAL);
+        return container;
+    }
+
+    /**
+     * Inflates the container and every child, adding the root views of the children to it.
+     */
+    @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+        ViewGroup container = inflateContainer(inflater, parent);
+        for (Child child : children) {
+            child.renderer.onCreate(null, inflater, container);
+            container.addView(child.renderer.getRootView());
+        }
+        return container;
+    }
+
+    /**
+     * Renders the children whose slice changed, or every child if there are payloads.
+     */
+    @Override public void render(List<Object> payloads) {
+        T content = getContent();
+        for (int i = 0, size = children.size(); i < size; i++) {
+            Child child = children.get(i);
+            Object slice = child.slicer.slice(content);
+            child.renderer.setContent(slice);
+            child.renderer.setPosition(getPosition());
+            child.renderer.setItemId(getItemId());
+            boolean unchanged = child.isRendered(slice, skipRenderForEqualSlices);
+            if (unchanged && payloads.isEmpty()) {
+                continue;
+            }
+            if (!unchanged) {
+                if (payloads.isEmpty()) {
+                    // Payloads update part of the same binding, its pending work is still valid.
+                    child.renderer.cancelRenderScope();
+                }
+                child.setRendered(slice);
+            }
+            child.renderer.render(payloads);
+        }
+    }
+
+    @Override public void onAttached() {
+        for (int i = 0, size = children.size(); i < size; i++) {
+            children.get(i).renderer.onAttached();
+        }
+    }
+
+    @Override public void onDetached() {
+        for (int i = 0, size = children.size(); i < size; i++) {
+            children.get(i).renderer.onDetached();
+        }
+    }
+
+    @Override public void onRecycled() {
+        for (int i = 0, size = children.size(); i < size; i++) {
+            Child child = children.get(i);
+            child.renderer.setItemId(getItemId());
+            child.renderer.cancelRenderScope();
+            child.reset();
+            child.renderer.onRecycled();
+        }
+    }
+
+    /**
+     * Stores the view state of every child in its own Bundle.
+     */
+    @Nullable
+    @Override protected Bundle onSaveViewState() {
+        Bundle state = null;
+        for (int i = 0, size = children.size(); i < size; i++) {
+            Bundle childState = children.get(i).renderer.onSaveViewState();
+            if (childState != null) {
+                if (state == null) {
+                    state = new Bundle();
+                }
+                state.putBundle(CHILD_STATE_KEY + i, childState);
+            }
+        }
+        return state;
+    }
+
+    @Override protected void onRestoreViewState(@Nullable Bundle state) {
+        for (int i = 0, size = children.size(); i < size; i++) {
+            children.get(i).renderer.onRestoreViewState(state != null ? state.getBundle(CHILD_STATE_KEY + i) : null);
+        }
+    }
+
+    /**
+     * Copies every child too, so copies of the prototype never share their children.
+     */
+    @Override Renderer<T> copy() {
+        CompositeRenderer<T> copy = (CompositeRenderer<T>) super.copy();
+        copy.children = new ArrayList<>(children.size());
+        for (Child child : children) {
+            copy.children.add(new Child(child.renderer.copy(), child.slicer));
+        }
+        return copy;
+    }
+
+    /**
+     * Obtains the part of the content rendered by one child.
+     *
+     * @param <T> the type of the content rendered by the CompositeRenderer.
+     * @param <S> the type of the content rendered by the child.
+     */
+    public interface Slicer<T, S> {
+        S slice(T content);
+    }
+
+    /**
+     * Child Renderer with the slice rendered last.
+     */
+    private static final class Child {
+
+        final Renderer renderer;
+        final Slicer slicer;
+        Object slice;
+        long version;
+        boolean rendered;
+
+        Child(Renderer renderer, Slicer slicer) {
+            this.renderer = renderer;
+            this.slicer = slicer;
+        }
+
+        /**
+         * @return true if the child is showing the id and version of a VersionedContent slice, or a
+         * different instance equal to the slice if skipEqual is enabled.
+         */
+        boolean isRendered(@Nullable Object newSlice, boolean skipEqual) {
+            if (!rendered) {
+                return false;
+            }
+            if (newSlice == null) {
+                return slice == null;
+            }
+            if (newSlice instanceof VersionedContent && slice instanceof VersionedContent) {
+                VersionedContent versionedSlice = (VersionedContent) newSlice;
+                return versionedSlice.getId() == ((VersionedContent) slice).getId()
+                      && versionedSlice.getVersion() == version;
+            }
+            return skipEqual && newSlice != slice && newSlice.equals(slice);
+        }
+
+        void setRendered(@Nullable Object newSlice) {
+            slice = newSlice;
+            version = newSlice instanceof VersionedContent ? ((VersionedContent) newSlice).getVersion() : 0;
+            rendered = true;
+        }
+
+        void reset() {
+            slice = null;
+            version = 0;
+            rendered = false;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.annotation.Nullable;
+import android.support.v4.util.ArrayMap;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RecyclerView.Adapter presenting several RendererAdapter instances as a single list, for example
+ * a header adapter, the main feed and a "load more" adapter.
+ *
+ * Every child keeps its own collection and notifications. Child notifications are forwarded
+ * translating their positions, so changing one child never rebuilds the combined list. Global
+ * positions are mapped to the child adapters using a binary search over their offsets.
+ *
+ * The view types of every child are mapped to a single view type space. Children created with the
+ * same RendererBuilder share their view types, so their ViewHolders are reused from the same
+ * RecyclerView pool.
+ *
+ * Item ids are the ids of the child adapters moved to a namespace per child, so equal ids of
+ * different children don't collide. The adapter has stable ids when every child passed to the
+ * constructor has them. Once it is observed by a RecyclerView, children without stable ids can't be
+ * added to an adapter with stable ids.
+ */
+public class ConcatRendererAdapter extends RecyclerView.Adapter<RendererViewHolder> {
+
+    /**
+     * Odd 64 bit constant spreading the namespaces over the whole id space, so the ids of two
+     * children only collide if they differ by a multiple of it.
+     */
+    private static final long ID_NAMESPACE_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final List<RendererAdapter> adapters = new ArrayList<>();
+    private final List<ChildObserver> observers = new ArrayList<>();
+    private final Map<RendererBuilder, SparseIntArray> viewTypes = new ArrayMap<>();
+    private final List<ViewTypeOwner> viewTypeOwners = new ArrayList<>();
+    private int[] offsets = new int[1];
+    private boolean offsetsDirty;
+    private long nextIdNamespace;
+
+    public ConcatRendererAdapter(RendererAdapter... adapters) {
+        for (RendererAdapter adapter : adapters) {
+            addAdapter(adapter);
+        }
+    }
+
+    public ConcatRendererAdapter into(RecyclerView recyclerView) {
+        recyclerView.setAdapter(this);
+        return this;
+    }
+
+    /**
+     * @return read only list with the child adapters.
+     */
+    public List<RendererAdapter> getAdapters() {
+        return Collections.unmodifiableList(adapters);
+    }
+
+    /**
+     * Adds a child adapter at the end of the list.
+     *
+     * @param adapter to add.
+     */
+    public void addAdapter(RendererAdapter adapter) {
+        addAdapter(adapters.size(), adapter);
+    }
+
+    /**
+     * Adds a child adapter notifying the range of items inserted.
+     *
+     * @param index of the new child adapter.
+     * @param adapter to add.
+     */
+    public void addAdapter(int index, RendererAdapter adapter) {
+        if (adapter == null) {
+            throw new IllegalArgumentException("ConcatRendererAdapter can't contain null adapters");
+        }
+        updateHasStableIds(adapter);
+        ChildObserver observer = new ChildObserver(adapter, nextIdNamespace++);
+        adapters.add(index, adapter);
+        observers.add(index, observer);
+        adapter.registerAdapterDataObserver(observer);
+        offsetsDirty = true;
+        if (adapter.getItemCount() > 0) {
+            notifyItemRangeInserted(getAdapterOffset(adapter), adapter.getItemCount());
+        }
+    }
+
+    /**
+     * Removes one child adapter notifying the range of items removed.
+     *
+     * @param adapter to remove.
+     * @return true if the adapter was a child of this one.
+     */
+    public boolean removeAdapter(RendererAdapter adapter) {
+        int index = adapters.indexOf(adapter);
+        if (index < 0) {
+            return false;
+        }
+        int offset = getAdapterOffset(adapter);
+        adapters.remove(index);
+        adapter.unregisterAdapterDataObserver(observers.remove(index));
+        releaseViewTypes(adapter);
+        offsetsDirty = true;
+        if (adapter.getItemCount() > 0) {
+            notifyItemRangeRemoved(offset, adapter.getItemCount());
+        }
+        return true;
+    }
+
+    /**
+     * @param adapter child adapter.
+     * @return the global position of the first item of the adapter.
+     */
+    public int getAdapterOffset(RendererAdapter adapter) {
+        int index = adapters.indexOf(adapter);
+        if (index < 0) {
+            throw new IllegalArgumentException("The adapter is not a child of this ConcatRendererAdapter");
+        }
+        return getOffsets()[index];
+    }
+
+    /**
+     * @param position global position.
+     * @return the child adapter rendering the position.
+     */
+    public RendererAdapter getAdapterForPosition(int position) {
+        return adapters.get(findAdapterIndex(position));
+    }
+
+    /**
+     * @param position global position.
+     * @return the position inside the child adapter rendering the position.
+     */
+    public int getLocalPosition(int position) {
+        return position - getOffsets()[findAdapterIndex(position)];
+    }
+
+    @Override public int getItemCount() {
+        return getOffsets()[adapters.size()];
+    }
+
+    /**
+     * @return the id of the item in its child adapter moved to the namespace of the child, or
+     * RecyclerView.NO_ID if the child doesn't return an id.
+     */
+    @Override public long getItemId(int position) {
+        int index = findAdapterIndex(position);
+        long itemId = adapters.get(index).getItemId(position - offsets[index]);
+        if (itemId == RecyclerView.NO_ID) {
+            return RecyclerView.NO_ID;
+        }
+        return itemId + observers.get(index).idNamespace * ID_NAMESPACE_STRIDE;
+    }
+
+    @Override public int getItemViewType(int position) {
+        int index = findAdapterIndex(position);
+        RendererAdapter adapter = adapters.get(index);
+        int localViewType = adapter.getItemViewType(position - offsets[index]);
+        return getGlobalViewType(adapter, localViewType);
+    }
+
+    /**
+     * @param viewType global view type.
+     * @return the size of the views created for the view type, null if it is not fixed.
+     */
+    @Nullable
+    public FixedSize getFixedSize(int viewType) {
+        ViewTypeOwner owner = viewTypeOwners.get(viewType);
+        return owner != null ? owner.adapter.getFixedSize(owner.localViewType) : null;
+    }
+
+    @Override public RendererViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        ViewTypeOwner owner = viewTypeOwners.get(viewType);
+        if (owner == null) {
+            throw new IllegalStateException("The view type " + viewType + " belongs to a removed adapter");
+        }
+        return owner.adapter.onCreateViewHolder(parent, owner.localViewType);
+    }
+
+    @Override public void onBindViewHolder(RendererViewHolder viewHolder, int position) {
+        onBindViewHolder(viewHolder, position, Collections.emptyList());
+    }
+
+    @Override public void onBindViewHolder(RendererViewHolder viewHolder, int position, List<Object> payloads) {
+        int index = findAdapterIndex(position);
+        RendererAdapter adapter = adapters.get(index);
+        //noinspection unchecked
+        adapter.onBindViewHolder(viewHolder, position - offsets[index], payloads);
+        viewHolder.setBoundAdapter(adapter);
+    }
+
+    @Override public void onViewAttachedToWindow(RendererViewHolder viewHolder) {
+        RendererAdapter owner = getOwner(viewHolder);
+        if (owner != null) {
+            owner.onViewAttachedToWindow(viewHolder);
+        }
+    }
+
+    @Override public void onViewDetachedFromWindow(RendererViewHolder viewHolder) {
+        RendererAdapter owner = getOwner(viewHolder);
+        if (owner != null) {
+            owner.onViewDetachedFromWindow(viewHolder);
+        }
+    }
+
+    @Override public void onViewRecycled(RendererViewHolder viewHolder) {
+        RendererAdapter owner = getOwner(viewHolder);
+        if (owner != null) {
+            owner.onViewRecycled(viewHolder);
+        }
+    }
+
+    /**
+     * @return the adapter that bound the ViewHolder, or the one owning its view type if it was
+     * never bound. Null if it was never bound and its view type belongs to a removed adapter.
+     */
+    @Nullable
+    private RendererAdapter getOwner(RendererViewHolder viewHolder) {
+        RendererAdapter adapter = viewHolder.getBoundAdapter();
+        if (adapter == null) {
+            ViewTypeOwner owner = viewTypeOwners.get(viewHolder.getItemViewType());
+            adapter = owner != null ? owner.adapter : null;
+        }
+        return adapter;
+    }
+
+    /**
+     * The adapter has stable ids only if every child has them. The flag can't be changed while
+     * the adapter is observed, so children without stable ids are rejected then.
+     */
+    private void updateHasStableIds(RendererAdapter adapter) {
+        if (!hasObservers()) {
+            setHasStableIds(adapter.hasStableIds() && (adapters.isEmpty() || hasStableIds()));
+        } else if (hasStableIds() && !adapter.hasStableIds()) {
+            throw new IllegalStateException("An adapter without stable ids can't be added to an observed"
+                  + " ConcatRendererAdapter with stable ids");
+        }
+    }
+
+    /**
+     * Moves the view types of a removed adapter to another child created with the same
+     * RendererBuilder, or retires them so the removed adapter is not used to create ViewHolders.
+     * Retired view types are never reused, the ViewHolders still in the pool keep their type.
+     */
+    private void releaseViewTypes(RendererAdapter removed) {
+        RendererBuilder rendererBuilder = removed.getRendererBuilder();
+        RendererAdapter replacement = null;
+        for (RendererAdapter adapter : adapters) {
+            if (adapter.getRendererBuilder() == rendererBuilder) {
+                replacement = adapter;
+                break;
+            }
+        }
+        for (int i = 0; i < viewTypeOwners.size(); i++) {
+            ViewTypeOwner owner = viewTypeOwners.get(i);
+            if (owner != null && owner.adapter == removed) {
+                viewTypeOwners.set(i, replacement != null ? new ViewTypeOwner(replacement, owner.localViewType) : null);
+            }
+        }
+        if (replacement == null) {
+            viewTypes.remove(rendererBuilder);
+        }
+    }
+
+    private int getGlobalViewType(RendererAdapter adapter, int localViewType) {
+        RendererBuilder rendererBuilder = adapter.getRendererBuilder();
+        SparseIntArray builderViewTypes = viewTypes.get(rendererBuilder);
+        if (builderViewTypes == null) {
+            builderViewTypes = new SparseIntArray();
+            viewTypes.put(rendererBuilder, builderViewTypes);
+        }
+        int viewType = builderViewTypes.get(localViewType, -1);
+        if (viewType == -1) {
+            viewType = viewTypeOwners.size();
+            viewTypeOwners.add(new ViewTypeOwner(adapter, localViewType));
+            builderViewTypes.put(localViewType, viewType);
+        }
+        return viewType;
+    }
+
+    /**
+     * Binary search over the child offsets. Empty children share their offset with the next one,
+     * so the last child starting at the position is the one containing it.
+     */
+    private int findAdapterIndex(int position) {
+        int[] currentOffsets = getOffsets();
+        int size = adapters.size();
+        if (position < 0 || position >= currentOffsets[size]) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of " + currentOffsets[size]);
+        }
+        int index = Arrays.binarySearch(currentOffsets, 0, size, position);
+        if (index < 0) {
+            return -index - 2;
+        }
+        while (index + 1 < size && currentOffsets[index + 1] == position) {
+            index++;
+        }
+        return index;
+    }
+
+    private int[] getOffsets() {
+        if (offsetsDirty) {
+            int size = adapters.size();
+            if (offsets.length != size + 1) {
+                offsets = new int[size + 1];
+            }
+            int offset = 0;
+            for (int i = 0; i < size; i++) {
+                offsets[i] = offset;
+                offset += adapters.get(i).getItemCount();
+            }
+            offsets[size] = offset;
+            offsetsDirty = false;
+        }
+        return offsets;
+    }
+
+    /**
+     * Child adapter and view type used to create the ViewHolders of one global view type.
+     */
+    private static final class ViewTypeOwner {
+
+        final RendererAdapter adapter;
+        final int localViewType;
+
+        ViewTypeOwner(RendererAdapter adapter, int localViewType) {
+            this.adapter = adapter;
+            this.localViewType = localViewType;
+        }
+    }
+
+    /**
+     * Forwards the notifications of one child adapter translating its positions.
+     */
+    private final class ChildObserver extends RecyclerView.AdapterDataObserver {
+
+        private final RendererAdapter adapter;
+        private final long idNamespace;
+
+        ChildObserver(RendererAdapter adapter, long idNamespace) {
+            this.adapter = adapter;
+            this.idNamespace = idNamespace;
+        }
+
+        @Override public void onChanged() {
+            offsetsDirty = true;
+            notifyDataSetChanged();
+        }
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount) {
+            onItemRangeChanged(positionStart, itemCount, null);
+        }
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            notifyItemRangeChanged(getAdapterOffset(adapter) + positionStart, itemCount, payload);
+        }
+
+        @Override public void onItemRangeInserted(int positionStart, int itemCount) {
+            offsetsDirty = true;
+            notifyItemRangeInserted(getAdapterOffset(adapter) + positionStart, itemCount);
+        }
+
+        @Override public void onItemRangeRemoved(int positionStart, int itemCount) {
+            offsetsDirty = true;
+            notifyItemRangeRemoved(getAdapterOffset(adapter) + positionStart, itemCount);
+        }
+
+        @Override public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            int offset = getAdapterOffset(adapter);
+            if (itemCount == 1) {
+                notifyItemMoved(offset + fromPosition, offset + toPosition);
+            } else {
+                notifyItemRangeChanged(offset + Math.min(fromPosition, toPosition),
+                      Math.abs(fromPosition - toPosition) + itemCount);
+            }
+        }
+    }
+}
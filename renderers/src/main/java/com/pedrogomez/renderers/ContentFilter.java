@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Predicate used by {@link FilterableRendererAdapter} to decide which elements of the source
+ * collection are visible for a given query.
+ *
+ * The matches method is evaluated from worker threads and concurrently for different chunks of
+ * the collection, so implementations have to be thread safe and must not touch any view.
+ *
+ * @param <T> the type of the filtered elements.
+ */
+public abstract class ContentFilter<T> {
+
+    /**
+     * @param content element of the source collection.
+     * @param query non empty query to apply.
+     * @return true if the content has to be shown for the query.
+     */
+    public abstract boolean matches(T content, CharSequence query);
+
+    /**
+     * Indicates if every element matching the current query also matched the previous one. When
+     * this is true only the elements visible for the previous query are evaluated again.
+     *
+     * The default implementation assumes a "contains" like filter, where typing more characters
+     * can only reduce the results. Override this method if your matches implementation doesn't
+     * work that way.
+     *
+     * @param previous last query applied.
+     * @param current query to apply.
+     * @return true if current is a narrowed version of previous.
+     */
+    public boolean isNarrowing(CharSequence previous, CharSequence current) {
+        return current.toString().contains(previous);
+    }
+
+    /**
+     * Called on the main thread when the matches method throws an exception. The filter pass is
+     * cancelled and the adapter keeps showing the result of the last query applied.
+     *
+     * The default implementation throws the exception again, so errors in the filter are not
+     * silently ignored. Override this method to report them in a different way.
+     *
+     * @param query being applied when the error was thrown.
+     * @param error thrown by the matches method.
+     */
+    public void onError(CharSequence query, RuntimeException error) {
+        throw error;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import java.util.Arrays;
+
+/**
+ * Binary indexed tree storing a list of non negative counts. Updating one count, computing the sum
+ * of the first counts and finding the index containing a flat position are O(log n) operations.
+ *
+ * Appending a new count is O(log n) too, inserting or removing one in the middle rebuilds the tree.
+ */
+final class FenwickTree {
+
+    private int[] values;
+    private int[] tree;
+    private int size;
+
+    FenwickTree() {
+        values = new int[8];
+        tree = new int[9];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * @return the sum of every count stored.
+     */
+    int total() {
+        return prefixSum(size);
+    }
+
+    /**
+     * @param count number of counts to sum from the first one.
+     * @return the sum of the counts stored in the range [0, count).
+     */
+    int prefixSum(int count) {
+        int sum = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the index whose range contains the flat position passed as argument, that's the index
+     * satisfying prefixSum(index) <= position < prefixSum(index + 1).
+     *
+     * @param position flat position between 0 and total() - 1.
+     * @return the index containing the position.
+     */
+    int indexOf(int position) {
+        if (position < 0 || position >= total()) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of " + total());
+        }
+        int index = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= size && tree[next] <= remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return index;
+    }
+
+    void set(int index, int value) {
+        checkIndex(index);
+        int delta = value - values[index];
+        values[index] = value;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    void add(int value) {
+        ensureCapacity(size + 1);
+        values[size] = value;
+        size++;
+        int node = size;
+        tree[node] = value + prefixSum(node - 1) - prefixSum(node - (node & -node));
+    }
+
+    void insert(int index, int value) {
+        if (index == size) {
+            add(value);
+            return;
+        }
+        checkIndex(index);
+        ensureCapacity(size + 1);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        rebuild();
+    }
+
+    void remove(int index) {
+        checkIndex(index);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        values[size] = 0;
+        rebuild();
+    }
+
+    void clear() {
+        Arrays.fill(values, 0, size, 0);
+        Arrays.fill(tree, 0);
+        size = 0;
+    }
+
+    private void rebuild() {
+        Arrays.fill(tree, 0);
+        for (int i = 1; i <= size; i++) {
+            tree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            int newCapacity = Math.max(capacity, values.length * 2);
+            values = Arrays.copyOf(values, newCapacity);
+            tree = Arrays.copyOf(tree, newCapacity + 1);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+        }
+    }
+}
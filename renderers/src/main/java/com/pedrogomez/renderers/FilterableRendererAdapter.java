@@ -0,0 +1,531 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RendererAdapter extension showing the subset of a source collection matching a query.
+ *
+ * The ContentFilter is evaluated out of the main thread, splitting the source collection in chunks
+ * processed in parallel. When the new query narrows the previous one only the elements visible
+ * for the previous query are evaluated again. Once the result is ready the visible collection is
+ * updated in the main thread notifying only the inserted and removed ranges.
+ *
+ * The source collection is replaced using {@link #setSource(List)}. The mutation methods inherited
+ * from RendererAdapter work with visible positions and are applied to the source collection too:
+ * elements added are inserted in the source before the visible element they are added in front of
+ * and are kept visible until the next filter pass. A filter pass in progress is started again
+ * after any mutation. While a new source is being filtered the mutations only modify the visible
+ * collection, which is replaced once the new result is ready.
+ *
+ * @param <T> the type of the elements to show.
+ */
+public class FilterableRendererAdapter<T> extends RendererAdapter<T> {
+
+    private static final int MIN_CHUNK_SIZE = 512;
+    private static final int MAX_RANGE_NOTIFICATIONS = 128;
+    private static final int REMOVED = 0;
+    private static final int INSERTED = 1;
+
+    private final ContentFilter<T> filter;
+    private final Executor workers;
+    private final Executor mainThread;
+    private final int parallelism;
+
+    private Object[] source;
+    private int[] matches;
+    private CharSequence query;
+    private CharSequence appliedQuery;
+    private boolean stale;
+    private volatile int generation;
+    private int shownGeneration;
+
+    public FilterableRendererAdapter(RendererBuilder rendererBuilder, List source, ContentFilter<T> filter) {
+        this(rendererBuilder, source, filter, RendererExecutors.background(), RendererExecutors.mainThread(),
+              RendererExecutors.poolSize());
+    }
+
+    FilterableRendererAdapter(RendererBuilder rendererBuilder, List source, ContentFilter<T> filter,
+          Executor workers, Executor mainThread, int parallelism) {
+        super(rendererBuilder, new ArrayList(source));
+        if (filter == null) {
+            throw new IllegalArgumentException("FilterableRendererAdapter needs a non null ContentFilter");
+        }
+        this.filter = filter;
+        this.workers = workers;
+        this.mainThread = mainThread;
+        this.parallelism = parallelism;
+        this.source = source.toArray();
+    }
+
+    /**
+     * @return the last query applied or being applied, null if the adapter is not filtered.
+     */
+    @Nullable
+    public CharSequence getQuery() {
+        return query;
+    }
+
+    /**
+     * @return the number of elements in the source collection.
+     */
+    public int getSourceCount() {
+        return source.length;
+    }
+
+    /**
+     * Replaces the source collection and applies the current query to it. The visible collection is
+     * replaced once the new result is ready.
+     *
+     * @param source new collection to filter.
+     */
+    public void setSource(List source) {
+        this.source = source.toArray();
+        matches = null;
+        appliedQuery = null;
+        stale = true;
+        if (TextUtils.isEmpty(query)) {
+            generation++;
+            show(allIndexes(this.source.length), null);
+        } else {
+            startFiltering(query, null);
+        }
+    }
+
+    /**
+     * Shows the elements matching the query passed as argument. Passing a null or empty query shows
+     * every element of the source collection. Any filter pass in progress is discarded.
+     *
+     * @param newQuery to apply.
+     */
+    public void filter(@Nullable CharSequence newQuery) {
+        if (TextUtils.isEmpty(newQuery)) {
+            generation++;
+            query = null;
+            show(allIndexes(source.length), null);
+            return;
+        }
+        int[] candidates = null;
+        if (matches != null && !TextUtils.isEmpty(appliedQuery) && filter.isNarrowing(appliedQuery, newQuery)) {
+            candidates = matches;
+        }
+        startFiltering(newQuery, candidates);
+    }
+
+    /**
+     * Shows every element of the source collection.
+     */
+    public void clearFilter() {
+        filter(null);
+    }
+
+    private void startFiltering(CharSequence newQuery, @Nullable int[] candidates) {
+        int filterGeneration = ++generation;
+        query = newQuery;
+        int candidatesCount = candidates != null ? candidates.length : source.length;
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (candidatesCount + parallelism - 1) / parallelism);
+        int chunks = Math.max(1, (candidatesCount + chunkSize - 1) / chunkSize);
+        FilterPass pass = new FilterPass(filterGeneration, source, candidates, newQuery.toString(), chunks);
+        for (int i = 0; i < chunks; i++) {
+            int from = i * chunkSize;
+            workers.execute(new FilterChunk(pass, i, from, Math.min(candidatesCount, from + chunkSize)));
+        }
+    }
+
+    private void onFilterPassCompleted(final FilterPass pass, final int[] result) {
+        mainThread.execute(new Runnable() {
+            @Override public void run() {
+                if (pass.generation == generation) {
+                    show(result, pass.query);
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels the pass keeping the last result shown and reports the error to the ContentFilter.
+     */
+    private void onFilterPassFailed(final FilterPass pass, final RuntimeException error) {
+        mainThread.execute(new Runnable() {
+            @Override public void run() {
+                if (pass.generation == generation) {
+                    generation++;
+                    shownGeneration = generation;
+                    query = appliedQuery;
+                    filter.onError(pass.query, error);
+                }
+            }
+        });
+    }
+
+    private void show(int[] newMatches, @Nullable CharSequence newQuery) {
+        if (stale) {
+            replaceVisible(newMatches);
+        } else {
+            dispatchChanges(newMatches);
+        }
+        matches = newMatches;
+        appliedQuery = newQuery;
+        stale = false;
+        shownGeneration = generation;
+    }
+
+    @Override public boolean add(Object element) {
+        add(getCollection().size(), element);
+        return true;
+    }
+
+    @Override public void add(int index, Object element) {
+        insert(index < 0 ? getCollection().size() : index, new Object[] { element });
+    }
+
+    @Override public boolean addAll(Collection elements) {
+        return addAll(getCollection().size(), elements);
+    }
+
+    @Override public boolean addAll(int index, Collection elements) {
+        insert(index, elements.toArray());
+        return !elements.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override public T update(int index, Object element) {
+        T previous = getCollection().set(index, (T) element);
+        if (!stale) {
+            source[visibleMatches()[index]] = element;
+            onSourceMutated();
+        }
+        return previous;
+    }
+
+    @Override public T removeAt(int location) {
+        T removed = getCollection().get(location);
+        boolean[] removedPositions = new boolean[getCollection().size()];
+        removedPositions[location] = true;
+        removeVisible(removedPositions);
+        return removed;
+    }
+
+    @Override public boolean remove(Object element) {
+        int index = getCollection().indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    @Override public boolean removeAll(Collection<?> elements) {
+        List<T> visible = getCollection();
+        boolean[] removedPositions = new boolean[visible.size()];
+        boolean removed = false;
+        for (int i = 0; i < removedPositions.length; i++) {
+            if (elements.contains(visible.get(i))) {
+                removedPositions[i] = true;
+                removed = true;
+            }
+        }
+        if (removed) {
+            removeVisible(removedPositions);
+        }
+        return removed;
+    }
+
+    @Override public void clear() {
+        boolean[] removedPositions = new boolean[getCollection().size()];
+        Arrays.fill(removedPositions, true);
+        removeVisible(removedPositions);
+    }
+
+    /**
+     * Inserts the elements at a visible position and in the source collection, before the source
+     * element shown at that position.
+     */
+    @SuppressWarnings("unchecked")
+    private void insert(int index, Object[] elements) {
+        getCollection().addAll(index, (List<T>) Arrays.asList(elements));
+        if (stale || elements.length == 0) {
+            return;
+        }
+        int[] current = visibleMatches();
+        int count = elements.length;
+        int sourceIndex = index < current.length ? current[index] : source.length;
+        Object[] newSource = new Object[source.length + count];
+        System.arraycopy(source, 0, newSource, 0, sourceIndex);
+        System.arraycopy(elements, 0, newSource, sourceIndex, count);
+        System.arraycopy(source, sourceIndex, newSource, sourceIndex + count, source.length - sourceIndex);
+        int[] newMatches = new int[current.length + count];
+        System.arraycopy(current, 0, newMatches, 0, index);
+        for (int i = 0; i < count; i++) {
+            newMatches[index + i] = sourceIndex + i;
+        }
+        for (int i = index; i < current.length; i++) {
+            newMatches[i + count] = current[i] + count;
+        }
+        source = newSource;
+        matches = newMatches;
+        onSourceMutated();
+    }
+
+    /**
+     * Removes the elements shown at the visible positions marked from the visible and the source
+     * collections, keeping the source indexes of the remaining matches up to date.
+     */
+    private void removeVisible(boolean[] removedPositions) {
+        List<T> visible = getCollection();
+        List<T> kept = new ArrayList<>(visible.size());
+        for (int i = 0; i < removedPositions.length; i++) {
+            if (!removedPositions[i]) {
+                kept.add(visible.get(i));
+            }
+        }
+        visible.clear();
+        visible.addAll(kept);
+        if (stale) {
+            return;
+        }
+        int[] current = visibleMatches();
+        boolean[] removedSource = new boolean[source.length];
+        for (int i = 0; i < current.length; i++) {
+            removedSource[current[i]] = removedPositions[i];
+        }
+        int[] newSourceIndexes = new int[source.length];
+        Object[] newSource = new Object[source.length];
+        int sourceSize = 0;
+        for (int i = 0; i < source.length; i++) {
+            if (!removedSource[i]) {
+                newSourceIndexes[i] = sourceSize;
+                newSource[sourceSize++] = source[i];
+            }
+        }
+        int[] newMatches = new int[kept.size()];
+        int matchesSize = 0;
+        for (int i = 0; i < current.length; i++) {
+            if (!removedPositions[i]) {
+                newMatches[matchesSize++] = newSourceIndexes[current[i]];
+            }
+        }
+        source = Arrays.copyOf(newSource, sourceSize);
+        matches = newMatches;
+        onSourceMutated();
+    }
+
+    private int[] visibleMatches() {
+        if (matches == null) {
+            matches = allIndexes(source.length);
+        }
+        return matches;
+    }
+
+    /**
+     * The indexes computed by a pass in progress point to the previous source, so it is started
+     * again. The visible collection keeps being the diff base of the new pass.
+     */
+    private void onSourceMutated() {
+        if (shownGeneration != generation && !TextUtils.isEmpty(query)) {
+            startFiltering(query, null);
+        }
+    }
+
+    private void replaceVisible(int[] newMatches) {
+        List<T> visible = getCollection();
+        visible.clear();
+        for (int index : newMatches) {
+            visible.add(sourceAt(index));
+        }
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Both the old and the new matches are sorted indexes of the source collection, so the changes
+     * can be computed walking both arrays once and grouping consecutive changes in ranges.
+     */
+    private void dispatchChanges(int[] newMatches) {
+        int[] oldMatches = matches != null ? matches : allIndexes(source.length);
+        int[] ranges = new int[16];
+        int rangesCount = 0;
+        int oldIndex = 0;
+        int newIndex = 0;
+        int position = 0;
+        while (oldIndex < oldMatches.length || newIndex < newMatches.length) {
+            int oldValue = oldIndex < oldMatches.length ? oldMatches[oldIndex] : Integer.MAX_VALUE;
+            int newValue = newIndex < newMatches.length ? newMatches[newIndex] : Integer.MAX_VALUE;
+            int type;
+            int count = 0;
+            if (oldValue == newValue) {
+                oldIndex++;
+                newIndex++;
+                position++;
+                continue;
+            } else if (oldValue < newValue) {
+                type = REMOVED;
+                while (oldIndex < oldMatches.length && oldMatches[oldIndex] < newValue) {
+                    oldIndex++;
+                    count++;
+                }
+            } else {
+                type = INSERTED;
+                while (newIndex < newMatches.length && newMatches[newIndex] < oldValue) {
+                    newIndex++;
+                    count++;
+                }
+            }
+            if (rangesCount + 3 > ranges.length) {
+                ranges = Arrays.copyOf(ranges, ranges.length * 2);
+            }
+            ranges[rangesCount++] = type;
+            ranges[rangesCount++] = position;
+            ranges[rangesCount++] = count;
+            if (type == INSERTED) {
+                position += count;
+            }
+        }
+
+        List<T> visible = getCollection();
+        visible.clear();
+        for (int index : newMatches) {
+            visible.add(sourceAt(index));
+        }
+        if (rangesCount / 3 > MAX_RANGE_NOTIFICATIONS) {
+            notifyDataSetChanged();
+            return;
+        }
+        for (int i = 0; i < rangesCount; i += 3) {
+            if (ranges[i] == REMOVED) {
+                notifyItemRangeRemoved(ranges[i + 1], ranges[i + 2]);
+            } else {
+                notifyItemRangeInserted(ranges[i + 1], ranges[i + 2]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T sourceAt(int index) {
+        return (T) source[index];
+    }
+
+    private static int[] allIndexes(int size) {
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
+    }
+
+    /**
+     * State shared by the chunks evaluated for one query.
+     */
+    private final class FilterPass {
+
+        final int generation;
+        final Object[] source;
+        final int[] candidates;
+        final String query;
+        final int[][] results;
+        final AtomicInteger pendingChunks;
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        FilterPass(int generation, Object[] source, @Nullable int[] candidates, String query, int chunks) {
+            this.generation = generation;
+            this.source = source;
+            this.candidates = candidates;
+            this.query = query;
+            this.results = new int[chunks][];
+            this.pendingChunks = new AtomicInteger(chunks);
+        }
+
+        boolean isCancelled() {
+            return generation != FilterableRendererAdapter.this.generation;
+        }
+
+        void onChunkCompleted(int chunk, int[] result) {
+            results[chunk] = result;
+            if (pendingChunks.decrementAndGet() == 0 && !failed.get() && !isCancelled()) {
+                onFilterPassCompleted(this, merge());
+            }
+        }
+
+        void onChunkFailed(RuntimeException error) {
+            if (failed.compareAndSet(false, true)) {
+                onFilterPassFailed(this, error);
+            }
+        }
+
+        private int[] merge() {
+            int size = 0;
+            for (int[] result : results) {
+                size += result.length;
+            }
+            int[] merged = new int[size];
+            int offset = 0;
+            for (int[] result : results) {
+                System.arraycopy(result, 0, merged, offset, result.length);
+                offset += result.length;
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Evaluates the filter for a range of candidates and stores the matching source indexes.
+     */
+    private final class FilterChunk implements Runnable {
+
+        private final FilterPass pass;
+        private final int chunk;
+        private final int from;
+        private final int to;
+
+        FilterChunk(FilterPass pass, int chunk, int from, int to) {
+            this.pass = pass;
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override public void run() {
+            int[] result = new int[to - from];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if ((i & 0xFF) == 0 && pass.isCancelled()) {
+                    pass.onChunkCompleted(chunk, new int[0]);
+                    return;
+                }
+                int index = pass.candidates != null ? pass.candidates[i] : i;
+                try {
+                    if (filter.matches((T) pass.source[index], pass.query)) {
+                        result[count++] = index;
+                    }
+                } catch (RuntimeException e) {
+                    pass.onChunkFailed(e);
+                    return;
+                }
+            }
+            pass.onChunkCompleted(chunk, Arrays.copyOf(result, count));
+        }
+    }
+}
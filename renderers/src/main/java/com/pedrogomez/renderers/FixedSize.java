@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Size in pixels of every view created for one Renderer type. The root views of those Renderers get
+ * the fixed dimensions as layout params and {@link RendererLayoutManager} doesn't measure them again
+ * while their size is fully known.
+ *
+ * Use it for rows whose size doesn't depend on their content, like section headers or dividers.
+ */
+public final class FixedSize {
+
+    /**
+     * Value returned for the dimensions not fixed.
+     */
+    public static final int NOT_FIXED = 0;
+
+    private final int width;
+    private final int height;
+
+    private FixedSize(int width, int height) {
+        if (width < 0 || height < 0 || (width == NOT_FIXED && height == NOT_FIXED)) {
+            throw new IllegalArgumentException("FixedSize needs a positive width or height");
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param height in pixels.
+     * @return a FixedSize with a fixed height, the width is computed from the layout params.
+     */
+    public static FixedSize height(int height) {
+        return new FixedSize(NOT_FIXED, height);
+    }
+
+    /**
+     * @param width in pixels.
+     * @return a FixedSize with a fixed width, the height is computed from the layout params.
+     */
+    public static FixedSize width(int width) {
+        return new FixedSize(width, NOT_FIXED);
+    }
+
+    /**
+     * @param width in pixels.
+     * @param height in pixels.
+     * @return a FixedSize with both dimensions fixed.
+     */
+    public static FixedSize of(int width, int height) {
+        return new FixedSize(width, height);
+    }
+
+    /**
+     * @return the width in pixels or NOT_FIXED.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the height in pixels or NOT_FIXED.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FixedSize)) {
+            return false;
+        }
+        FixedSize other = (FixedSize) o;
+        return width == other.width && height == other.height;
+    }
+
+    @Override public int hashCode() {
+        return 31 * width + height;
+    }
+
+    @Override public String toString() {
+        return "FixedSize{width=" + width + ", height=" + height + '}';
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+import android.view.View;
+
+/**
+ * Creates and binds during the main thread idle time the ViewHolders of the next positions in the
+ * scroll direction, so when those rows enter the screen they are taken already rendered from the
+ * RecycledViewPool and RendererAdapter doesn't render them again. One ViewHolder is bound every
+ * time the main thread goes idle, so the work never delays a frame already scheduled.
+ *
+ * The IdlePreBinder replaces the RecycledViewPool and the ViewCacheExtension of the RecyclerView,
+ * which has to use a LinearLayoutManager. Any change notified by the adapter releases the
+ * ViewHolders pre-bound to the pool as regular recycled ViewHolders.
+ */
+public class IdlePreBinder extends RecyclerView.OnScrollListener implements MessageQueue.IdleHandler, Trimmable {
+
+    private static final int DEFAULT_COUNT = 2;
+
+    private final RendererAdapter<?> adapter;
+    private final int count;
+    final PreBoundViewPool pool = new PreBoundViewPool();
+    final RecyclerView.ViewCacheExtension positionTracker = new RecyclerView.ViewCacheExtension() {
+        @Override public View getViewForPositionAndType(RecyclerView.Recycler recycler, int position, int type) {
+            pool.requestedPosition = position;
+            return null;
+        }
+    };
+    private final RecyclerView.AdapterDataObserver invalidator = new RecyclerView.AdapterDataObserver() {
+        @Override public void onChanged() {
+            pool.releasePreBound();
+        }
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount) {
+            pool.releasePreBound();
+        }
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            pool.releasePreBound();
+        }
+
+        @Override public void onItemRangeInserted(int positionStart, int itemCount) {
+            pool.releasePreBound();
+        }
+
+        @Override public void onItemRangeRemoved(int positionStart, int itemCount) {
+            pool.releasePreBound();
+        }
+
+        @Override public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            pool.releasePreBound();
+        }
+    };
+    private final Runnable wakeUp = new Runnable() {
+        @Override public void run() { }
+    };
+    private RecyclerView recyclerView;
+    private boolean forward = true;
+
+    public IdlePreBinder(RendererAdapter<?> adapter) {
+        this(adapter, DEFAULT_COUNT);
+    }
+
+    /**
+     * @param adapter of the RecyclerView.
+     * @param count number of positions pre-bound after the last visible one.
+     */
+    public IdlePreBinder(RendererAdapter<?> adapter, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("IdlePreBinder needs to pre-bind at least one position");
+        }
+        this.adapter = adapter;
+        this.count = count;
+    }
+
+    /**
+     * Starts pre-binding the next positions of the RecyclerView. Call it from the main thread.
+     *
+     * @param recyclerView showing the adapter.
+     */
+    public void attach(RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        recyclerView.setRecycledViewPool(pool);
+        recyclerView.setViewCacheExtension(positionTracker);
+        recyclerView.addOnScrollListener(this);
+        adapter.registerAdapterDataObserver(invalidator);
+        Looper.myQueue().addIdleHandler(this);
+    }
+
+    /**
+     * Stops pre-binding positions, releasing the ViewHolders pre-bound. Call it from the main thread.
+     */
+    public void detach() {
+        if (recyclerView == null) {
+            return;
+        }
+        Looper.myQueue().removeIdleHandler(this);
+        adapter.unregisterAdapterDataObserver(invalidator);
+        recyclerView.removeOnScrollListener(this);
+        recyclerView.setViewCacheExtension(null);
+        pool.releasePreBound();
+        recyclerView = null;
+    }
+
+    @Override public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if (dx != 0 || dy != 0) {
+            forward = dx > 0 || dy > 0;
+        }
+    }
+
+    @Override public boolean queueIdle() {
+        if (recyclerView == null) {
+            return false;
+        }
+        if (recyclerView.getLayoutManager() instanceof LinearLayoutManager) {
+            LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+            boolean pendingWork = preBindNext(layoutManager.findFirstVisibleItemPosition(),
+                  layoutManager.findLastVisibleItemPosition(), forward);
+            if (pendingWork) {
+                recyclerView.post(wakeUp);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Releases the ViewHolders pre-bound and trims the pool, whose limits grow back as the list
+     * needs more ViewHolders. The next positions are pre-bound again in the next idle pass.
+     */
+    @Override public void onTrimMemory(int level) {
+        pool.releasePreBound();
+        pool.onTrimMemory(level);
+    }
+
+    /**
+     * @return the number of ViewHolders pre-bound waiting to be shown.
+     */
+    public int getPreBoundCount() {
+        return pool.preBound.size();
+    }
+
+    /**
+     * Releases the ViewHolders pre-bound out of the next positions and pre-binds one of the next
+     * positions not pre-bound yet.
+     *
+     * @return true if a ViewHolder was pre-bound, so there could be more positions to pre-bind.
+     */
+    boolean preBindNext(int first, int last, boolean forward) {
+        if (first == RecyclerView.NO_POSITION) {
+            return false;
+        }
+        int start = forward ? last + 1 : Math.max(0, first - count);
+        int end = forward ? Math.min(adapter.getItemCount() - 1, last + count) : first - 1;
+        pool.releasePreBound(start, end);
+        for (int i = 0, positions = end - start + 1; i < positions; i++) {
+            int position = forward ? start + i : end - i;
+            if (pool.preBound.get(position) == null) {
+                preBind(position);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void preBind(int position) {
+        int viewType = adapter.getItemViewType(position);
+        RendererViewHolder viewHolder = (RendererViewHolder) pool.getSpareViewHolder(viewType);
+        if (viewHolder == null) {
+            viewHolder = adapter.createViewHolder(recyclerView, viewType);
+        }
+        adapter.bindViewHolder(viewHolder, position);
+        viewHolder.setPreBoundContent(adapter.getItem(position));
+        pool.preBound.put(position, viewHolder);
+    }
+
+    /**
+     * RecycledViewPool returning the ViewHolder pre-bound for the position requested by the
+     * RecyclerView, tracked by the ViewCacheExtension called just before the pool.
+     */
+    final class PreBoundViewPool extends TrimmableViewPool {
+
+        final SparseArray<RendererViewHolder> preBound = new SparseArray<>();
+        int requestedPosition = RecyclerView.NO_POSITION;
+
+        @Override public RecyclerView.ViewHolder getRecycledView(int viewType) {
+            int position = requestedPosition;
+            requestedPosition = RecyclerView.NO_POSITION;
+            RendererViewHolder viewHolder = preBound.get(position);
+            if (viewHolder != null && viewHolder.getItemViewType() == viewType) {
+                preBound.remove(position);
+                return viewHolder;
+            }
+            return super.getRecycledView(viewType);
+        }
+
+        @Override public void clear() {
+            releasePreBound();
+            super.clear();
+        }
+
+        RecyclerView.ViewHolder getSpareViewHolder(int viewType) {
+            return super.getRecycledView(viewType);
+        }
+
+        void releasePreBound() {
+            releasePreBound(0, -1);
+        }
+
+        /**
+         * Moves the ViewHolders pre-bound out of the range passed as argument to the pool.
+         */
+        void releasePreBound(int start, int end) {
+            for (int i = preBound.size() - 1; i >= 0; i--) {
+                int position = preBound.keyAt(i);
+                if (position < start || position > end) {
+                    RendererViewHolder viewHolder = preBound.valueAt(i);
+                    preBound.removeAt(i);
+                    viewHolder.setPreBoundContent(null);
+                    adapter.onViewRecycled(viewHolder);
+                    putRecycledView(viewHolder);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.v4.util.LongSparseArray;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Scroll listener prefetching the items ahead of the visible ones in the scroll direction. The
+ * number of items prefetched grows with the scroll velocity, so a fling prefetches further than a
+ * slow scroll. Items leaving the prefetch range without being shown, because the scroll direction
+ * changed or they were overtaken by the range, are cancelled. The velocity is reset once the
+ * scroll stops.
+ *
+ * While attached, the adapter is observed: items removed or changed are cancelled, and the
+ * positions of the others are moved when the adapter has stable ids. Without stable ids every
+ * pending item is cancelled on structural changes because its id is its old position. The range is
+ * computed again in the next scroll or layout.
+ *
+ * By default the prototype Renderers implementing {@link Prefetcher} are called, subtypes can
+ * override onPrefetch and onCancel to prefetch other resources. The RecyclerView has to use a
+ * LinearLayoutManager.
+ */
+public class LookaheadPrefetcher extends RecyclerView.OnScrollListener {
+
+    private static final int DEFAULT_DISTANCE = 3;
+    private static final int DEFAULT_MAX_DISTANCE = 15;
+    private static final int LOOKAHEAD_MILLIS = 500;
+
+    private final RendererAdapter<?> adapter;
+    private final int distance;
+    private final int maxDistance;
+    private final LongSparseArray<Prefetch> prefetched = new LongSparseArray<>();
+    private final DataObserver dataObserver = new DataObserver();
+    private Context context;
+    private boolean observing;
+    private boolean forward = true;
+    private int lastFirstPosition = RecyclerView.NO_POSITION;
+    private long lastUptimeMillis;
+    private float itemsPerSecond;
+
+    public LookaheadPrefetcher(RendererAdapter<?> adapter) {
+        this(adapter, DEFAULT_DISTANCE, DEFAULT_MAX_DISTANCE);
+    }
+
+    /**
+     * @param adapter of the RecyclerView.
+     * @param distance number of items prefetched when the list is not scrolling fast.
+     * @param maxDistance number of items prefetched during a fast fling.
+     */
+    public LookaheadPrefetcher(RendererAdapter<?> adapter, int distance, int maxDistance) {
+        if (distance < 0 || maxDistance < distance) {
+            throw new IllegalArgumentException("The prefetch distance has to be between 0 and maxDistance");
+        }
+        this.adapter = adapter;
+        this.distance = distance;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Starts prefetching the items of the RecyclerView when it scrolls or lays out its children.
+     *
+     * @param recyclerView showing the adapter.
+     */
+    public void attach(RecyclerView recyclerView) {
+        context = recyclerView.getContext();
+        recyclerView.addOnScrollListener(this);
+        if (!observing) {
+            adapter.registerAdapterDataObserver(dataObserver);
+            observing = true;
+        }
+    }
+
+    /**
+     * Stops prefetching cancelling the items prefetched not shown yet.
+     *
+     * @param recyclerView showing the adapter.
+     */
+    public void detach(RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(this);
+        if (observing) {
+            adapter.unregisterAdapterDataObserver(dataObserver);
+            observing = false;
+        }
+        context = recyclerView.getContext();
+        cancelAll();
+    }
+
+    @Override public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            resetVelocity();
+        }
+    }
+
+    @Override public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (dx != 0 || dy != 0) {
+            forward = dx > 0 || dy > 0;
+        }
+        int availableWidth = recyclerView.getWidth() - recyclerView.getPaddingLeft() - recyclerView.getPaddingRight();
+        update(recyclerView.getContext(), layoutManager.findFirstVisibleItemPosition(),
+              layoutManager.findLastVisibleItemPosition(), forward, availableWidth, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * @return the number of items prefetched ahead of the visible ones with the current velocity.
+     */
+    public int getCurrentDistance() {
+        int velocityDistance = (int) Math.ceil(itemsPerSecond * LOOKAHEAD_MILLIS / 1000f);
+        return Math.max(distance, Math.min(maxDistance, velocityDistance));
+    }
+
+    /**
+     * Updates the velocity and the prefetch range using the visible positions, cancelling the items
+     * out of the new range and prefetching the new ones.
+     */
+    void update(Context context, int first, int last, boolean forward, int availableWidth, long uptimeMillis) {
+        if (first == RecyclerView.NO_POSITION) {
+            return;
+        }
+        this.context = context;
+        updateVelocity(first, uptimeMillis);
+        int currentDistance = getCurrentDistance();
+        int start;
+        int end;
+        if (forward) {
+            start = last + 1;
+            end = Math.min(adapter.getItemCount() - 1, last + currentDistance);
+        } else {
+            start = Math.max(0, first - currentDistance);
+            end = first - 1;
+        }
+        for (int i = prefetched.size() - 1; i >= 0; i--) {
+            Prefetch prefetch = prefetched.valueAt(i);
+            boolean shown = prefetch.position >= first && prefetch.position <= last;
+            if (!shown && (prefetch.position < start || prefetch.position > end)) {
+                onCancel(context, prefetch.content, prefetched.keyAt(i));
+            }
+            if (shown || prefetch.position < start || prefetch.position > end) {
+                prefetched.removeAt(i);
+            }
+        }
+        for (int i = 0, count = end - start + 1; i < count; i++) {
+            int position = forward ? start + i : end - i;
+            long itemId = adapter.getItemId(position);
+            if (prefetched.get(itemId) == null) {
+                Object content = adapter.getItem(position);
+                prefetched.put(itemId, new Prefetch(position, content));
+                onPrefetch(context, availableWidth, position, content, itemId);
+            }
+        }
+    }
+
+    /**
+     * Starts prefetching one item, calling its prototype Renderer if it implements Prefetcher.
+     *
+     * @param context of the RecyclerView.
+     * @param availableWidth width of the RecyclerView without its padding.
+     * @param position of the item.
+     * @param content of the item.
+     * @param itemId of the item.
+     */
+    protected void onPrefetch(Context context, int availableWidth, int position, Object content, long itemId) {
+        Prefetcher<Object> prefetcher = getPrefetcher(adapter.getItemViewType(position));
+        if (prefetcher != null) {
+            prefetcher.prefetch(context, content, itemId);
+        }
+    }
+
+    /**
+     * Cancels the prefetch of one item, calling its prototype Renderer if it implements Prefetcher.
+     *
+     * @param context of the RecyclerView.
+     * @param content of the item.
+     * @param itemId of the item.
+     */
+    protected void onCancel(Context context, Object content, long itemId) {
+        //noinspection unchecked
+        Prefetcher<Object> prefetcher = getPrefetcher(((RendererBuilder<Object>) adapter.getRendererBuilder())
+              .getItemViewType(content));
+        if (prefetcher != null) {
+            prefetcher.cancel(context, content, itemId);
+        }
+    }
+
+    /**
+     * @return the adapter whose items are prefetched.
+     */
+    protected RendererAdapter<?> getAdapter() {
+        return adapter;
+    }
+
+    private Prefetcher<Object> getPrefetcher(int viewType) {
+        Renderer prototype = adapter.getRendererBuilder().getPrototypeByIndex(viewType);
+        //noinspection unchecked
+        return prototype instanceof Prefetcher ? (Prefetcher<Object>) prototype : null;
+    }
+
+    /**
+     * Forgets the velocity measured, so the next scroll starts prefetching the default distance.
+     */
+    void resetVelocity() {
+        itemsPerSecond = 0;
+        lastFirstPosition = RecyclerView.NO_POSITION;
+    }
+
+    private void cancelAll() {
+        for (int i = prefetched.size() - 1; i >= 0; i--) {
+            onCancel(context, prefetched.valueAt(i).content, prefetched.keyAt(i));
+        }
+        prefetched.clear();
+    }
+
+    /**
+     * Cancels the items prefetched in a range of positions.
+     */
+    private void cancelRange(int positionStart, int itemCount) {
+        for (int i = prefetched.size() - 1; i >= 0; i--) {
+            Prefetch prefetch = prefetched.valueAt(i);
+            if (prefetch.position >= positionStart && prefetch.position < positionStart + itemCount) {
+                onCancel(context, prefetch.content, prefetched.keyAt(i));
+                prefetched.removeAt(i);
+            }
+        }
+    }
+
+    /**
+     * Moves the positions of the items prefetched from a position on.
+     */
+    private void shiftPositions(int positionStart, int offset) {
+        for (int i = 0, size = prefetched.size(); i < size; i++) {
+            Prefetch prefetch = prefetched.valueAt(i);
+            if (prefetch.position >= positionStart) {
+                prefetch.position += offset;
+            }
+        }
+    }
+
+    /**
+     * Smooths the number of items scrolled per second using the first visible position.
+     */
+    private void updateVelocity(int first, long uptimeMillis) {
+        if (lastFirstPosition != RecyclerView.NO_POSITION && uptimeMillis > lastUptimeMillis) {
+            float instantItemsPerSecond = Math.abs(first - lastFirstPosition) * 1000f / (uptimeMillis - lastUptimeMillis);
+            itemsPerSecond = (itemsPerSecond + instantItemsPerSecond) / 2;
+        }
+        lastFirstPosition = first;
+        lastUptimeMillis = uptimeMillis;
+    }
+
+    /**
+     * Position and content of one item prefetched.
+     */
+    private static final class Prefetch {
+
+        int position;
+        final Object content;
+
+        Prefetch(int position, Object content) {
+            this.position = position;
+            this.content = content;
+        }
+    }
+
+    /**
+     * Keeps the items prefetched consistent with the adapter. The first visible position is reset
+     * too, so the velocity is not measured across the change.
+     */
+    private final class DataObserver extends RecyclerView.AdapterDataObserver {
+
+        @Override public void onChanged() {
+            lastFirstPosition = RecyclerView.NO_POSITION;
+            cancelAll();
+        }
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount) {
+            cancelRange(positionStart, itemCount);
+        }
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            cancelRange(positionStart, itemCount);
+        }
+
+        @Override public void onItemRangeInserted(int positionStart, int itemCount) {
+            lastFirstPosition = RecyclerView.NO_POSITION;
+            if (adapter.hasStableIds()) {
+                shiftPositions(positionStart, itemCount);
+            } else {
+                cancelAll();
+            }
+        }
+
+        @Override public void onItemRangeRemoved(int positionStart, int itemCount) {
+            lastFirstPosition = RecyclerView.NO_POSITION;
+            if (adapter.hasStableIds()) {
+                cancelRange(positionStart, itemCount);
+                shiftPositions(positionStart + itemCount, -itemCount);
+            } else {
+                cancelAll();
+            }
+        }
+
+        @Override public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            lastFirstPosition = RecyclerView.NO_POSITION;
+            if (adapter.hasStableIds()) {
+                cancelRange(fromPosition, itemCount);
+                shiftPositions(fromPosition + itemCount, -itemCount);
+                shiftPositions(toPosition, itemCount);
+            } else {
+                cancelAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v4.util.LruCache;
+
+/**
+ * Cache of the sizes measured for the rows rendered by {@link MeasureCacheable} Renderers, keyed
+ * by item id, version and the measure spec of the space available across the scroll direction.
+ *
+ * The cache can outlive the RecyclerView, so keeping it across configuration changes makes
+ * rebinding cheaper after orientation round trips. Clear it when something else affecting the
+ * measure changes, like the font scale. It has to be used from the main thread.
+ */
+public final class MeasureCache implements Trimmable {
+
+    /**
+     * Value returned for the sizes not cached.
+     */
+    public static final int NOT_CACHED = -1;
+
+    private static final int DEFAULT_MAX_SIZE = 500;
+
+    private final LruCache<Key, Integer> sizes;
+    private final Key lookupKey = new Key();
+
+    public MeasureCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize maximum number of sizes cached.
+     */
+    public MeasureCache(int maxSize) {
+        sizes = new LruCache<>(maxSize);
+    }
+
+    /**
+     * @param itemId of the row.
+     * @param version of the row content.
+     * @param availableSpec measure spec of the space available across the scroll direction.
+     * @return the size measured along the scroll direction or NOT_CACHED.
+     */
+    public int get(long itemId, long version, int availableSpec) {
+        Integer size = sizes.get(lookupKey.set(itemId, version, availableSpec));
+        return size != null ? size : NOT_CACHED;
+    }
+
+    /**
+     * @param itemId of the row.
+     * @param version of the row content.
+     * @param availableSpec measure spec of the space available across the scroll direction.
+     * @param size measured along the scroll direction.
+     */
+    public void put(long itemId, long version, int availableSpec, int size) {
+        sizes.put(new Key().set(itemId, version, availableSpec), size);
+    }
+
+    public int size() {
+        return sizes.size();
+    }
+
+    public void clear() {
+        sizes.evictAll();
+    }
+
+    /**
+     * Evicts the least recently used sizes in proportion to the trim level.
+     */
+    @Override public void onTrimMemory(int level) {
+        sizes.trimToSize(MemoryTrimmer.getRetainedCount(sizes.size(), level));
+    }
+
+    /**
+     * Mutable key, so the lookups don't allocate a new one.
+     */
+    private static final class Key {
+
+        long itemId;
+        long version;
+        int availableSpec;
+
+        Key set(long itemId, long version, int availableSpec) {
+            this.itemId = itemId;
+            this.version = version;
+            this.availableSpec = availableSpec;
+            return this;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return itemId == other.itemId && version == other.version && availableSpec == other.availableSpec;
+        }
+
+        @Override public int hashCode() {
+            int result = (int) (itemId ^ (itemId >>> 32));
+            result = 31 * result + (int) (version ^ (version >>> 32));
+            return 31 * result + availableSpec;
+        }
+    }
+}
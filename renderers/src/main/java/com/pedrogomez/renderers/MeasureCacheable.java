@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Implemented by Renderers whose measured size only depends on the version of their content and
+ * the space available, so {@link RendererLayoutManager} can reuse the size measured before for the
+ * same item using a {@link MeasureCache}.
+ *
+ * Only the {@link VersionedContent} elements rendered by these Renderers are cached.
+ */
+public interface MeasureCacheable {
+}
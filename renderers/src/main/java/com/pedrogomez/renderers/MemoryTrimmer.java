@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Forwards the onTrimMemory events of the application to the pools and caches registered, so long
+ * lived lists don't keep their peak number of ViewHolders and cached data while the system is
+ * running low on memory. Trimmables are referenced weakly, so registering them doesn't keep them
+ * alive.
+ *
+ * The events are only received on devices with Android 4.0 or newer, {@link #onTrimMemory(int)}
+ * can be called directly on older devices, for example from onLowMemory.
+ */
+public class MemoryTrimmer {
+
+    private final Set<Trimmable> trimmables = Collections.newSetFromMap(new WeakHashMap<Trimmable, Boolean>());
+    private Object callbacks;
+
+    /**
+     * Starts receiving the trim events of the application.
+     *
+     * @param context any context, only the application context is kept.
+     */
+    public void register(Context context) {
+        if (callbacks == null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            TrimCallbacks trimCallbacks = new TrimCallbacks(this);
+            context.getApplicationContext().registerComponentCallbacks(trimCallbacks);
+            callbacks = trimCallbacks;
+        }
+    }
+
+    /**
+     * Stops receiving the trim events of the application.
+     *
+     * @param context any context of the application.
+     */
+    public void unregister(Context context) {
+        if (callbacks != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            context.getApplicationContext().unregisterComponentCallbacks((TrimCallbacks) callbacks);
+            callbacks = null;
+        }
+    }
+
+    public void add(Trimmable trimmable) {
+        trimmables.add(trimmable);
+    }
+
+    public void remove(Trimmable trimmable) {
+        trimmables.remove(trimmable);
+    }
+
+    /**
+     * Trims every Trimmable registered.
+     *
+     * @param level one of the ComponentCallbacks2 TRIM_MEMORY constants.
+     */
+    public void onTrimMemory(int level) {
+        for (Trimmable trimmable : new ArrayList<>(trimmables)) {
+            trimmable.onTrimMemory(level);
+        }
+    }
+
+    /**
+     * The fraction kept never grows with the level, so a hidden or background process never keeps
+     * more content than a foreground one under critical pressure.
+     *
+     * @param level one of the ComponentCallbacks2 TRIM_MEMORY constants.
+     * @return the fraction of the content Trimmables should keep for the level.
+     */
+    public static float getRetainedFraction(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            return 0f;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            return 0.25f;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            return 0.5f;
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            return 0.75f;
+        }
+        return 1f;
+    }
+
+    /**
+     * @return the number of elements to keep out of the count passed as argument for the level.
+     */
+    static int getRetainedCount(int count, int level) {
+        return (int) (count * getRetainedFraction(level));
+    }
+
+    /**
+     * ComponentCallbacks2 implementation, only loaded on devices supporting it.
+     */
+    @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+    private static final class TrimCallbacks implements ComponentCallbacks2 {
+
+        private final MemoryTrimmer trimmer;
+
+        TrimCallbacks(MemoryTrimmer trimmer) {
+            this.trimmer = trimmer;
+        }
+
+        @Override public void onTrimMemory(int level) {
+            trimmer.onTrimMemory(level);
+        }
+
+        @Override public void onConfigurationChanged(Configuration newConfig) { }
+
+        @Override public void onLowMemory() {
+            trimmer.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        }
+    }
+}
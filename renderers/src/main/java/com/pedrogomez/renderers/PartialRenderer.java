@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import java.util.List;
+
+/**
+ * Renderer declaring the aspects of the content it can update independently, like the title or
+ * the like count of a post, using an enum. When the content is notified with
+ * {@link ChangePayload} instances only the callbacks of the aspects changed are invoked, any other
+ * payload, or no payload at all, renders the whole content.
+ *
+ * The bit of every aspect in the ChangePayload mask is given by {@link #maskOf(Enum)}, so the
+ * ChangeCalculator of the content can use it to build the masks. Up to 32 aspects are supported.
+ *
+ * @param <T> the type of the content rendered.
+ * @param <A> the enum with the aspects of the content.
+ */
+public abstract class PartialRenderer<T, A extends Enum<A>> extends Renderer<T> {
+
+    private static final int MAX_ASPECTS = Integer.SIZE;
+
+    private final A[] aspects;
+
+    /**
+     * @param aspectClass enum with the aspects rendered independently.
+     */
+    public PartialRenderer(Class<A> aspectClass) {
+        aspects = aspectClass.getEnumConstants();
+        if (aspects.length > MAX_ASPECTS) {
+            throw new IllegalArgumentException("PartialRenderer supports up to " + MAX_ASPECTS + " aspects but "
+                  + aspectClass.getSimpleName() + " declares " + aspects.length);
+        }
+    }
+
+    /**
+     * @param aspect of the content.
+     * @return the bit used to notify changes in the aspect.
+     */
+    public static int maskOf(Enum<?> aspect) {
+        return 1 << aspect.ordinal();
+    }
+
+    /**
+     * Merges the payloads into one mask and renders only the aspects changed.
+     *
+     * @param payloads Extra payloads for fine-grain rendering.
+     */
+    @Override public final void render(List<Object> payloads) {
+        int mask = ChangePayload.merge(payloads);
+        if (mask == ChangePayload.ALL) {
+            renderAll();
+            return;
+        }
+        for (int i = 0; i < aspects.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                onRenderAspect(aspects[i]);
+            }
+        }
+    }
+
+    /**
+     * Renders the whole content.
+     */
+    protected abstract void renderAll();
+
+    /**
+     * Renders one aspect of the content changed.
+     *
+     * @param aspect changed.
+     */
+    protected abstract void onRenderAspect(A aspect);
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+
+/**
+ * Hook to warm images, data or caches used to render the items about to be shown. Prototype
+ * Renderers implementing this interface are called by a {@link LookaheadPrefetcher} with the
+ * content of the items ahead in the scroll direction. The prototype is never inflated, so the
+ * implementation can't use the views of the Renderer.
+ *
+ * @param <T> the type of the content rendered.
+ */
+public interface Prefetcher<T> {
+
+    /**
+     * Starts prefetching the resources of one item.
+     *
+     * @param context of the RecyclerView.
+     * @param content of the item.
+     * @param itemId of the item in the adapter.
+     */
+    void prefetch(Context context, T content, long itemId);
+
+    /**
+     * Cancels the prefetch of one item which went out of the prefetch range before being shown.
+     *
+     * @param context of the RecyclerView.
+     * @param content of the item.
+     * @param itemId of the item in the adapter.
+     */
+    void cancel(Context context, T content, long itemId);
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ViewRenderer variant whose render function describes the properties of its views, like a text or
+ * a visibility, instead of calling their setters. The last value applied to every property is kept
+ * and the setters are only called for the values changed, avoiding the layout passes requested by
+ * redundant calls like setText with the same text.
+ *
+ * Properties are matched by the order in which they are described, so the render function has to
+ * describe the same properties in the same order on every render. Views modified outside of the
+ * render function are not tracked.
+ *
+ * @param <T> The type of the content used by the view.
+ * @param <U> The View type.
+ */
+public class PropertyViewRenderer<T, U extends View> extends Renderer<T> {
+
+    public static final Property<TextView, CharSequence> TEXT = new Property<TextView, CharSequence>() {
+        @Override public void set(TextView view, CharSequence value) {
+            view.setText(value);
+        }
+    };
+    public static final Property<TextView, Integer> TEXT_COLOR = new Property<TextView, Integer>() {
+        @Override public void set(TextView view, Integer value) {
+            view.setTextColor(value);
+        }
+    };
+    public static final Property<View, Integer> VISIBILITY = new Property<View, Integer>() {
+        @Override public void set(View view, Integer value) {
+            view.setVisibility(value);
+        }
+    };
+    public static final Property<View, Boolean> ENABLED = new Property<View, Boolean>() {
+        @Override public void set(View view, Boolean value) {
+            view.setEnabled(value);
+        }
+    };
+    public static final Property<View, Boolean> SELECTED = new Property<View, Boolean>() {
+        @Override public void set(View view, Boolean value) {
+            view.setSelected(value);
+        }
+    };
+    public static final Property<View, CharSequence> CONTENT_DESCRIPTION = new Property<View, CharSequence>() {
+        @Override public void set(View view, CharSequence value) {
+            view.setContentDescription(value);
+        }
+    };
+
+    private final ViewRenderer.InflateFunction<U> initFunc;
+    private final PropertyRenderFunction<T, U> renderFunc;
+    private Properties properties = new Properties();
+
+    /**
+     * @param initFunc Function for the inflate process.
+     * @param renderFunc Function describing the properties of the view.
+     */
+    public PropertyViewRenderer(ViewRenderer.InflateFunction<U> initFunc, PropertyRenderFunction<T, U> renderFunc) {
+        this.initFunc = initFunc;
+        this.renderFunc = renderFunc;
+    }
+
+    @Override
+    protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+        return initFunc.inflate(parent.getContext());
+    }
+
+    @Override
+    public void render(List<Object> payloads) {
+        properties.rewind();
+        //noinspection unchecked
+        renderFunc.render(getContent(), (U) getRootView(), properties);
+    }
+
+    @Override
+    Renderer<T> copy() {
+        PropertyViewRenderer<T, U> copy = (PropertyViewRenderer<T, U>) super.copy();
+        copy.properties = new Properties();
+        return copy;
+    }
+
+    /** Render function interface */
+    public interface PropertyRenderFunction<W, X extends View> {
+        /** Called when the render is taking place. Should describe the properties of the view. */
+        void render(W content, X view, Properties properties);
+    }
+
+    /**
+     * Setter of one property of a View.
+     *
+     * @param <V> The View type.
+     * @param <P> The type of the property value.
+     */
+    public interface Property<V extends View, P> {
+        void set(V view, P value);
+    }
+
+    /**
+     * Values applied to the properties described by the render function, stored in the order they
+     * were described.
+     */
+    public static final class Properties {
+
+        private View[] views = new View[8];
+        private Property[] setters = new Property[8];
+        private Object[] values = new Object[8];
+        private int size;
+        private int slot;
+
+        Properties() { }
+
+        void rewind() {
+            slot = 0;
+        }
+
+        /**
+         * Describes the value of one property, calling its setter if the value applied in the
+         * previous render was a different one.
+         *
+         * @param view whose property is described.
+         * @param property setter of the property.
+         * @param value of the property.
+         * @return this instance to describe more properties.
+         */
+        public <V extends View, P> Properties set(V view, Property<? super V, P> property, P value) {
+            int current = slot++;
+            if (current == size) {
+                ensureCapacity(size + 1);
+                size++;
+            } else if (views[current] == view && setters[current] == property && equal(values[current], value)) {
+                return this;
+            }
+            views[current] = view;
+            setters[current] = property;
+            values[current] = value;
+            property.set(view, value);
+            return this;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > views.length) {
+                int newCapacity = views.length * 2;
+                views = Arrays.copyOf(views, newCapacity);
+                setters = Arrays.copyOf(setters, newCapacity);
+                values = Arrays.copyOf(values, newCapacity);
+            }
+        }
+
+        private static boolean equal(Object first, Object second) {
+            return first == second || (first != null && first.equals(second));
+        }
+    }
+}
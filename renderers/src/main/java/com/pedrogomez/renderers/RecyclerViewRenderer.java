@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Parcelable;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+/**
+ * Renderer hosting a horizontal RecyclerView driven by its own RendererAdapter, for example a
+ * carousel inside a vertical feed. The inner items of every content are obtained using
+ * getInnerItems and rendered using the RendererBuilder passed in the constructor.
+ *
+ * Every copy of the prototype shares one RecycledViewPool, so the inner ViewHolders released by a
+ * recycled row are reused by the next row bound instead of being inflated again. The scroll state
+ * of every inner list is saved as view state when the row is recycled and restored when a row with
+ * the same item id is bound again, so the adapter hosting this Renderer should have stable ids.
+ *
+ * Subtypes overriding render, onSaveViewState or onRestoreViewState have to call the super
+ * implementation.
+ *
+ * @param <T> the type of the content rendered.
+ */
+public abstract class RecyclerViewRenderer<T> extends Renderer<T> {
+
+    private static final int DEFAULT_INITIAL_PREFETCH_ITEM_COUNT = 4;
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+    private static final String SCROLL_STATE_KEY = "RecyclerViewRenderer.scrollState";
+
+    private final SharedState sharedState;
+    private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
+    private RendererAdapter<Object> adapter;
+
+    /**
+     * @param innerRendererBuilder used to render the inner items.
+     */
+    public RecyclerViewRenderer(RendererBuilder innerRendererBuilder) {
+        if (innerRendererBuilder == null) {
+            throw new IllegalArgumentException("RecyclerViewRenderer needs a RendererBuilder to render the inner items");
+        }
+        this.sharedState = new SharedState(innerRendererBuilder);
+    }
+
+    /**
+     * @param content rendered by this Renderer.
+     * @return the items to show in the inner list.
+     */
+    protected abstract List<?> getInnerItems(T content);
+
+    /**
+     * @return the number of inner items visible when a row is shown for the first time. The shared
+     * pool keeps enough ViewHolders of every inner view type to show them without inflating views.
+     */
+    protected int getInitialPrefetchItemCount() {
+        return DEFAULT_INITIAL_PREFETCH_ITEM_COUNT;
+    }
+
+    /**
+     * @param context of the inner RecyclerView.
+     * @return the LayoutManager used by the inner RecyclerView, horizontal by default.
+     */
+    protected LinearLayoutManager createLayoutManager(Context context) {
+        return new LinearLayoutManager(context, LinearLayoutManager.HORIZONTAL, false);
+    }
+
+    /**
+     * Creates the inner RecyclerView as root view. Subtypes inflating a layout have to override
+     * findRecyclerView too.
+     */
+    @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+        return new RecyclerView(parent.getContext());
+    }
+
+    /**
+     * @param rootView inflated.
+     * @return the inner RecyclerView inside the root view.
+     */
+    protected RecyclerView findRecyclerView(View rootView) {
+        return (RecyclerView) rootView;
+    }
+
+    @Override public void onCreate(@Nullable T content, LayoutInflater layoutInflater, ViewGroup parent) {
+        super.onCreate(content, layoutInflater, parent);
+        recyclerView = findRecyclerView(getRootView());
+        layoutManager = createLayoutManager(getContext());
+        layoutManager.setRecycleChildrenOnDetach(true);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setRecycledViewPool(sharedState.getRecycledViewPool(getInitialPrefetchItemCount()));
+        adapter = new RendererAdapter<>(sharedState.innerRendererBuilder);
+        recyclerView.setAdapter(adapter);
+    }
+
+    /**
+     * Replaces the inner items keeping the inner scroll state if they changed. Otherwise the inner
+     * items are notified as changed, with the payloads of this render if any, so the inner adapter
+     * only renders again what its Renderers need.
+     */
+    @Override public void render(List<Object> payloads) {
+        List<?> innerItems = getInnerItems(getContent());
+        if (!hasInnerItems(innerItems)) {
+            adapter.clear();
+            adapter.addAll(innerItems);
+            adapter.notifyDataSetChanged();
+        } else if (payloads.isEmpty()) {
+            adapter.notifyItemRangeChanged(0, adapter.getItemCount());
+        } else {
+            for (int i = 0, size = payloads.size(); i < size; i++) {
+                adapter.notifyItemRangeChanged(0, adapter.getItemCount(), payloads.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return true if the inner adapter contains the same instances in the same order.
+     */
+    private boolean hasInnerItems(List<?> innerItems) {
+        int size = innerItems.size();
+        if (size != adapter.getItemCount()) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (innerItems.get(i) != adapter.getItem(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override protected Bundle onSaveViewState() {
+        Parcelable scrollState = layoutManager.onSaveInstanceState();
+        if (scrollState == null) {
+            return null;
+        }
+        Bundle state = new Bundle();
+        state.putParcelable(SCROLL_STATE_KEY, scrollState);
+        return state;
+    }
+
+    /**
+     * Restores the inner scroll state of the item, or scrolls to the first inner item if the item
+     * has not been shown before.
+     */
+    @Override protected void onRestoreViewState(@Nullable Bundle state) {
+        Parcelable scrollState = state != null ? state.getParcelable(SCROLL_STATE_KEY) : null;
+        if (scrollState != null) {
+            layoutManager.onRestoreInstanceState(scrollState);
+        } else {
+            layoutManager.scrollToPosition(0);
+        }
+    }
+
+    /**
+     * @return the inner RecyclerView.
+     */
+    protected RecyclerView getRecyclerView() {
+        return recyclerView;
+    }
+
+    /**
+     * @return the adapter used by the inner RecyclerView.
+     */
+    protected RendererAdapter<Object> getInnerAdapter() {
+        return adapter;
+    }
+
+    /**
+     * @return the RecycledViewPool shared by every copy of this Renderer.
+     */
+    public RecyclerView.RecycledViewPool getSharedRecycledViewPool() {
+        return sharedState.getRecycledViewPool(getInitialPrefetchItemCount());
+    }
+
+    /**
+     * Drops the shared pool, created again the next time a row is created.
+     */
+    @Override void releaseSharedViews() {
+        sharedState.releaseRecycledViewPool();
+    }
+
+    /**
+     * State shared by the prototype and every copy created from it.
+     */
+    private static final class SharedState {
+
+        final RendererBuilder<Object> innerRendererBuilder;
+        private RecyclerView.RecycledViewPool recycledViewPool;
+
+        SharedState(RendererBuilder<Object> innerRendererBuilder) {
+            this.innerRendererBuilder = innerRendererBuilder;
+        }
+
+        /**
+         * Creates the pool the first time, keeping room for the initial items of the row leaving the
+         * screen and the one entering it for every inner view type.
+         */
+        RecyclerView.RecycledViewPool getRecycledViewPool(int initialPrefetchItemCount) {
+            if (recycledViewPool == null) {
+                recycledViewPool = new RecyclerView.RecycledViewPool();
+                int maxRecycledViews = Math.max(DEFAULT_MAX_RECYCLED_VIEWS, initialPrefetchItemCount * 2);
+                for (int viewType = 0; viewType < innerRendererBuilder.getPrototypes().size(); viewType++) {
+                    recycledViewPool.setMaxRecycledViews(viewType, maxRecycledViews);
+                }
+            }
+            return recycledViewPool;
+        }
+
+        void releaseRecycledViewPool() {
+            recycledViewPool = null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Scope of the asynchronous work started by one Renderer while it is bound to an item. The work
+ * submitted runs on a background Executor and its result is delivered on the main thread only if
+ * the scope has not been cancelled in the meantime.
+ *
+ * RendererAdapter cancels the scope every time the Renderer is rendered again with a different
+ * binding or recycled, so results for a stale binding are never applied and the pending tasks not
+ * started yet are skipped. The scope is not cancelled when the view is detached from the window,
+ * because RecyclerView can attach it again from its cache without binding it, and the results
+ * would never arrive. Long tasks can check the {@link Token} returned by {@link #getToken()} to
+ * stop early.
+ *
+ * All the methods of this class have to be called from the main thread.
+ */
+public final class RenderScope {
+
+    private Executor executor;
+    private Executor mainThread;
+    private Token token = new Token();
+
+    RenderScope() { }
+
+    RenderScope(Executor executor, Executor mainThread) {
+        this.executor = executor;
+        this.mainThread = mainThread;
+    }
+
+    /**
+     * @return the token of the current binding, cancelled once the binding is not valid anymore.
+     */
+    public Token getToken() {
+        return token;
+    }
+
+    /**
+     * Runs a task in the background delivering its result on the main thread.
+     *
+     * @param task to execute in the background.
+     * @param callback notified on the main thread if the scope is still active.
+     */
+    public <R> void submit(final Callable<R> task, final Callback<R> callback) {
+        final Token submitted = token;
+        final Executor resultExecutor = getMainThread();
+        getExecutor().execute(new Runnable() {
+            @Override public void run() {
+                if (submitted.isCancelled()) {
+                    return;
+                }
+                R result = null;
+                Exception error = null;
+                try {
+                    result = task.call();
+                } catch (Exception e) {
+                    error = e;
+                }
+                final R finalResult = result;
+                final Exception finalError = error;
+                resultExecutor.execute(new Runnable() {
+                    @Override public void run() {
+                        if (submitted.isCancelled()) {
+                            return;
+                        }
+                        if (finalError != null) {
+                            callback.onError(finalError);
+                        } else {
+                            callback.onResult(finalResult);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Cancels the work submitted until now. The scope can be used again after cancelling it.
+     */
+    public void cancel() {
+        token.cancelled = true;
+        token = new Token();
+    }
+
+    private Executor getExecutor() {
+        if (executor == null) {
+            executor = RendererExecutors.background();
+        }
+        return executor;
+    }
+
+    private Executor getMainThread() {
+        if (mainThread == null) {
+            mainThread = RendererExecutors.mainThread();
+        }
+        return mainThread;
+    }
+
+    /**
+     * Cancellation token of one binding of the Renderer.
+     */
+    public static final class Token {
+
+        private volatile boolean cancelled;
+
+        Token() { }
+
+        /**
+         * @return true if the binding has been invalidated and its work is not needed anymore.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Receives on the main thread the outcome of a task submitted to a RenderScope.
+     *
+     * @param <R> the type of the result.
+     */
+    public interface Callback<R> {
+
+        void onResult(R result);
+
+        void onError(Exception error);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debug tool timing the Renderer onCreate and render calls made by a RendererAdapter. Every call
+ * taking longer than the budget configured is recorded, with the Renderer class, view type,
+ * position and a sample of the stack of the thread running it, in a ring buffer with the last slow
+ * calls and reported to the {@link Listener} configured.
+ *
+ * The stack is sampled from another thread once the call goes over the budget, so it shows what
+ * the Renderer was doing while blowing the frame budget without attaching a profiler. The adapter
+ * doesn't measure anything while it has no RenderWatchdog, so use it only in debug or QA builds.
+ *
+ * @see RendererAdapter#setRenderWatchdog(RenderWatchdog)
+ */
+public final class RenderWatchdog {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 4;
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * The Renderer call measured.
+     */
+    public enum Phase {
+        CREATE, RENDER
+    }
+
+    /**
+     * Notified in the thread running the Renderer every time a call goes over the budget.
+     */
+    public interface Listener {
+
+        void onSlowRender(SlowRender slowRender);
+    }
+
+    private final long budgetNanos;
+    private final SlowRender[] slowRenders;
+    private final ScheduledExecutorService sampler;
+    private int next;
+    private int count;
+    @Nullable private Listener listener;
+
+    public RenderWatchdog() {
+        this(DEFAULT_BUDGET_MILLIS, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param budgetMillis maximum duration of one call before it is recorded.
+     * @param capacity number of slow calls kept, the oldest ones are dropped first.
+     */
+    public RenderWatchdog(long budgetMillis, int capacity) {
+        this(TimeUnit.MILLISECONDS.toNanos(budgetMillis), capacity, RendererExecutors.sampler());
+    }
+
+    RenderWatchdog(long budgetNanos, int capacity, ScheduledExecutorService sampler) {
+        if (budgetNanos <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("The budget and the capacity of a RenderWatchdog have to be positive");
+        }
+        this.budgetNanos = budgetNanos;
+        this.slowRenders = new SlowRender[capacity];
+        this.sampler = sampler;
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the budget of every call in milliseconds.
+     */
+    public long getBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(budgetNanos);
+    }
+
+    /**
+     * @return the slow calls recorded, from the oldest to the newest.
+     */
+    public synchronized List<SlowRender> getSlowRenders() {
+        List<SlowRender> result = new ArrayList<>(count);
+        int first = next - count + slowRenders.length;
+        for (int i = 0; i < count; i++) {
+            result.add(slowRenders[(first + i) % slowRenders.length]);
+        }
+        return result;
+    }
+
+    /**
+     * Drops every slow call recorded.
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < slowRenders.length; i++) {
+            slowRenders[i] = null;
+        }
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * Starts measuring one call from the current thread, scheduling the stack sample at the end of
+     * the budget.
+     */
+    Call begin(Phase phase, int viewType, int position) {
+        Call call = new Call(phase, viewType, position, Thread.currentThread());
+        call.sample = sampler.schedule(call, budgetNanos, TimeUnit.NANOSECONDS);
+        call.startNanos = System.nanoTime();
+        return call;
+    }
+
+    /**
+     * Finishes measuring one call, recording it if it took longer than the budget.
+     *
+     * @param renderer used in the call, null if it couldn't be created.
+     */
+    void end(Call call, @Nullable Renderer renderer) {
+        long durationNanos = System.nanoTime() - call.startNanos;
+        call.finish();
+        if (durationNanos <= budgetNanos) {
+            return;
+        }
+        SlowRender slowRender = new SlowRender(call.phase, renderer != null ? renderer.getClass() : null,
+              call.viewType, call.position, durationNanos, call.getStackTrace());
+        synchronized (this) {
+            slowRenders[next] = slowRender;
+            next = (next + 1) % slowRenders.length;
+            count = Math.min(count + 1, slowRenders.length);
+        }
+        Listener currentListener = listener;
+        if (currentListener != null) {
+            currentListener.onSlowRender(slowRender);
+        }
+    }
+
+    /**
+     * One call being measured. Run by the sampler once the call goes over the budget.
+     */
+    static final class Call implements Runnable {
+
+        final Phase phase;
+        final int viewType;
+        final int position;
+        private final Thread thread;
+        long startNanos;
+        Future<?> sample;
+        private boolean finished;
+        private StackTraceElement[] stackTrace;
+
+        Call(Phase phase, int viewType, int position, Thread thread) {
+            this.phase = phase;
+            this.viewType = viewType;
+            this.position = position;
+            this.thread = thread;
+        }
+
+        @Override public synchronized void run() {
+            if (!finished) {
+                stackTrace = thread.getStackTrace();
+            }
+        }
+
+        synchronized void finish() {
+            finished = true;
+            sample.cancel(false);
+        }
+
+        synchronized StackTraceElement[] getStackTrace() {
+            return stackTrace;
+        }
+    }
+
+    /**
+     * Renderer call that went over the budget.
+     */
+    public static final class SlowRender {
+
+        private final Phase phase;
+        private final Class<? extends Renderer> rendererClass;
+        private final int viewType;
+        private final int position;
+        private final long durationNanos;
+        private final StackTraceElement[] stackTrace;
+
+        SlowRender(Phase phase, @Nullable Class<? extends Renderer> rendererClass, int viewType, int position,
+              long durationNanos, @Nullable StackTraceElement[] stackTrace) {
+            this.phase = phase;
+            this.rendererClass = rendererClass;
+            this.viewType = viewType;
+            this.position = position;
+            this.durationNanos = durationNanos;
+            this.stackTrace = stackTrace;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the class of the Renderer, null if the RendererBuilder couldn't create it.
+         */
+        @Nullable
+        public Class<? extends Renderer> getRendererClass() {
+            return rendererClass;
+        }
+
+        public int getViewType() {
+            return viewType;
+        }
+
+        /**
+         * @return the adapter position rendered, RecyclerView.NO_POSITION for CREATE calls.
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * @return the stack sampled once the call went over the budget, null if the call finished
+         * before the sampler could run.
+         */
+        @Nullable
+        public StackTraceElement[] getStackTrace() {
+            return stackTrace;
+        }
+
+        @Override public String toString() {
+            String rendererName = rendererClass != null ? rendererClass.getSimpleName() : "null";
+            return phase + " " + rendererName + " viewType=" + viewType + " position=" + position + " took "
+                  + TimeUnit.NANOSECONDS.toMicros(durationNanos) / 1000f + "ms";
+        }
+    }
+}
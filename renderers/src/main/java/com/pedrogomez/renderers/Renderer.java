@@ -16,7 +16,9 @@
 package com.pedrogomez.renderers;
 
 import android.content.Context;
+import android.os.Bundle;
 import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -46,6 +48,8 @@ public abstract class Renderer<T> implements Cloneable {
     private T content;
     private Context context;
     private int position;
+    private long itemId = RecyclerView.NO_ID;
+    private RenderScope renderScope;
 
     /**
      * Method called when the renderer is going to be created. This method has the responsibility of
@@ -127,6 +131,54 @@ public abstract class Renderer<T> implements Cloneable {
         return this.position;
     }
 
+    /**
+     * Stores the id of the item in the Adapter.
+     *
+     * @param itemId returned by the adapter for the rendered position.
+     */
+    void setItemId(long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * @return the id of the item rendered, stable across data set changes if the adapter has stable
+     * ids, or RecyclerView.NO_ID if the Renderer has not been bound.
+     */
+    protected final long getItemId() {
+        return itemId;
+    }
+
+    /**
+     * Scope used to run the asynchronous work needed to render the current content. The scope is
+     * cancelled when the Renderer is rendered for a different binding, fully rendered again or
+     * recycled, so the results of the work submitted are only delivered while the binding is still
+     * valid. Renders with payloads of the same item and detaching the view don't cancel it:
+     * RecyclerView can attach the view again without binding it.
+     *
+     * @return the RenderScope of this Renderer.
+     */
+    protected final RenderScope getRenderScope() {
+        if (renderScope == null) {
+            renderScope = new RenderScope();
+        }
+        return renderScope;
+    }
+
+    /**
+     * Cancels the asynchronous work started for the current binding, if any.
+     */
+    void cancelRenderScope() {
+        if (renderScope != null) {
+            renderScope.cancel();
+        }
+    }
+
+    /**
+     * Releases the views shared by every copy of a prototype, so a retained RendererBuilder doesn't
+     * keep the views of a destroyed Activity.
+     */
+    void releaseSharedViews() { }
+
     /**
      * Inflate renderer layout. The view inflated can't be null. If this method returns a null view a
      * NotInflateViewException will be thrown.
@@ -167,6 +219,25 @@ public abstract class Renderer<T> implements Cloneable {
      */
     public void onRecycled() { }
 
+    /**
+     * Method called when the Renderer is recycled to save small view state, like an expanded flag or
+     * a scroll offset, restored when the same item is bound again. The state is stored by the
+     * RendererAdapter using the item id, so it is only saved if the adapter has stable ids.
+     *
+     * @return the state of the views or null if there is nothing to save.
+     */
+    @Nullable
+    protected Bundle onSaveViewState() {
+        return null;
+    }
+
+    /**
+     * Method called before render when the Renderer is bound to a different item.
+     *
+     * @param state saved for the item in onSaveViewState, null if there is no state for it.
+     */
+    protected void onRestoreViewState(@Nullable Bundle state) { }
+
     /**
      * Method where the presentation logic algorithm have to be declared or implemented.
      *
@@ -184,7 +255,9 @@ public abstract class Renderer<T> implements Cloneable {
     Renderer<T> copy() {
         try {
             //noinspection unchecked
-            return (Renderer<T>) clone();
+            Renderer<T> copy = (Renderer<T>) clone();
+            copy.renderScope = null;
+            return copy;
         } catch (CloneNotSupportedException e) {
             throw new RuntimeException("All your renderers should be cloneable.");
         }
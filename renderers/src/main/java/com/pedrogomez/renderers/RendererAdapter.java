@@ -16,9 +16,11 @@
 package com.pedrogomez.renderers;
 
 import android.support.annotation.Nullable;
+import android.support.v4.util.ArrayMap;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.Adapter;
 import android.view.LayoutInflater;
+import android.view.View;
 import android.view.ViewGroup;
 
 import com.pedrogomez.renderers.exception.NullRendererBuiltException;
@@ -26,7 +28,10 @@ import com.pedrogomez.renderers.exception.NullRendererBuiltException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * RecyclerView.Adapter extension created to work RendererBuilders and Renderer instances. Other
@@ -45,6 +50,13 @@ public class RendererAdapter<T> extends RecyclerView.Adapter<RendererViewHolder>
 
     private final RendererBuilder<T> rendererBuilder;
     private final List<T> collection;
+    private final Map<Class, ChangeCalculator> changeCalculators = new ArrayMap<>();
+    private final Map<Class, ChangeCalculator> resolvedChangeCalculators = new ArrayMap<>();
+    private boolean skipRenderForEqualContent;
+    private final ViewStateStore viewStateStore = new ViewStateStore();
+    private final Set<RendererViewHolder> boundViewHolders = new HashSet<>();
+    @Nullable private RenderWatchdog renderWatchdog;
+    @Nullable private RendererMetricsListener metricsListener;
 
     public RendererAdapter(RendererBuilder rendererBuilder) {
         this(rendererBuilder, new ArrayList(10));
@@ -69,8 +81,15 @@ public class RendererAdapter<T> extends RecyclerView.Adapter<RendererViewHolder>
         return collection.get(position);
     }
 
+    /**
+     * @return the id of VersionedContent elements or the position for any other element.
+     */
     @Override
     public long getItemId(int position) {
+        Object content = getItem(position);
+        if (content instanceof VersionedContent) {
+            return ((VersionedContent) content).getId();
+        }
         return position;
     }
 
@@ -100,13 +119,58 @@ public class RendererAdapter<T> extends RecyclerView.Adapter<RendererViewHolder>
         rendererBuilder.withParent(viewGroup);
         rendererBuilder.withLayoutInflater(LayoutInflater.from(viewGroup.getContext()));
         rendererBuilder.withViewType(viewType);
-        RendererViewHolder viewHolder = rendererBuilder.buildRendererViewHolder();
+        RendererMetricsListener listener = metricsListener;
+        long start = listener != null ? System.nanoTime() : 0;
+        RenderWatchdog watchdog = renderWatchdog;
+        RenderWatchdog.Call call = watchdog != null
+              ? watchdog.begin(RenderWatchdog.Phase.CREATE, viewType, RecyclerView.NO_POSITION) : null;
+        RendererViewHolder viewHolder = null;
+        try {
+            viewHolder = rendererBuilder.buildRendererViewHolder();
+        } finally {
+            if (call != null) {
+                watchdog.end(call, viewHolder != null ? viewHolder.getRenderer() : null);
+            }
+        }
         if (viewHolder == null) {
             throw new NullRendererBuiltException("RendererBuilder have to return a not null viewHolder");
         }
+        viewHolder.setRendererViewType(viewType);
+        FixedSize fixedSize = rendererBuilder.getFixedSize(viewType);
+        if (fixedSize != null) {
+            applyFixedSize(viewHolder.itemView, fixedSize);
+            viewHolder.setFixedSize(fixedSize);
+        }
+        if (listener != null) {
+            listener.onCreate(viewType, viewHolder.getRenderer().getClass(), System.nanoTime() - start);
+        }
         return viewHolder;
     }
 
+    /**
+     * @param viewType returned by getItemViewType.
+     * @return the size of the views created for the view type, null if it is not fixed.
+     */
+    @Nullable
+    public FixedSize getFixedSize(int viewType) {
+        return rendererBuilder.getFixedSize(viewType);
+    }
+
+    private static void applyFixedSize(View view, FixedSize fixedSize) {
+        ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+        if (layoutParams == null) {
+            layoutParams = new RecyclerView.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                  ViewGroup.LayoutParams.WRAP_CONTENT);
+        }
+        if (fixedSize.getWidth() != FixedSize.NOT_FIXED) {
+            layoutParams.width = fixedSize.getWidth();
+        }
+        if (fixedSize.getHeight() != FixedSize.NOT_FIXED) {
+            layoutParams.height = fixedSize.getHeight();
+        }
+        view.setLayoutParams(layoutParams);
+    }
+
     /**
      * Given a RendererViewHolder passed as argument and a position renders the view using the
      * Renderer previously stored into the RendererViewHolder.
@@ -121,33 +185,215 @@ public class RendererAdapter<T> extends RecyclerView.Adapter<RendererViewHolder>
 
     @Override
     public void onBindViewHolder(RendererViewHolder viewHolder, int position, List<Object> payloads) {
+        RendererMetricsListener listener = metricsListener;
+        if (listener == null) {
+            bind(viewHolder, position, payloads);
+            return;
+        }
+        boolean recycled = viewHolder.isRecycled();
+        viewHolder.setRecycled(false);
+        long start = System.nanoTime();
+        bind(viewHolder, position, payloads);
+        listener.onBind(viewHolder.getRendererViewType(), viewHolder.getRenderer().getClass(),
+              System.nanoTime() - start, recycled);
+    }
+
+    private void bind(RendererViewHolder viewHolder, int position, List<Object> payloads) {
         T content = getItem(position);
         Renderer renderer = viewHolder.getRenderer();
         if (renderer == null) {
             throw new NullRendererBuiltException("RendererBuilder have to return a not null renderer");
         }
+        long itemId = getItemId(position);
+        boolean newItem = itemId != renderer.getItemId();
         renderer.setContent(content);
         renderer.setPosition(position);
+        renderer.setItemId(itemId);
+        boundViewHolders.add(viewHolder);
+        boolean preBound = content != null && viewHolder.getPreBoundContent() == content;
+        viewHolder.setPreBoundContent(null);
         updateRendererExtraValues(content, renderer, position);
-        renderer.render(payloads);
+        if (payloads.isEmpty() && (preBound || isRendered(viewHolder, content))) {
+            return;
+        }
+        if (newItem || payloads.isEmpty()) {
+            // Payloads update part of the same binding, its pending work is still valid.
+            renderer.cancelRenderScope();
+        }
+        if (newItem) {
+            renderer.onRestoreViewState(viewStateStore.get(itemId));
+            viewStateStore.remove(itemId);
+        }
+        RenderWatchdog watchdog = renderWatchdog;
+        if (watchdog != null) {
+            RenderWatchdog.Call call = watchdog.begin(RenderWatchdog.Phase.RENDER, viewHolder.getRendererViewType(),
+                  position);
+            try {
+                renderer.render(payloads);
+            } finally {
+                watchdog.end(call, renderer);
+            }
+        } else {
+            renderer.render(payloads);
+        }
+        viewHolder.setBoundContent(content);
+    }
+
+    /**
+     * Configures if elements equals to the one already rendered by a ViewHolder are rendered again
+     * when bound. The same instance is always rendered again because it could have been modified,
+     * so enable it only if the elements are immutable.
+     *
+     * VersionedContent elements don't depend on this flag: they are never rendered again while their
+     * id and version match the ones already rendered, because the version has to change with any
+     * value rendered. The extra values of {@link #updateRendererExtraValues(Object, Renderer, int)}
+     * are updated even when the render is skipped.
+     *
+     * @param skipRenderForEqualContent true to skip rendering equal elements.
+     */
+    public void setSkipRenderForEqualContent(boolean skipRenderForEqualContent) {
+        this.skipRenderForEqualContent = skipRenderForEqualContent;
+    }
+
+    /**
+     * Times the Renderer onCreate and render calls made by this adapter, recording the ones over the
+     * budget of the watchdog. Nothing is measured while there is no watchdog.
+     *
+     * @param renderWatchdog to notify, null to stop measuring.
+     */
+    public void setRenderWatchdog(@Nullable RenderWatchdog renderWatchdog) {
+        this.renderWatchdog = renderWatchdog;
+    }
+
+    @Nullable
+    public RenderWatchdog getRenderWatchdog() {
+        return renderWatchdog;
+    }
+
+    /**
+     * Notifies the ViewHolders created, bound, recycled, attached and detached by this adapter with
+     * the time spent in every call. Nothing is measured while there is no listener.
+     *
+     * @param metricsListener to notify, null to stop measuring.
+     * @see AggregatingMetricsListener
+     */
+    public void setMetricsListener(@Nullable RendererMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+    }
+
+    @Nullable
+    public RendererMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Saves the view state of the Renderers bound, the state of the recycled ones is saved when they
+     * are recycled. The store returned can be saved in onSaveInstanceState.
+     *
+     * @return the store with the view state of every item.
+     * @see Renderer#onSaveViewState()
+     */
+    public ViewStateStore saveViewState() {
+        for (RendererViewHolder viewHolder : boundViewHolders) {
+            saveViewState(viewHolder.getRenderer());
+        }
+        return viewStateStore;
+    }
+
+    /**
+     * Replaces the view state stored with the one passed as argument, restored when the items are
+     * bound. Call it before attaching the adapter to the RecyclerView.
+     *
+     * @param store saved using saveViewState.
+     */
+    public void restoreViewState(@Nullable ViewStateStore store) {
+        if (store != null && store != viewStateStore) {
+            viewStateStore.replaceWith(store);
+        }
+    }
+
+    private void saveViewState(Renderer renderer) {
+        long itemId = renderer.getItemId();
+        if (hasStableIds() && itemId != RecyclerView.NO_ID) {
+            viewStateStore.put(itemId, renderer.onSaveViewState());
+        }
+    }
+
+    /**
+     * @return true if the ViewHolder is already showing the element, its last render doesn't need to
+     * be repeated.
+     */
+    private boolean isRendered(RendererViewHolder viewHolder, Object content) {
+        Object boundContent = viewHolder.getBoundContent();
+        if (content == null || boundContent == null) {
+            return false;
+        }
+        if (content instanceof VersionedContent && boundContent instanceof VersionedContent) {
+            VersionedContent versionedContent = (VersionedContent) content;
+            return versionedContent.getId() == ((VersionedContent) boundContent).getId()
+                  && versionedContent.getVersion() == viewHolder.getBoundVersion();
+        }
+        return isEqualToAnotherInstance(boundContent, content);
+    }
+
+    /**
+     * @return true if both elements are different instances with the same id and version, or equals
+     * if the equals fallback is enabled.
+     */
+    private boolean isUnchanged(@Nullable Object previous, Object element) {
+        if (previous == null || element == null || previous == element) {
+            return false;
+        }
+        if (previous instanceof VersionedContent && element instanceof VersionedContent) {
+            VersionedContent previousContent = (VersionedContent) previous;
+            VersionedContent newContent = (VersionedContent) element;
+            return previousContent.getId() == newContent.getId()
+                  && previousContent.getVersion() == newContent.getVersion();
+        }
+        return isEqualToAnotherInstance(previous, element);
+    }
+
+    private boolean isEqualToAnotherInstance(Object previous, Object element) {
+        return skipRenderForEqualContent && previous != element && previous.equals(element);
     }
 
     @Override public void onViewAttachedToWindow(RendererViewHolder viewHolder) {
+        RendererMetricsListener listener = metricsListener;
+        long start = listener != null ? System.nanoTime() : 0;
         super.onViewAttachedToWindow(viewHolder);
         Renderer renderer = viewHolder.getRenderer();
         renderer.onAttached();
+        if (listener != null) {
+            listener.onAttach(viewHolder.getRendererViewType(), renderer.getClass(), System.nanoTime() - start);
+        }
     }
 
     @Override public void onViewDetachedFromWindow(RendererViewHolder viewHolder) {
+        RendererMetricsListener listener = metricsListener;
+        long start = listener != null ? System.nanoTime() : 0;
         Renderer renderer = viewHolder.getRenderer();
         renderer.onDetached();
         super.onViewDetachedFromWindow(viewHolder);
+        if (listener != null) {
+            listener.onDetach(viewHolder.getRendererViewType(), renderer.getClass(), System.nanoTime() - start);
+        }
     }
 
     @Override public void onViewRecycled(RendererViewHolder viewHolder) {
+        RendererMetricsListener listener = metricsListener;
+        long start = listener != null ? System.nanoTime() : 0;
+        viewHolder.clearBoundContent();
+        boundViewHolders.remove(viewHolder);
         Renderer renderer = viewHolder.getRenderer();
+        saveViewState(renderer);
+        renderer.setItemId(RecyclerView.NO_ID);
+        renderer.cancelRenderScope();
         renderer.onRecycled();
         super.onViewRecycled(viewHolder);
+        if (listener != null) {
+            viewHolder.setRecycled(true);
+            listener.onRecycle(viewHolder.getRendererViewType(), renderer.getClass(), System.nanoTime() - start);
+        }
     }
 
     /**
@@ -204,11 +450,32 @@ public class RendererAdapter<T> extends RecyclerView.Adapter<RendererViewHolder>
     }
 
     /**
+     * Replaces one element computing the payload notified with the ChangeCalculator registered for
+     * its class. The change is not notified if the ChangeCalculator doesn't find differences or if
+     * the new element is a copy of the previous one, and it is notified without payload if there is
+     * no ChangeCalculator for the elements. Passing the same instance again always notifies the
+     * change without payload, because it could have been modified in place.
+     *
      * @see List#set(int, Object)
-     * @see RecyclerView.Adapter#notifyItemChanged(int)
+     * @see RecyclerView.Adapter#notifyItemChanged(int, Object)
+     * @see #registerChangeCalculator(Class, ChangeCalculator)
      */
     public T updateAndNotify(int index, Object element) {
-        return updateAndNotify(index, element, null);
+        T previous = update(index, element);
+        if (previous == element) {
+            notifyItemChanged(index, null);
+            return previous;
+        }
+        if (isUnchanged(previous, element)) {
+            return previous;
+        }
+        int changes = computeChanges(previous, element);
+        if (changes == ChangePayload.ALL) {
+            notifyItemChanged(index, null);
+        } else if (changes != 0) {
+            notifyItemChanged(index, ChangePayload.of(changes));
+        }
+        return previous;
     }
 
     /**
@@ -361,6 +628,67 @@ public class RendererAdapter<T> extends RecyclerView.Adapter<RendererViewHolder>
         return collection.containsAll(object);
     }
 
+    /**
+     * Registers the ChangeCalculator used by updateAndNotify to compute the payload notified when one
+     * element of the class passed as argument, or any of its subtypes, is replaced.
+     *
+     * @param clazz of the elements compared.
+     * @param changeCalculator used to compare them.
+     */
+    public <S> void registerChangeCalculator(Class<S> clazz, ChangeCalculator<? super S> changeCalculator) {
+        if (clazz == null || changeCalculator == null) {
+            throw new IllegalArgumentException("The ChangeCalculator can't be registered using null instances");
+        }
+        changeCalculators.put(clazz, changeCalculator);
+        resolvedChangeCalculators.clear();
+    }
+
+    /**
+     * @return the mask of the fields changed between both elements, ChangePayload.ALL if they can't
+     * be compared.
+     */
+    private int computeChanges(@Nullable Object previous, Object element) {
+        if (previous == null || element == null || changeCalculators.isEmpty()) {
+            return ChangePayload.ALL;
+        }
+        ChangeCalculator changeCalculator = getChangeCalculator(element.getClass());
+        if (changeCalculator == null || changeCalculator != getChangeCalculator(previous.getClass())) {
+            return ChangePayload.ALL;
+        }
+        //noinspection unchecked
+        return changeCalculator.computeChanges(previous, element);
+    }
+
+    /**
+     * Resolves the ChangeCalculator of one class caching the result, misses included, so the
+     * registered classes are scanned only once per element class.
+     */
+    @Nullable
+    private ChangeCalculator getChangeCalculator(Class<?> elementClass) {
+        if (resolvedChangeCalculators.containsKey(elementClass)) {
+            return resolvedChangeCalculators.get(elementClass);
+        }
+        ChangeCalculator changeCalculator = changeCalculators.get(elementClass);
+        if (changeCalculator == null) {
+            for (Map.Entry<Class, ChangeCalculator> entry : changeCalculators.entrySet()) {
+                //noinspection unchecked
+                if (entry.getKey().isAssignableFrom(elementClass)) {
+                    changeCalculator = entry.getValue();
+                    break;
+                }
+            }
+        }
+        resolvedChangeCalculators.put(elementClass, changeCalculator);
+        return changeCalculator;
+    }
+
+    /**
+     * @return the RendererBuilder used to create the Renderer instances of this adapter.
+     */
+    RendererBuilder<T> getRendererBuilder() {
+        return rendererBuilder;
+    }
+
     /**
      * Allows the client code to access the List from subtypes of RendererAdapter.
      *
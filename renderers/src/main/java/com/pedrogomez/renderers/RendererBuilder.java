@@ -15,6 +15,7 @@
  */
 package com.pedrogomez.renderers;
 
+import android.support.annotation.Nullable;
 import android.support.v4.util.ArrayMap;
 import android.util.SparseArray;
 import android.view.LayoutInflater;
@@ -56,6 +57,7 @@ public class RendererBuilder<T> {
     protected List<Renderer> prototypes;
     protected final Map<Class<T>, Class<? extends Renderer>> binding;
     protected final SparseArray<Class<? extends Renderer>> typeBindings = new SparseArray<>(0);
+    private final SparseArray<FixedSize> fixedSizes = new SparseArray<>(0);
 
     /**
      * Initializes a RendererBuilder with an empty prototypes collection. Using this constructor some
@@ -111,6 +113,18 @@ public class RendererBuilder<T> {
         return new Builder<>(new RendererBuilder<>(renderer));
     }
 
+    /**
+     * Initializes a RendererBuilder with just one prototype whose views have a fixed size.
+     */
+    public static SimpleRendererBuilder create(Renderer renderer, FixedSize fixedSize) {
+        if (fixedSize == null) {
+            throw new IllegalArgumentException("The fixed size of a RendererBuilder can't be null");
+        }
+        RendererBuilder rendererBuilder = new RendererBuilder<>(renderer);
+        rendererBuilder.fixedSizes.put(0, fixedSize);
+        return new Builder<>(rendererBuilder);
+    }
+
     /**
      * Get access to the prototypes collection used to create one RendererBuilder.
      *
@@ -170,6 +184,15 @@ public class RendererBuilder<T> {
         return new RendererViewHolder(renderer);
     }
 
+    /**
+     * @param viewType index of the prototype.
+     * @return the size of the views created for the prototype, null if it is not fixed.
+     */
+    @Nullable
+    FixedSize getFixedSize(int viewType) {
+        return fixedSizes.get(viewType);
+    }
+
     /**
      * Gets one prototype using the prototype index which is equals to the view type. This method
      * has to be implemented because prototypes member is declared with Collection and that interface
@@ -245,9 +268,8 @@ public class RendererBuilder<T> {
      * @return the class associated to the renderer.
      */
     protected Class getPrototypeClass(T content) {
-        if (typeBindings.size() != 0 && content instanceof RendererContent) {
-            RendererContent rendererContent = (RendererContent) content;
-            Class<? extends Renderer> renderer = typeBindings.get(rendererContent.getType());
+        if (typeBindings.size() != 0 && content instanceof TypedContent) {
+            Class<? extends Renderer> renderer = typeBindings.get(((TypedContent) content).getType());
             if (renderer != null) {
                 return renderer;
             }
@@ -291,7 +313,13 @@ public class RendererBuilder<T> {
     public interface ExtendedRendererBuilder<T> extends BaseRendererBuilder<T> {
         <Type> BindedExtendedRendererBuilder<T> bind(Class<? extends Type> clx, Renderer<Type> prototype);
 
-        <Type> BindedExtendedRendererBuilder<T> bind(int type, Renderer<RendererContent<Type>> prototype);
+        <Type extends TypedContent> BindedExtendedRendererBuilder<T> bind(int type, Renderer<Type> prototype);
+
+        <Type> BindedExtendedRendererBuilder<T> bind(Class<? extends Type> clx, Renderer<Type> prototype,
+              FixedSize fixedSize);
+
+        <Type extends TypedContent> BindedExtendedRendererBuilder<T> bind(int type, Renderer<Type> prototype,
+              FixedSize fixedSize);
     }
 
     public static class Builder<T> implements SimpleRendererBuilder<T>, BindedExtendedRendererBuilder<T> {
@@ -338,7 +366,23 @@ public class RendererBuilder<T> {
         }
 
         /**
-         * Binds a custom type to a given {@link Renderer}.
+         * Given a class configures the binding between a class and a Renderer class whose views have
+         * a fixed size.
+         *
+         * @param clx       to bind.
+         * @param prototype used as Renderer.
+         * @param fixedSize of the views created for the prototype.
+         * @return the current RendererBuilder instance.
+         */
+        @Override public BindedExtendedRendererBuilder<T> bind(Class clx, Renderer prototype, FixedSize fixedSize) {
+            bind(clx, prototype);
+            putFixedSize(fixedSize);
+            return this;
+        }
+
+        /**
+         * Binds a custom type to a given {@link Renderer}. Elements implementing {@link TypedContent},
+         * like {@link RendererContent}, are rendered using the Renderer bound to their type.
          *
          * @param type      Integer type.
          * @param prototype used as Renderer.
@@ -353,5 +397,25 @@ public class RendererBuilder<T> {
 
             return this;
         }
+
+        /**
+         * Binds a custom type to a given {@link Renderer} whose views have a fixed size.
+         *
+         * @param type      Integer type.
+         * @param prototype used as Renderer.
+         * @param fixedSize of the views created for the prototype.
+         */
+        @Override public BindedExtendedRendererBuilder<T> bind(int type, Renderer prototype, FixedSize fixedSize) {
+            bind(type, prototype);
+            putFixedSize(fixedSize);
+            return this;
+        }
+
+        private void putFixedSize(FixedSize fixedSize) {
+            if (fixedSize == null) {
+                throw new IllegalArgumentException("The fixed size of a binding can't be null");
+            }
+            rendererBuilder.fixedSizes.put(rendererBuilder.prototypes.size() - 1, fixedSize);
+        }
     }
 }
@@ -6,7 +6,7 @@ package com.pedrogomez.renderers;
  * @author alberto.ballano
  */
 @SuppressWarnings("unused")
-public class RendererContent<T> {
+public class RendererContent<T> implements TypedContent {
 
     private T item;
     private int type = -1;
@@ -28,6 +28,7 @@ public class RendererContent<T> {
         this.item = item;
     }
 
+    @Override
     public int getType() {
         return type;
     }
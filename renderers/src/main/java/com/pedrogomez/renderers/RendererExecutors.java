@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors shared by the library components that move work out of the main thread. The
+ * background pool is created lazily and uses daemon threads with background priority so it never
+ * competes with the UI thread or keeps the process alive.
+ */
+final class RendererExecutors {
+
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static ExecutorService background;
+    private static Executor mainThread;
+    private static ScheduledExecutorService sampler;
+
+    private RendererExecutors() { }
+
+    /**
+     * @return the pool used to run background work, sized after the available processors.
+     */
+    static synchronized ExecutorService background() {
+        if (background == null) {
+            background = Executors.newFixedThreadPool(POOL_SIZE,
+                  new BackgroundThreadFactory(Process.THREAD_PRIORITY_BACKGROUND));
+        }
+        return background;
+    }
+
+    /**
+     * @return an Executor posting its work to the main thread Looper.
+     */
+    static synchronized Executor mainThread() {
+        if (mainThread == null) {
+            final Handler handler = new Handler(Looper.getMainLooper());
+            mainThread = new Executor() {
+                @Override public void execute(Runnable command) {
+                    handler.post(command);
+                }
+            };
+        }
+        return mainThread;
+    }
+
+    /**
+     * @return a single thread scheduler used to sample the main thread. Its thread keeps the
+     * default priority, so the samples are taken on time while the main thread is busy.
+     */
+    static synchronized ScheduledExecutorService sampler() {
+        if (sampler == null) {
+            sampler = Executors.newSingleThreadScheduledExecutor(
+                  new BackgroundThreadFactory(Process.THREAD_PRIORITY_DEFAULT));
+        }
+        return sampler;
+    }
+
+    /**
+     * @return the number of threads used by the background pool.
+     */
+    static int poolSize() {
+        return POOL_SIZE;
+    }
+
+    private static class BackgroundThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final int priority;
+
+        BackgroundThreadFactory(int priority) {
+            this.priority = priority;
+        }
+
+        @Override public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(new Runnable() {
+                @Override public void run() {
+                    Process.setThreadPriority(priority);
+                    runnable.run();
+                }
+            }, "Renderers #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * LinearLayoutManager placing the rows bound with a {@link FixedSize} without measuring them again
+ * while their size is fully known and they have not requested a new layout. Rows with a fixed
+ * dimension are measured with an exact spec for it.
+ *
+ * When a {@link MeasureCache} is configured, the rows rendered by {@link MeasureCacheable}
+ * Renderers reuse the size measured before for the same item version and available space: they are
+ * not measured again if their view was last measured for them, and measured with an exact spec
+ * otherwise. Other rows are measured as usual.
+ *
+ * If the size of the RecyclerView doesn't depend on its content, {@link #setRecyclerViewFixedSize(boolean)}
+ * configures the RecyclerView with setHasFixedSize while attached, so changes in the adapter content
+ * don't request a layout of the whole hierarchy. The previous value is restored once detached.
+ */
+public class RendererLayoutManager extends LinearLayoutManager {
+
+    private final Rect decorInsets = new Rect();
+    private RecyclerView recyclerView;
+    private MeasureCache measureCache;
+    private boolean recyclerViewFixedSize;
+    private boolean previousHasFixedSize;
+
+    public RendererLayoutManager(Context context) {
+        super(context);
+    }
+
+    public RendererLayoutManager(Context context, int orientation, boolean reverseLayout) {
+        super(context, orientation, reverseLayout);
+    }
+
+    /**
+     * @param measureCache used to measure the rows rendered by MeasureCacheable Renderers, null to
+     * measure them as usual.
+     */
+    public void setMeasureCache(@Nullable MeasureCache measureCache) {
+        this.measureCache = measureCache;
+    }
+
+    @Nullable
+    public MeasureCache getMeasureCache() {
+        return measureCache;
+    }
+
+    /**
+     * Configures the RecyclerView with setHasFixedSize while attached. Enable it only if the size
+     * of the RecyclerView never depends on its content, a RecyclerView measured with an AT_MOST
+     * spec like one inside a wrap_content parent would not be resized when its content changes.
+     *
+     * @param hasFixedSize true to configure the RecyclerView with setHasFixedSize, false by default.
+     */
+    public void setRecyclerViewFixedSize(boolean hasFixedSize) {
+        if (recyclerViewFixedSize == hasFixedSize) {
+            return;
+        }
+        if (recyclerView != null) {
+            if (hasFixedSize) {
+                applyHasFixedSize(recyclerView);
+            } else {
+                recyclerView.setHasFixedSize(previousHasFixedSize);
+            }
+        }
+        recyclerViewFixedSize = hasFixedSize;
+    }
+
+    public boolean isRecyclerViewFixedSize() {
+        return recyclerViewFixedSize;
+    }
+
+    @Override public void onAttachedToWindow(RecyclerView view) {
+        super.onAttachedToWindow(view);
+        recyclerView = view;
+        if (recyclerViewFixedSize) {
+            applyHasFixedSize(view);
+        }
+    }
+
+    @Override public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
+        if (recyclerViewFixedSize) {
+            view.setHasFixedSize(previousHasFixedSize);
+        }
+        recyclerView = null;
+    }
+
+    private void applyHasFixedSize(RecyclerView view) {
+        previousHasFixedSize = view.hasFixedSize();
+        view.setHasFixedSize(true);
+    }
+
+    @Override public void measureChildWithMargins(View child, int widthUsed, int heightUsed) {
+        RendererViewHolder viewHolder = getRendererViewHolder(child);
+        if (viewHolder == null) {
+            super.measureChildWithMargins(child, widthUsed, heightUsed);
+        } else if (viewHolder.getFixedSize() != null) {
+            measureFixedSize(child, viewHolder.getFixedSize(), widthUsed, heightUsed);
+        } else if (isMeasureCacheable(viewHolder)) {
+            measureCached(child, viewHolder, widthUsed, heightUsed);
+        } else {
+            super.measureChildWithMargins(child, widthUsed, heightUsed);
+        }
+    }
+
+    private void measureFixedSize(View child, FixedSize fixedSize, int widthUsed, int heightUsed) {
+        RecyclerView.LayoutParams layoutParams = (RecyclerView.LayoutParams) child.getLayoutParams();
+        calculateItemDecorationsForChild(child, decorInsets);
+        int widthSpec = fixedSize.getWidth() != FixedSize.NOT_FIXED
+              ? View.MeasureSpec.makeMeasureSpec(fixedSize.getWidth(), View.MeasureSpec.EXACTLY)
+              : getChildWidthSpec(layoutParams, widthUsed);
+        int heightSpec = fixedSize.getHeight() != FixedSize.NOT_FIXED
+              ? View.MeasureSpec.makeMeasureSpec(fixedSize.getHeight(), View.MeasureSpec.EXACTLY)
+              : getChildHeightSpec(layoutParams, heightUsed);
+        if (!child.isLayoutRequested() && isMeasured(child.getMeasuredWidth(), widthSpec)
+              && isMeasured(child.getMeasuredHeight(), heightSpec)) {
+            return;
+        }
+        child.measure(widthSpec, heightSpec);
+    }
+
+    /**
+     * Measures the row using the size cached for the content version and the space available
+     * across the scroll direction, storing the size measured if it was not cached.
+     */
+    private void measureCached(View child, RendererViewHolder viewHolder, int widthUsed, int heightUsed) {
+        RecyclerView.LayoutParams layoutParams = (RecyclerView.LayoutParams) child.getLayoutParams();
+        calculateItemDecorationsForChild(child, decorInsets);
+        int widthSpec = getChildWidthSpec(layoutParams, widthUsed);
+        int heightSpec = getChildHeightSpec(layoutParams, heightUsed);
+        boolean vertical = getOrientation() == VERTICAL;
+        int availableSpec = vertical ? widthSpec : heightSpec;
+        VersionedContent content = (VersionedContent) viewHolder.getRenderer().getContent();
+        long itemId = content.getId();
+        long version = content.getVersion();
+        if (!child.isLayoutRequested() && viewHolder.isMeasuredFor(itemId, version, availableSpec)) {
+            return;
+        }
+        int size = measureCache.get(itemId, version, availableSpec);
+        if (size != MeasureCache.NOT_CACHED) {
+            int exactSpec = View.MeasureSpec.makeMeasureSpec(size, View.MeasureSpec.EXACTLY);
+            child.measure(vertical ? widthSpec : exactSpec, vertical ? exactSpec : heightSpec);
+        } else {
+            child.measure(widthSpec, heightSpec);
+            measureCache.put(itemId, version, availableSpec,
+                  vertical ? child.getMeasuredHeight() : child.getMeasuredWidth());
+        }
+        viewHolder.setMeasuredFor(itemId, version, availableSpec);
+    }
+
+    private int getChildWidthSpec(RecyclerView.LayoutParams layoutParams, int widthUsed) {
+        int used = getPaddingLeft() + getPaddingRight() + layoutParams.leftMargin + layoutParams.rightMargin
+              + decorInsets.left + decorInsets.right + widthUsed;
+        return getChildMeasureSpec(getWidth(), getWidthMode(), used, layoutParams.width, canScrollHorizontally());
+    }
+
+    private int getChildHeightSpec(RecyclerView.LayoutParams layoutParams, int heightUsed) {
+        int used = getPaddingTop() + getPaddingBottom() + layoutParams.topMargin + layoutParams.bottomMargin
+              + decorInsets.top + decorInsets.bottom + heightUsed;
+        return getChildMeasureSpec(getHeight(), getHeightMode(), used, layoutParams.height, canScrollVertically());
+    }
+
+    private boolean isMeasureCacheable(RendererViewHolder viewHolder) {
+        Renderer renderer = viewHolder.getRenderer();
+        return measureCache != null && renderer instanceof MeasureCacheable
+              && renderer.getContent() instanceof VersionedContent;
+    }
+
+    @Nullable
+    private RendererViewHolder getRendererViewHolder(View child) {
+        if (recyclerView == null) {
+            return null;
+        }
+        RecyclerView.ViewHolder viewHolder = recyclerView.getChildViewHolder(child);
+        return viewHolder instanceof RendererViewHolder ? (RendererViewHolder) viewHolder : null;
+    }
+
+    /**
+     * @return true if the view measured size is the exact size required by the spec.
+     */
+    private static boolean isMeasured(int measuredSize, int measureSpec) {
+        return View.MeasureSpec.getMode(measureSpec) == View.MeasureSpec.EXACTLY
+              && View.MeasureSpec.getSize(measureSpec) == measuredSize;
+    }
+}
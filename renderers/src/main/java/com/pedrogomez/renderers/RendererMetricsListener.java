@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Notified by a RendererAdapter with the ViewHolders it creates, binds, recycles, attaches and
+ * detaches, with the view type, the Renderer class and the nanoseconds spent in every call. Calls
+ * are made in the main thread, right after the adapter finishes the operation measured.
+ *
+ * @see RendererAdapter#setMetricsListener(RendererMetricsListener)
+ * @see AggregatingMetricsListener
+ */
+public interface RendererMetricsListener {
+
+    void onCreate(int viewType, Class<? extends Renderer> rendererClass, long durationNanos);
+
+    /**
+     * @param reused true if the ViewHolder was recycled before this bind, false if it is bound for
+     * the first time or rebound without going through the pool.
+     */
+    void onBind(int viewType, Class<? extends Renderer> rendererClass, long durationNanos, boolean reused);
+
+    void onRecycle(int viewType, Class<? extends Renderer> rendererClass, long durationNanos);
+
+    void onAttach(int viewType, Class<? extends Renderer> rendererClass, long durationNanos);
+
+    void onDetach(int viewType, Class<? extends Renderer> rendererClass, long durationNanos);
+}
@@ -24,6 +24,16 @@ import android.support.v7.widget.RecyclerView;
 class RendererViewHolder extends RecyclerView.ViewHolder {
 
     private final Renderer renderer;
+    private RendererAdapter boundAdapter;
+    private Object boundContent;
+    private long boundVersion;
+    private Object preBoundContent;
+    private FixedSize fixedSize;
+    private long measuredItemId = RecyclerView.NO_ID;
+    private long measuredVersion;
+    private int measuredAvailableSpec;
+    private int rendererViewType;
+    private boolean recycled;
 
     public RendererViewHolder(Renderer renderer) {
         super(renderer.getRootView());
@@ -33,4 +43,100 @@ class RendererViewHolder extends RecyclerView.ViewHolder {
     public Renderer getRenderer() {
         return renderer;
     }
+
+    /**
+     * @return the adapter which bound this holder the last time, used by composite adapters to
+     * forward the holder events to the right child adapter.
+     */
+    RendererAdapter getBoundAdapter() {
+        return boundAdapter;
+    }
+
+    void setBoundAdapter(RendererAdapter boundAdapter) {
+        this.boundAdapter = boundAdapter;
+    }
+
+    /**
+     * @return the content rendered the last time this holder was bound, null if it has been recycled.
+     */
+    Object getBoundContent() {
+        return boundContent;
+    }
+
+    /**
+     * @return the version of the bound content when it was rendered, if it is a VersionedContent.
+     */
+    long getBoundVersion() {
+        return boundVersion;
+    }
+
+    void setBoundContent(Object boundContent) {
+        this.boundContent = boundContent;
+        this.boundVersion = boundContent instanceof VersionedContent ? ((VersionedContent) boundContent).getVersion() : 0;
+    }
+
+    void clearBoundContent() {
+        boundContent = null;
+        boundVersion = 0;
+    }
+
+    /**
+     * @return the content this holder was bound to ahead of time by an IdlePreBinder, null if it was
+     * not pre-bound or it has been bound again since then.
+     */
+    Object getPreBoundContent() {
+        return preBoundContent;
+    }
+
+    void setPreBoundContent(Object preBoundContent) {
+        this.preBoundContent = preBoundContent;
+    }
+
+    /**
+     * @return the size of the root view if it is fixed for the Renderer type, null otherwise.
+     */
+    FixedSize getFixedSize() {
+        return fixedSize;
+    }
+
+    void setFixedSize(FixedSize fixedSize) {
+        this.fixedSize = fixedSize;
+    }
+
+    /**
+     * @return true if the root view was measured for the same version of the item and space.
+     */
+    boolean isMeasuredFor(long itemId, long version, int availableSpec) {
+        return measuredItemId == itemId && measuredVersion == version && measuredAvailableSpec == availableSpec;
+    }
+
+    void setMeasuredFor(long itemId, long version, int availableSpec) {
+        measuredItemId = itemId;
+        measuredVersion = version;
+        measuredAvailableSpec = availableSpec;
+    }
+
+    /**
+     * @return the view type passed to the RendererAdapter which created this holder. It differs
+     * from getItemViewType when the holder is created through a composite adapter.
+     */
+    int getRendererViewType() {
+        return rendererViewType;
+    }
+
+    void setRendererViewType(int rendererViewType) {
+        this.rendererViewType = rendererViewType;
+    }
+
+    /**
+     * @return true if the holder was recycled after being bound the last time, so binding it again
+     * reuses it from the RecycledViewPool.
+     */
+    boolean isRecycled() {
+        return recycled;
+    }
+
+    void setRecycled(boolean recycled) {
+        this.recycled = recycled;
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Keeps a RendererAdapter, with its collection, bindings, caches and saved view state, across the
+ * recreation of an Activity, for example returning it from onRetainCustomNonConfigurationInstance.
+ *
+ * Retaining detaches the adapter from the old RecyclerView, so the old views are recycled and their
+ * view state saved. The recycled ViewHolders whose views and Renderer are not tied to an Activity
+ * context are kept in a new RecycledViewPool and reused by the new RecyclerView, the rest are
+ * dropped and inflated again with the new context when needed. Views shared by the prototypes, like
+ * the RecycledViewPool of a RecyclerViewRenderer, are released too.
+ *
+ * Components created for the old RecyclerView, like a LookaheadPrefetcher, have to be created
+ * again for the new one.
+ */
+public final class RetainedRendererAdapter {
+
+    private final RendererAdapter adapter;
+    private RecyclerView.RecycledViewPool recycledViewPool;
+    private int retainedViewHolderCount;
+
+    private RetainedRendererAdapter(RendererAdapter adapter) {
+        this.adapter = adapter;
+    }
+
+    /**
+     * Detaches the RendererAdapter from the RecyclerView about to be destroyed, keeping it with
+     * the ViewHolders that can be reused by the next RecyclerView.
+     *
+     * @param recyclerView showing a RendererAdapter.
+     * @return the state to retain.
+     */
+    public static RetainedRendererAdapter retain(RecyclerView recyclerView) {
+        if (!(recyclerView.getAdapter() instanceof RendererAdapter)) {
+            throw new IllegalArgumentException("RetainedRendererAdapter can only retain a RendererAdapter");
+        }
+        RendererAdapter adapter = (RendererAdapter) recyclerView.getAdapter();
+        RecyclerView.RecycledViewPool oldPool = recyclerView.getRecycledViewPool();
+        // Swapping keeps the pool, setting a new adapter would clear the ViewHolders just recycled
+        recyclerView.swapAdapter(null, true);
+        RetainedRendererAdapter retained = new RetainedRendererAdapter(adapter);
+        retained.retainViewHolders(oldPool);
+        for (Object prototype : adapter.getRendererBuilder().getPrototypes()) {
+            ((Renderer) prototype).releaseSharedViews();
+        }
+        return retained;
+    }
+
+    /**
+     * @return the retained adapter.
+     */
+    public <T> RendererAdapter<T> getAdapter() {
+        //noinspection unchecked
+        return adapter;
+    }
+
+    /**
+     * @return the number of ViewHolders kept to be reused by the next RecyclerView.
+     */
+    public int getRetainedViewHolderCount() {
+        return retainedViewHolderCount;
+    }
+
+    /**
+     * Sets the retained adapter, and the ViewHolders retained if any, into the new RecyclerView.
+     *
+     * @param recyclerView created for the new Activity.
+     * @return the retained adapter.
+     */
+    public <T> RendererAdapter<T> restore(RecyclerView recyclerView) {
+        if (recycledViewPool != null) {
+            recyclerView.setRecycledViewPool(recycledViewPool);
+            recycledViewPool = null;
+        }
+        recyclerView.setAdapter(adapter);
+        return getAdapter();
+    }
+
+    private void retainViewHolders(@Nullable RecyclerView.RecycledViewPool oldPool) {
+        if (oldPool == null) {
+            return;
+        }
+        for (int viewType = 0, viewTypes = adapter.getRendererBuilder().getPrototypes().size();
+              viewType < viewTypes; viewType++) {
+            RecyclerView.ViewHolder viewHolder;
+            while ((viewHolder = oldPool.getRecycledView(viewType)) != null) {
+                if (viewHolder instanceof RendererViewHolder && isReusable((RendererViewHolder) viewHolder)) {
+                    if (recycledViewPool == null) {
+                        recycledViewPool = new RecyclerView.RecycledViewPool();
+                    }
+                    recycledViewPool.putRecycledView(viewHolder);
+                    retainedViewHolderCount++;
+                }
+            }
+        }
+    }
+
+    private static boolean isReusable(RendererViewHolder viewHolder) {
+        return !isActivityContext(viewHolder.itemView.getContext())
+              && !isActivityContext(viewHolder.getRenderer().getContext());
+    }
+
+    private static boolean isActivityContext(@Nullable Context context) {
+        while (context != null) {
+            if (context instanceof Activity) {
+                return true;
+            }
+            if (!(context instanceof ContextWrapper)) {
+                return false;
+            }
+            Context baseContext = ((ContextWrapper) context).getBaseContext();
+            if (baseContext == context) {
+                return false;
+            }
+            context = baseContext;
+        }
+        return false;
+    }
+}
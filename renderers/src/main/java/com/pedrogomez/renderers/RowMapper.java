@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Expands one model item into the rows shown by a {@link SectionedRendererAdapter}. Every row
+ * returned is rendered using the Renderer bound to its class or type.
+ *
+ * @param <T> the type of the items stored in the sections.
+ */
+public interface RowMapper<T> {
+
+    /**
+     * @param item stored in one section.
+     * @return the number of rows used to show the item, zero hides it.
+     */
+    int getRowCount(T item);
+
+    /**
+     * @param item stored in one section.
+     * @param row index between 0 and getRowCount(item) - 1.
+     * @return the content to render in the row.
+     */
+    Object getRow(T item, int row);
+}
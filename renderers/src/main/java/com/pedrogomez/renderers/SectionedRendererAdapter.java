@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RendererAdapter extension showing a list of sections. Every section has an optional header,
+ * shown as a virtual row before its items, and a list of items. Headers and rows are rendered using
+ * the Renderer bound to their class or type as any other element.
+ *
+ * Flat positions are mapped to sections using a Fenwick tree with the number of rows of every
+ * section, so the mapping is O(log n) and adding or removing items only updates the count of the
+ * section modified in O(log n). Adding or removing a section in the middle rebuilds the tree of the
+ * sections in O(n), and so does adding or removing an item in the middle of a section for the tree
+ * of its items. A {@link RowMapper} can be used to expand one item into several rows.
+ *
+ * The collection returned by {@link #getCollection()} is a read only view of the rows, use the
+ * section methods declared in this class to modify the content. The flat position based mutation
+ * methods inherited from RendererAdapter, and their "AndNotify" variants, throw an
+ * IllegalStateException because a flat position can't be mapped to a section and item unambiguously.
+ * Only {@link #clear()} is supported, removing every section.
+ *
+ * @param <T> the type of the items stored in the sections.
+ */
+public class SectionedRendererAdapter<T> extends RendererAdapter<Object> {
+
+    private final SectionedRows<T> rows;
+
+    public SectionedRendererAdapter(RendererBuilder rendererBuilder) {
+        this(rendererBuilder, null);
+    }
+
+    public SectionedRendererAdapter(RendererBuilder rendererBuilder, @Nullable RowMapper<T> rowMapper) {
+        super(rendererBuilder, new SectionedRows<>(rowMapper));
+        //noinspection unchecked
+        rows = (SectionedRows<T>) (List) getCollection();
+    }
+
+    /**
+     * @return the number of sections.
+     */
+    public int getSectionCount() {
+        return rows.sections.size();
+    }
+
+    /**
+     * @param section index.
+     * @return the header of the section, null if it doesn't have one.
+     */
+    @Nullable
+    public Object getSectionHeader(int section) {
+        return rows.sections.get(section).header;
+    }
+
+    /**
+     * @param section index.
+     * @return read only list with the items of the section.
+     */
+    public List<T> getSectionItems(int section) {
+        return Collections.unmodifiableList(rows.sections.get(section).items);
+    }
+
+    /**
+     * @param position flat position in the adapter.
+     * @return the index of the section containing the position.
+     */
+    public int getSectionForPosition(int position) {
+        return rows.sectionRows.indexOf(position);
+    }
+
+    /**
+     * @param position flat position in the adapter.
+     * @return the index of the item rendered in the position inside its section, -1 if the position
+     * belongs to a section header.
+     */
+    public int getItemIndexForPosition(int position) {
+        int section = rows.sectionRows.indexOf(position);
+        int offset = position - rows.sectionRows.prefixSum(section);
+        return rows.sections.get(section).itemIndexOf(offset);
+    }
+
+    /**
+     * @param section index.
+     * @return the flat position of the first row of the section.
+     */
+    public int getSectionPosition(int section) {
+        return rows.sectionRows.prefixSum(section);
+    }
+
+    /**
+     * @param section index.
+     * @param index of the item inside the section.
+     * @return the flat position of the first row of the item.
+     */
+    public int getItemPosition(int section, int index) {
+        return getSectionPosition(section) + rows.sections.get(section).rowOffsetOf(index);
+    }
+
+    /**
+     * Adds a new section at the end of the adapter.
+     *
+     * @param header of the section, null if the section doesn't need a header row.
+     * @param items of the section.
+     * @return the index of the new section.
+     */
+    public int addSection(@Nullable Object header, Collection<? extends T> items) {
+        return addSection(rows.sections.size(), header, items);
+    }
+
+    /**
+     * @see #addSection(Object, Collection)
+     */
+    public int addSection(int section, @Nullable Object header, Collection<? extends T> items) {
+        Section<T> newSection = new Section<>(header, items, rows.rowMapper);
+        rows.sections.add(section, newSection);
+        rows.sectionRows.insert(section, newSection.rowCount());
+        return section;
+    }
+
+    /**
+     * @see #addSection(Object, Collection)
+     * @see android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeInserted(int, int)
+     */
+    public int addSectionAndNotify(@Nullable Object header, Collection<? extends T> items) {
+        return addSectionAndNotify(rows.sections.size(), header, items);
+    }
+
+    /**
+     * @see #addSection(int, Object, Collection)
+     * @see android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeInserted(int, int)
+     */
+    public int addSectionAndNotify(int section, @Nullable Object header, Collection<? extends T> items) {
+        addSection(section, header, items);
+        notifyItemRangeInserted(getSectionPosition(section), rows.sectionRows.get(section));
+        return section;
+    }
+
+    /**
+     * Removes one section with its header and items.
+     *
+     * @param section index.
+     */
+    public void removeSection(int section) {
+        rows.sections.remove(section);
+        rows.sectionRows.remove(section);
+    }
+
+    /**
+     * @see #removeSection(int)
+     * @see android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeRemoved(int, int)
+     */
+    public void removeSectionAndNotify(int section) {
+        int position = getSectionPosition(section);
+        int count = rows.sectionRows.get(section);
+        removeSection(section);
+        notifyItemRangeRemoved(position, count);
+    }
+
+    /**
+     * Adds one item at the end of a section.
+     *
+     * @param section index.
+     * @param item to add.
+     */
+    public void addItem(int section, T item) {
+        addItem(section, rows.sections.get(section).items.size(), item);
+    }
+
+    /**
+     * Adds one item to a section. Only the row count of the section is updated.
+     *
+     * @param section index.
+     * @param index inside the section.
+     * @param item to add.
+     */
+    public void addItem(int section, int index, T item) {
+        Section<T> target = rows.sections.get(section);
+        target.add(index, item);
+        rows.sectionRows.set(section, target.rowCount());
+    }
+
+    /**
+     * @see #addItem(int, Object)
+     * @see android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeInserted(int, int)
+     */
+    public void addItemAndNotify(int section, T item) {
+        addItemAndNotify(section, rows.sections.get(section).items.size(), item);
+    }
+
+    /**
+     * @see #addItem(int, int, Object)
+     * @see android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeInserted(int, int)
+     */
+    public void addItemAndNotify(int section, int index, T item) {
+        addItem(section, index, item);
+        int itemRows = rows.sections.get(section).rowCountOf(index);
+        if (itemRows > 0) {
+            notifyItemRangeInserted(getItemPosition(section, index), itemRows);
+        }
+    }
+
+    /**
+     * Removes one item from a section. Only the row count of the section is updated.
+     *
+     * @param section index.
+     * @param index inside the section.
+     * @return the item removed.
+     */
+    public T removeItem(int section, int index) {
+        Section<T> target = rows.sections.get(section);
+        T removed = target.remove(index);
+        rows.sectionRows.set(section, target.rowCount());
+        return removed;
+    }
+
+    /**
+     * @see #removeItem(int, int)
+     * @see android.support.v7.widget.RecyclerView.Adapter#notifyItemRangeRemoved(int, int)
+     */
+    public T removeItemAndNotify(int section, int index) {
+        int position = getItemPosition(section, index);
+        int itemRows = rows.sections.get(section).rowCountOf(index);
+        T removed = removeItem(section, index);
+        if (itemRows > 0) {
+            notifyItemRangeRemoved(position, itemRows);
+        }
+        return removed;
+    }
+
+    /**
+     * Replaces one item of a section notifying the rows changed, inserted or removed if the number
+     * of rows used by the item changes.
+     *
+     * @param section index.
+     * @param index inside the section.
+     * @param item new item.
+     * @return the item replaced.
+     */
+    public T updateItemAndNotify(int section, int index, T item) {
+        Section<T> target = rows.sections.get(section);
+        int position = getItemPosition(section, index);
+        int oldRows = target.rowCountOf(index);
+        T replaced = target.set(index, item);
+        rows.sectionRows.set(section, target.rowCount());
+        int newRows = target.rowCountOf(index);
+        int changedRows = Math.min(oldRows, newRows);
+        if (changedRows > 0) {
+            notifyItemRangeChanged(position, changedRows);
+        }
+        if (newRows > oldRows) {
+            notifyItemRangeInserted(position + oldRows, newRows - oldRows);
+        } else if (oldRows > newRows) {
+            notifyItemRangeRemoved(position + newRows, oldRows - newRows);
+        }
+        return replaced;
+    }
+
+    /**
+     * Removes every section.
+     */
+    @Override public void clear() {
+        rows.sections.clear();
+        rows.sectionRows.clear();
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #addItem(int, Object)} instead.
+     */
+    @Override public boolean add(Object element) {
+        throw flatMutationNotSupported("add");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #addItem(int, int, Object)} instead.
+     */
+    @Override public void add(int index, Object element) {
+        throw flatMutationNotSupported("add");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #addSection(Object, Collection)} instead.
+     */
+    @Override public boolean addAll(Collection elements) {
+        throw flatMutationNotSupported("addAll");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #addSection(int, Object, Collection)} instead.
+     */
+    @Override public boolean addAll(int index, Collection elements) {
+        throw flatMutationNotSupported("addAll");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #updateItemAndNotify(int, int, Object)} instead.
+     */
+    @Override public Object update(int index, Object element) {
+        throw flatMutationNotSupported("update");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #removeItem(int, int)} instead.
+     */
+    @Override public Object removeAt(int location) {
+        throw flatMutationNotSupported("removeAt");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #removeItem(int, int)} instead.
+     */
+    @Override public boolean remove(Object element) {
+        throw flatMutationNotSupported("remove");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #removeSection(int)} instead.
+     */
+    @Override public boolean removeAll(Collection<?> elements) {
+        throw flatMutationNotSupported("removeAll");
+    }
+
+    /**
+     * @throws IllegalStateException always, use {@link #removeItem(int, int)} and
+     * {@link #addItem(int, int, Object)} instead.
+     */
+    @Override public void move(int currentPosition, int newPosition, Object element) {
+        throw flatMutationNotSupported("move");
+    }
+
+    private static IllegalStateException flatMutationNotSupported(String method) {
+        return new IllegalStateException("SectionedRendererAdapter can't be modified using " + method
+              + ", use the section methods instead");
+    }
+
+    /**
+     * Read only list exposing the rows of every section to RendererAdapter.
+     */
+    private static final class SectionedRows<T> extends AbstractList<Object> {
+
+        final List<Section<T>> sections = new ArrayList<>();
+        final FenwickTree sectionRows = new FenwickTree();
+        final RowMapper<T> rowMapper;
+
+        SectionedRows(@Nullable RowMapper<T> rowMapper) {
+            this.rowMapper = rowMapper;
+        }
+
+        @Override public Object get(int position) {
+            int section = sectionRows.indexOf(position);
+            return sections.get(section).rowAt(position - sectionRows.prefixSum(section));
+        }
+
+        @Override public int size() {
+            return sectionRows.total();
+        }
+    }
+
+    /**
+     * One section of the adapter. When a RowMapper is configured the rows used by every item are
+     * stored in a Fenwick tree too, otherwise every item uses one row.
+     */
+    private static final class Section<T> {
+
+        final Object header;
+        final List<T> items;
+        final RowMapper<T> rowMapper;
+        final FenwickTree itemRows;
+
+        Section(@Nullable Object header, Collection<? extends T> items, @Nullable RowMapper<T> rowMapper) {
+            this.header = header;
+            this.items = new ArrayList<>(items);
+            this.rowMapper = rowMapper;
+            if (rowMapper != null) {
+                itemRows = new FenwickTree();
+                for (T item : this.items) {
+                    itemRows.add(rowMapper.getRowCount(item));
+                }
+            } else {
+                itemRows = null;
+            }
+        }
+
+        int headerRows() {
+            return header != null ? 1 : 0;
+        }
+
+        int rowCount() {
+            return headerRows() + (itemRows != null ? itemRows.total() : items.size());
+        }
+
+        int rowCountOf(int index) {
+            return itemRows != null ? itemRows.get(index) : 1;
+        }
+
+        int rowOffsetOf(int index) {
+            return headerRows() + (itemRows != null ? itemRows.prefixSum(index) : index);
+        }
+
+        int itemIndexOf(int offset) {
+            int itemOffset = offset - headerRows();
+            if (itemOffset < 0) {
+                return -1;
+            }
+            return itemRows != null ? itemRows.indexOf(itemOffset) : itemOffset;
+        }
+
+        Object rowAt(int offset) {
+            int itemOffset = offset - headerRows();
+            if (itemOffset < 0) {
+                return header;
+            }
+            if (itemRows == null) {
+                return items.get(itemOffset);
+            }
+            int index = itemRows.indexOf(itemOffset);
+            return rowMapper.getRow(items.get(index), itemOffset - itemRows.prefixSum(index));
+        }
+
+        void add(int index, T item) {
+            items.add(index, item);
+            if (itemRows != null) {
+                itemRows.insert(index, rowMapper.getRowCount(item));
+            }
+        }
+
+        T remove(int index) {
+            if (itemRows != null) {
+                itemRows.remove(index);
+            }
+            return items.remove(index);
+        }
+
+        T set(int index, T item) {
+            if (itemRows != null) {
+                itemRows.set(index, rowMapper.getRowCount(item));
+            }
+            return items.set(index, item);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.annotation.Nullable;
+import android.support.v4.util.LruCache;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+/**
+ * LRU cache of the text Layouts built for the text fields of the items rendered, keyed by item id,
+ * field and width. The text of every Layout is stored too, so a Layout is never returned for a
+ * text different from the one it was built with. The cache can be used from any thread.
+ */
+public class TextLayoutCache implements Trimmable {
+
+    private static final int DEFAULT_MAX_LAYOUTS = 200;
+
+    private final LruCache<Key, Entry> layouts;
+
+    public TextLayoutCache() {
+        this(DEFAULT_MAX_LAYOUTS);
+    }
+
+    /**
+     * @param maxLayouts number of Layouts kept.
+     */
+    public TextLayoutCache(int maxLayouts) {
+        layouts = new LruCache<>(maxLayouts);
+    }
+
+    /**
+     * @return the Layout built for the field of the item with the same text and width, null if it is
+     * not in the cache.
+     */
+    @Nullable
+    public Layout get(long itemId, int field, int width, CharSequence text) {
+        Entry entry = layouts.get(new Key(itemId, field, width));
+        if (entry == null || !TextUtils.equals(entry.text, text)) {
+            return null;
+        }
+        return entry.layout;
+    }
+
+    public void put(long itemId, int field, int width, CharSequence text, Layout layout) {
+        layouts.put(new Key(itemId, field, width), new Entry(text, layout));
+    }
+
+    /**
+     * Returns the Layout cached for the field of the item, building and caching it if it is not in
+     * the cache yet.
+     */
+    public Layout getOrCreate(long itemId, int field, int width, CharSequence text, TextPaint paint) {
+        Layout layout = get(itemId, field, width, text);
+        if (layout == null) {
+            layout = createLayout(text, paint, width);
+            put(itemId, field, width, text, layout);
+        }
+        return layout;
+    }
+
+    public int size() {
+        return layouts.size();
+    }
+
+    /**
+     * Evicts the least recently used Layouts in proportion to the trim level.
+     */
+    @Override public void onTrimMemory(int level) {
+        layouts.trimToSize(MemoryTrimmer.getRetainedCount(layouts.size(), level));
+    }
+
+    public void clear() {
+        layouts.evictAll();
+    }
+
+    /**
+     * Builds the Layout of one text, called from background threads by the prefetcher.
+     */
+    Layout createLayout(CharSequence text, TextPaint paint, int width) {
+        return new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, true);
+    }
+
+    /**
+     * Identity of one field of one item measured with one width.
+     */
+    static final class Key {
+
+        final long itemId;
+        final int field;
+        final int width;
+
+        Key(long itemId, int field, int width) {
+            this.itemId = itemId;
+            this.field = field;
+            this.width = width;
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return itemId == key.itemId && field == key.field && width == key.width;
+        }
+
+        @Override public int hashCode() {
+            int result = (int) (itemId ^ (itemId >>> 32));
+            result = 31 * result + field;
+            result = 31 * result + width;
+            return result;
+        }
+    }
+
+    private static final class Entry {
+
+        final CharSequence text;
+        final Layout layout;
+
+        Entry(CharSequence text, Layout layout) {
+            this.text = text;
+            this.layout = layout;
+        }
+    }
+}
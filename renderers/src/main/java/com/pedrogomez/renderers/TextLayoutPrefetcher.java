@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.text.Layout;
+import android.text.TextPaint;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * LookaheadPrefetcher building on a background thread the text Layouts of the items about to enter
+ * the screen. The Layouts are stored in a {@link TextLayoutCache} shared with the Renderers, which
+ * only have to build the Layouts not prefetched on time. Layouts of items cancelled before their
+ * task starts are not built.
+ *
+ * Only the items whose prototype Renderer implements {@link TextLayoutSpec} are prefetched, using
+ * the item ids of the adapter as keys, so the adapter should have stable ids.
+ */
+public class TextLayoutPrefetcher extends LookaheadPrefetcher {
+
+    private static final int DEFAULT_DISTANCE = 5;
+    private static final int DEFAULT_MAX_DISTANCE = 15;
+
+    private final TextLayoutCache cache;
+    private final Executor executor;
+    private final ConcurrentMap<TextLayoutCache.Key, LayoutTask> pending = new ConcurrentHashMap<>();
+
+    public TextLayoutPrefetcher(RendererAdapter<?> adapter, TextLayoutCache cache) {
+        this(adapter, cache, DEFAULT_DISTANCE);
+    }
+
+    /**
+     * @param adapter of the RecyclerView.
+     * @param cache shared with the Renderers.
+     * @param distance number of items prefetched when the list is not scrolling fast.
+     */
+    public TextLayoutPrefetcher(RendererAdapter<?> adapter, TextLayoutCache cache, int distance) {
+        this(adapter, cache, distance, RendererExecutors.background());
+    }
+
+    TextLayoutPrefetcher(RendererAdapter<?> adapter, TextLayoutCache cache, int distance, Executor executor) {
+        super(adapter, distance, Math.max(distance, DEFAULT_MAX_DISTANCE));
+        this.cache = cache;
+        this.executor = executor;
+    }
+
+    @Override protected void onPrefetch(Context context, int availableWidth, int position, Object content, long itemId) {
+        super.onPrefetch(context, availableWidth, position, content, itemId);
+        Renderer prototype = getAdapter().getRendererBuilder().getPrototypeByIndex(getAdapter().getItemViewType(position));
+        if (!(prototype instanceof TextLayoutSpec) || availableWidth <= 0) {
+            return;
+        }
+        //noinspection unchecked
+        TextLayoutSpec<Object> spec = (TextLayoutSpec<Object>) prototype;
+        for (int field = 0, fields = spec.getTextFieldCount(); field < fields; field++) {
+            CharSequence text = spec.getText(content, field);
+            int width = spec.getTextWidth(availableWidth, field);
+            if (text == null || width <= 0 || cache.get(itemId, field, width, text) != null) {
+                continue;
+            }
+            TextLayoutCache.Key key = new TextLayoutCache.Key(itemId, field, width);
+            if (!pending.containsKey(key)) {
+                LayoutTask task = new LayoutTask(key, text, spec.getTextPaint(context, field));
+                pending.put(key, task);
+                executor.execute(task);
+            }
+        }
+    }
+
+    @Override protected void onCancel(Context context, Object content, long itemId) {
+        super.onCancel(context, content, itemId);
+        for (LayoutTask task : pending.values()) {
+            if (task.key.itemId == itemId) {
+                task.cancelled = true;
+                pending.remove(task.key, task);
+            }
+        }
+    }
+
+    /**
+     * Builds the Layout of one text field and stores it in the cache.
+     */
+    private final class LayoutTask implements Runnable {
+
+        private final TextLayoutCache.Key key;
+        private final CharSequence text;
+        private final TextPaint paint;
+        private volatile boolean cancelled;
+
+        LayoutTask(TextLayoutCache.Key key, CharSequence text, TextPaint paint) {
+            this.key = key;
+            this.text = text;
+            this.paint = paint;
+        }
+
+        @Override public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                Layout layout = cache.createLayout(text, paint, key.width);
+                cache.put(key.itemId, key.field, key.width, text, layout);
+            } finally {
+                // A newer task for the same key could have been queued after cancelling this one.
+                pending.remove(key, this);
+            }
+        }
+    }
+}
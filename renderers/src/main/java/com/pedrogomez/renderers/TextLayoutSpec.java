@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+import android.text.TextPaint;
+
+/**
+ * Interface to implement by Renderers showing text fields drawn from a precomputed Layout, like
+ * the ones shown by {@link TextLayoutView}. The prototype Renderer is used by a
+ * {@link TextLayoutPrefetcher} to build the Layouts of the items about to be shown on a background
+ * thread, so the methods of this interface can't access the views of the Renderer.
+ *
+ * @param <T> the type of the content rendered.
+ */
+public interface TextLayoutSpec<T> {
+
+    /**
+     * @return the number of text fields of the Renderer.
+     */
+    int getTextFieldCount();
+
+    /**
+     * @param content to render.
+     * @param field index between 0 and getTextFieldCount() - 1.
+     * @return the text of the field, null if the content doesn't show it.
+     */
+    @Nullable
+    CharSequence getText(T content, int field);
+
+    /**
+     * @param context of the RecyclerView.
+     * @param field index between 0 and getTextFieldCount() - 1.
+     * @return the paint used to draw the field. The same paint is used from background threads, so
+     * it can't be modified once created.
+     */
+    TextPaint getTextPaint(Context context, int field);
+
+    /**
+     * @param availableWidth width of the RecyclerView without its padding.
+     * @param field index between 0 and getTextFieldCount() - 1.
+     * @return the width of the Layout used to draw the field.
+     */
+    int getTextWidth(int availableWidth, int field);
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * View drawing one text using a Layout taken from a {@link TextLayoutCache}, so the text prefetched
+ * by a {@link TextLayoutPrefetcher} is drawn without measuring it again on the main thread. The
+ * Layout is built on measure if it was not prefetched with the width given to the view.
+ */
+public class TextLayoutView extends View {
+
+    private TextLayoutCache cache;
+    private long itemId;
+    private int field;
+    private CharSequence text;
+    private TextPaint paint;
+    private Layout layout;
+
+    public TextLayoutView(Context context) {
+        super(context);
+    }
+
+    public TextLayoutView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public TextLayoutView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    /**
+     * Configures the text to draw.
+     *
+     * @param cache used to get or store the Layout.
+     * @param itemId of the item rendered.
+     * @param field index of the text field.
+     * @param text to draw.
+     * @param paint used to draw the text.
+     */
+    public void setText(TextLayoutCache cache, long itemId, int field, CharSequence text, TextPaint paint) {
+        if (this.cache == cache && this.itemId == itemId && this.field == field && this.paint == paint
+              && TextUtils.equals(this.text, text)) {
+            return;
+        }
+        this.cache = cache;
+        this.itemId = itemId;
+        this.field = field;
+        this.text = text;
+        this.paint = paint;
+        this.layout = null;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * @return the Layout drawn, null if the view has not been measured with the current text.
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    @Override protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        int verticalPadding = getPaddingTop() + getPaddingBottom();
+        if (text == null) {
+            setMeasuredDimension(resolveSize(horizontalPadding, widthMeasureSpec),
+                  resolveSize(verticalPadding, heightMeasureSpec));
+            return;
+        }
+        int width;
+        if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED) {
+            width = (int) Math.ceil(Layout.getDesiredWidth(text, paint));
+        } else {
+            width = Math.max(0, MeasureSpec.getSize(widthMeasureSpec) - horizontalPadding);
+        }
+        if (layout == null || layout.getWidth() != width) {
+            layout = cache.getOrCreate(itemId, field, width, text, paint);
+        }
+        setMeasuredDimension(resolveSize(width + horizontalPadding, widthMeasureSpec),
+              resolveSize(layout.getHeight() + verticalPadding, heightMeasureSpec));
+    }
+
+    @Override protected void onDraw(Canvas canvas) {
+        if (layout == null) {
+            return;
+        }
+        canvas.save();
+        canvas.translate(getPaddingLeft(), getPaddingTop());
+        layout.draw(canvas);
+        canvas.restore();
+    }
+}
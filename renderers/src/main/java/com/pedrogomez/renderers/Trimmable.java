@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Implemented by the pools and caches that can release part of their content when the system is
+ * running low on memory. Registered in a {@link MemoryTrimmer}.
+ */
+public interface Trimmable {
+
+    /**
+     * Releases part of the content kept, in proportion to the level passed as argument. The content
+     * released is created again lazily when it is needed.
+     *
+     * @param level one of the ComponentCallbacks2 TRIM_MEMORY constants.
+     */
+    void onTrimMemory(int level);
+}
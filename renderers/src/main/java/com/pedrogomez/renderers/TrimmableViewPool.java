@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+
+/**
+ * RecycledViewPool shrinking the number of ViewHolders kept for every view type when the memory is
+ * trimmed. After a trim the limit of every view type grows back by one every time the pool has no
+ * ViewHolder to return, so the pool only grows again if the list needs it.
+ */
+public class TrimmableViewPool extends RecyclerView.RecycledViewPool implements Trimmable {
+
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    private final SparseIntArray maxRecycledViews = new SparseIntArray();
+    private final SparseIntArray currentMaxRecycledViews = new SparseIntArray();
+
+    @Override public void setMaxRecycledViews(int viewType, int max) {
+        maxRecycledViews.put(viewType, max);
+        currentMaxRecycledViews.put(viewType, max);
+        super.setMaxRecycledViews(viewType, max);
+    }
+
+    @Override public RecyclerView.ViewHolder getRecycledView(int viewType) {
+        RecyclerView.ViewHolder viewHolder = super.getRecycledView(viewType);
+        if (viewHolder == null) {
+            int current = getCurrentMaxRecycledViews(viewType);
+            if (current < getMaxRecycledViews(viewType)) {
+                currentMaxRecycledViews.put(viewType, current + 1);
+                super.setMaxRecycledViews(viewType, current + 1);
+            }
+        }
+        return viewHolder;
+    }
+
+    @Override public void putRecycledView(RecyclerView.ViewHolder viewHolder) {
+        int viewType = viewHolder.getItemViewType();
+        if (maxRecycledViews.indexOfKey(viewType) < 0) {
+            maxRecycledViews.put(viewType, DEFAULT_MAX_RECYCLED_VIEWS);
+            currentMaxRecycledViews.put(viewType, DEFAULT_MAX_RECYCLED_VIEWS);
+        }
+        super.putRecycledView(viewHolder);
+    }
+
+    @Override public void onTrimMemory(int level) {
+        for (int i = 0, size = maxRecycledViews.size(); i < size; i++) {
+            int viewType = maxRecycledViews.keyAt(i);
+            int trimmed = Math.min(getCurrentMaxRecycledViews(viewType),
+                  MemoryTrimmer.getRetainedCount(maxRecycledViews.valueAt(i), level));
+            currentMaxRecycledViews.put(viewType, trimmed);
+            super.setMaxRecycledViews(viewType, trimmed);
+        }
+    }
+
+    /**
+     * @return the number of ViewHolders of the view type the pool keeps when there is enough memory.
+     */
+    public int getMaxRecycledViews(int viewType) {
+        return maxRecycledViews.get(viewType, DEFAULT_MAX_RECYCLED_VIEWS);
+    }
+
+    /**
+     * @return the number of ViewHolders of the view type the pool keeps now.
+     */
+    public int getCurrentMaxRecycledViews(int viewType) {
+        return currentMaxRecycledViews.get(viewType, DEFAULT_MAX_RECYCLED_VIEWS);
+    }
+}
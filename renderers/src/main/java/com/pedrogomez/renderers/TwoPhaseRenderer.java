@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.support.v4.util.LruCache;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Renderer splitting the render algorithm in two steps. {@link #compute(Object)} creates an
+ * immutable view model from the content, formatting dates, counts or spans, and can run on any
+ * thread. {@link #apply(Object, List)} sets the view model into the views on the main thread.
+ *
+ * The view models of {@link VersionedContent} elements are stored in a cache shared by every copy
+ * of the prototype, keyed by item id and validated using the id and version of the content. As a
+ * {@link Prefetcher} the view models of the versioned items about to be shown are computed on a
+ * background thread when a LookaheadPrefetcher is attached to the RecyclerView, so render only
+ * computes the view models not prefetched on time. The view model of any other element is computed
+ * on every render, because the same instance could have been modified.
+ *
+ * @param <T> the type of the content rendered.
+ * @param <VM> the type of the view model.
+ */
+public abstract class TwoPhaseRenderer<T, VM> extends Renderer<T> implements Prefetcher<T>, Trimmable {
+
+    private static final int DEFAULT_CACHE_SIZE = 100;
+
+    private final SharedState<T, VM> sharedState;
+
+    public TwoPhaseRenderer() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize maximum number of view models cached.
+     */
+    public TwoPhaseRenderer(int cacheSize) {
+        this(cacheSize, RendererExecutors.background());
+    }
+
+    TwoPhaseRenderer(int cacheSize, Executor executor) {
+        this.sharedState = new SharedState<>(cacheSize, executor);
+    }
+
+    /**
+     * Creates the view model of one content. This method can be called from a background thread, so
+     * it can't access the views or any other state of the Renderer.
+     *
+     * @param content to render.
+     * @return the view model applied to the views.
+     */
+    protected abstract VM compute(T content);
+
+    /**
+     * Sets the view model of the current content into the views.
+     *
+     * @param viewModel computed for the current content.
+     * @param payloads Extra payloads for fine-grain rendering.
+     */
+    protected abstract void apply(VM viewModel, List<Object> payloads);
+
+    @Override public void render(List<Object> payloads) {
+        T content = getContent();
+        if (!(content instanceof VersionedContent)) {
+            apply(compute(content), payloads);
+            return;
+        }
+        VersionedContent versionedContent = (VersionedContent) content;
+        long itemId = getItemId();
+        VM viewModel;
+        Entry<VM> entry = sharedState.cache.get(itemId);
+        if (entry != null && entry.matches(versionedContent)) {
+            viewModel = entry.viewModel;
+        } else {
+            viewModel = compute(content);
+            sharedState.cache.put(itemId, new Entry<>(versionedContent, viewModel));
+        }
+        apply(viewModel, payloads);
+    }
+
+    /**
+     * Computes the view model of VersionedContent elements not cached yet, any other element is
+     * computed when rendered.
+     */
+    @Override public void prefetch(Context context, T content, long itemId) {
+        if (!(content instanceof VersionedContent)) {
+            return;
+        }
+        Entry<VM> entry = sharedState.cache.get(itemId);
+        if ((entry != null && entry.matches((VersionedContent) content))
+              || sharedState.pending.containsKey(itemId)) {
+            return;
+        }
+        ComputeTask task = new ComputeTask(itemId, content);
+        sharedState.pending.put(itemId, task);
+        sharedState.executor.execute(task);
+    }
+
+    @Override public void cancel(Context context, T content, long itemId) {
+        ComputeTask task = sharedState.pending.remove(itemId);
+        if (task != null) {
+            task.cancelled = true;
+        }
+    }
+
+    /**
+     * Removes every view model cached, for example after a configuration change modifying their
+     * format.
+     */
+    public void clearViewModels() {
+        sharedState.cache.evictAll();
+    }
+
+    /**
+     * Evicts the least recently used view models shared by every copy in proportion to the trim
+     * level.
+     */
+    @Override public void onTrimMemory(int level) {
+        sharedState.cache.trimToSize(MemoryTrimmer.getRetainedCount(sharedState.cache.size(), level));
+    }
+
+    /**
+     * Computes the view model of one item and stores it in the shared cache.
+     */
+    private final class ComputeTask implements Runnable {
+
+        private final long itemId;
+        private final T content;
+        private volatile boolean cancelled;
+
+        ComputeTask(long itemId, T content) {
+            this.itemId = itemId;
+            this.content = content;
+        }
+
+        @Override public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                sharedState.cache.put(itemId, new Entry<>((VersionedContent) content, compute(content)));
+            } finally {
+                // A newer task for the item could have been queued after cancelling this one.
+                sharedState.pending.remove(itemId, this);
+            }
+        }
+    }
+
+    /**
+     * View model computed for one version of an item.
+     */
+    private static final class Entry<VM> {
+
+        final long id;
+        final long version;
+        final VM viewModel;
+
+        Entry(VersionedContent content, VM viewModel) {
+            this.id = content.getId();
+            this.version = content.getVersion();
+            this.viewModel = viewModel;
+        }
+
+        boolean matches(VersionedContent content) {
+            return id == content.getId() && version == content.getVersion();
+        }
+    }
+
+    /**
+     * State shared by every copy of the prototype.
+     */
+    private static final class SharedState<T, VM> {
+
+        final LruCache<Long, Entry<VM>> cache;
+        final ConcurrentMap<Long, TwoPhaseRenderer<T, VM>.ComputeTask> pending = new ConcurrentHashMap<>();
+        final Executor executor;
+
+        SharedState(int cacheSize, Executor executor) {
+            this.cache = new LruCache<>(cacheSize);
+            this.executor = executor;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Interface to implement by the model classes rendered using type bindings. Elements implementing
+ * it are mapped to the Renderer bound to their type without wrapping them in a
+ * {@link RendererContent}, saving one object per element.
+ */
+public interface TypedContent {
+
+    /**
+     * @return the type bound to the Renderer used to render this element.
+     */
+    int getType();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+/**
+ * Interface to implement by the model classes with a stable identity and a version changing every
+ * time their content changes. RendererAdapter uses them to provide stable item ids and to skip
+ * rendering again elements already shown by one ViewHolder.
+ */
+public interface VersionedContent {
+
+    /**
+     * @return the id of the element, equals for every version of it.
+     */
+    long getId();
+
+    /**
+     * @return the version of the element, it has to change if any value rendered changes.
+     */
+    long getVersion();
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
+
+/**
+ * Sparse store of the view state saved by the Renderers of one RendererAdapter, keyed by the stable
+ * id of the item rendered. The store is Parcelable so it can be saved in onSaveInstanceState and
+ * passed to {@link RendererAdapter#restoreViewState(ViewStateStore)} when the screen is recreated.
+ */
+public final class ViewStateStore implements Parcelable {
+
+    public static final Creator<ViewStateStore> CREATOR = new Creator<ViewStateStore>() {
+        @Override public ViewStateStore createFromParcel(Parcel source) {
+            return new ViewStateStore(source);
+        }
+
+        @Override public ViewStateStore[] newArray(int size) {
+            return new ViewStateStore[size];
+        }
+    };
+
+    private final LongSparseArray<Bundle> states;
+
+    public ViewStateStore() {
+        states = new LongSparseArray<>();
+    }
+
+    private ViewStateStore(Parcel source) {
+        int size = source.readInt();
+        states = new LongSparseArray<>(size);
+        ClassLoader classLoader = ViewStateStore.class.getClassLoader();
+        for (int i = 0; i < size; i++) {
+            long itemId = source.readLong();
+            states.append(itemId, source.readBundle(classLoader));
+        }
+    }
+
+    /**
+     * @param itemId stable id of the item.
+     * @return the state saved for the item, null if there is no state.
+     */
+    @Nullable
+    public Bundle get(long itemId) {
+        return states.get(itemId);
+    }
+
+    /**
+     * Stores the state of one item, removing the previous one if the new state is null.
+     *
+     * @param itemId stable id of the item.
+     * @param state to store.
+     */
+    public void put(long itemId, @Nullable Bundle state) {
+        if (state == null) {
+            states.remove(itemId);
+        } else {
+            states.put(itemId, state);
+        }
+    }
+
+    public void remove(long itemId) {
+        states.remove(itemId);
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    public void clear() {
+        states.clear();
+    }
+
+    /**
+     * Replaces the states stored with the ones of another store.
+     *
+     * @param store to copy.
+     */
+    void replaceWith(ViewStateStore store) {
+        states.clear();
+        for (int i = 0, size = store.states.size(); i < size; i++) {
+            states.append(store.states.keyAt(i), store.states.valueAt(i));
+        }
+    }
+
+    @Override public int describeContents() {
+        return 0;
+    }
+
+    @Override public void writeToParcel(Parcel dest, int flags) {
+        int size = states.size();
+        dest.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            dest.writeLong(states.keyAt(i));
+            dest.writeBundle(states.valueAt(i));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class AggregatingMetricsListenerTest {
+
+    private static final int ANY_VIEW_TYPE = 3;
+    private static final int OTHER_VIEW_TYPE = 5;
+    private static final int ANY_POSITION = 0;
+
+    @Mock private ViewGroup mockedParent;
+    @Mock private RendererBuilder<Object> mockedRendererBuilder;
+    @Mock private RendererMetricsListener mockedListener;
+
+    private ObjectRenderer renderer;
+    private RendererAdapter<Object> adapter;
+    private AggregatingMetricsListener metricsListener;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockedParent.getContext()).thenReturn(RuntimeEnvironment.application);
+        renderer = new ObjectRenderer();
+        renderer.setView(new View(RuntimeEnvironment.application));
+        renderer.onCreate(null, null, mockedParent);
+        RendererViewHolder viewHolder = new RendererViewHolder(renderer);
+        when(mockedRendererBuilder.buildRendererViewHolder()).thenReturn(viewHolder);
+        List<Object> collection = new ArrayList<>();
+        collection.add("content");
+        adapter = new RendererAdapter<>(mockedRendererBuilder, collection);
+        metricsListener = new AggregatingMetricsListener();
+    }
+
+    @Test
+    public void shouldNotifyEveryEventWithTheViewTypeAndTheRendererClass() {
+        adapter.setMetricsListener(mockedListener);
+
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE);
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+        adapter.onViewAttachedToWindow(viewHolder);
+        adapter.onViewDetachedFromWindow(viewHolder);
+        adapter.onViewRecycled(viewHolder);
+
+        verify(mockedListener).onCreate(eq(ANY_VIEW_TYPE), eq(ObjectRenderer.class), anyLong());
+        verify(mockedListener).onBind(eq(ANY_VIEW_TYPE), eq(ObjectRenderer.class), anyLong(), eq(false));
+        verify(mockedListener).onAttach(eq(ANY_VIEW_TYPE), eq(ObjectRenderer.class), anyLong());
+        verify(mockedListener).onDetach(eq(ANY_VIEW_TYPE), eq(ObjectRenderer.class), anyLong());
+        verify(mockedListener).onRecycle(eq(ANY_VIEW_TYPE), eq(ObjectRenderer.class), anyLong());
+    }
+
+    @Test
+    public void shouldNotifyTheBindsOfRecycledViewHoldersAsReused() {
+        adapter.setMetricsListener(mockedListener);
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE);
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+        adapter.onViewRecycled(viewHolder);
+
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+
+        verify(mockedListener).onBind(anyInt(), eq(ObjectRenderer.class), anyLong(), eq(true));
+    }
+
+    @Test
+    public void shouldNotMarkTheViewHoldersAsRecycledWithoutListener() {
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE);
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+        adapter.onViewRecycled(viewHolder);
+        adapter.setMetricsListener(mockedListener);
+
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+
+        verify(mockedListener).onBind(anyInt(), eq(ObjectRenderer.class), anyLong(), eq(false));
+    }
+
+    @Test
+    public void shouldAggregateTheEventsOfEveryViewType() {
+        adapter.setMetricsListener(metricsListener);
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE);
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+        adapter.onViewAttachedToWindow(viewHolder);
+        adapter.onViewDetachedFromWindow(viewHolder);
+        adapter.onViewRecycled(viewHolder);
+
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+
+        AggregatingMetricsListener.ViewTypeMetrics metrics = metricsListener.getMetrics(ANY_VIEW_TYPE);
+        assertSame(ObjectRenderer.class, metrics.getRendererClass());
+        assertEquals(1, metrics.getCreateCount());
+        assertEquals(2, metrics.getBindCount());
+        assertEquals(1, metrics.getReusedBindCount());
+        assertEquals(1, metrics.getRecycleCount());
+        assertEquals(1, metrics.getAttachCount());
+        assertEquals(1, metrics.getDetachCount());
+        assertNull(metricsListener.getMetrics(OTHER_VIEW_TYPE));
+    }
+
+    @Test
+    public void shouldComputeThePoolHitRateOfEveryViewType() {
+        for (int i = 0; i < 3; i++) {
+            metricsListener.onBind(ANY_VIEW_TYPE, ObjectRenderer.class, 1, true);
+        }
+        metricsListener.onCreate(ANY_VIEW_TYPE, ObjectRenderer.class, 1);
+        metricsListener.onCreate(OTHER_VIEW_TYPE, ObjectRenderer.class, 1);
+
+        assertEquals(0.75f, metricsListener.getMetrics(ANY_VIEW_TYPE).getPoolHitRate(), 0);
+        assertEquals(0f, metricsListener.getMetrics(OTHER_VIEW_TYPE).getPoolHitRate(), 0);
+    }
+
+    @Test
+    public void shouldComputeTheBindLatencyPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            metricsListener.onBind(ANY_VIEW_TYPE, ObjectRenderer.class, i * 1000, false);
+        }
+
+        AggregatingMetricsListener.LatencyHistogram latency =
+              metricsListener.getMetrics(ANY_VIEW_TYPE).getBindLatency();
+        assertWithinBucket(50000, latency.getP50Nanos());
+        assertWithinBucket(95000, latency.getP95Nanos());
+        assertWithinBucket(99000, latency.getP99Nanos());
+        assertEquals(0, metricsListener.getMetrics(ANY_VIEW_TYPE).getCreateLatency().getP99Nanos());
+    }
+
+    @Test
+    public void shouldKeepTheExactLatencyOfTheShortestDurations() {
+        metricsListener.onCreate(ANY_VIEW_TYPE, ObjectRenderer.class, 5);
+
+        assertEquals(5, metricsListener.getMetrics(ANY_VIEW_TYPE).getCreateLatency().getP50Nanos());
+    }
+
+    @Test
+    public void shouldReturnTheMetricsSortedByViewType() {
+        metricsListener.onCreate(OTHER_VIEW_TYPE, ObjectRenderer.class, 1);
+        metricsListener.onCreate(ANY_VIEW_TYPE, ObjectRenderer.class, 1);
+
+        List<AggregatingMetricsListener.ViewTypeMetrics> allMetrics = metricsListener.getAllMetrics();
+
+        assertEquals(2, allMetrics.size());
+        assertEquals(ANY_VIEW_TYPE, allMetrics.get(0).getViewType());
+        assertEquals(OTHER_VIEW_TYPE, allMetrics.get(1).getViewType());
+    }
+
+    @Test
+    public void shouldDiscardTheEventsWhenReset() {
+        metricsListener.onCreate(ANY_VIEW_TYPE, ObjectRenderer.class, 1);
+
+        metricsListener.reset();
+
+        assertTrue(metricsListener.getAllMetrics().isEmpty());
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual + " should be at least " + expected, actual >= expected);
+        assertTrue(actual + " should be close to " + expected, actual <= expected + expected / 8);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class ChangeCalculatorTest {
+
+    private static final int TITLE = 1;
+    private static final int LIKES = 1 << 1;
+
+    private RendererAdapter<Object> adapter;
+    private RecordingObserver observer;
+
+    @Before
+    public void setUp() {
+        List<Object> collection = new ArrayList<>();
+        collection.add(new Post("title", 1));
+        collection.add("any string");
+        adapter = new RendererAdapter<>(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder(), collection);
+        adapter.registerChangeCalculator(Post.class, new PostChangeCalculator());
+        observer = new RecordingObserver();
+        adapter.registerAdapterDataObserver(observer);
+    }
+
+    @Test
+    public void shouldNotifyTheFieldsChanged() {
+        adapter.updateAndNotify(0, new Post("title", 2));
+
+        assertEquals(Arrays.<Object>asList(ChangePayload.of(LIKES)), observer.payloads);
+    }
+
+    @Test
+    public void shouldUseTheChangeCalculatorOfTheSuperclass() {
+        adapter.updateAndNotify(0, new Post("other title", 1) { });
+
+        assertEquals(Arrays.<Object>asList(ChangePayload.of(TITLE)), observer.payloads);
+    }
+
+    @Test
+    public void shouldNotNotifyElementsWithoutChanges() {
+        adapter.updateAndNotify(0, new Post("title", 1));
+
+        assertEquals(Collections.emptyList(), observer.payloads);
+    }
+
+    @Test
+    public void shouldNotifyWithoutPayloadTheSameInstanceModifiedInPlace() {
+        Post post = (Post) adapter.getItem(0);
+        post.likes = 2;
+
+        adapter.updateAndNotify(0, post);
+
+        assertEquals(Arrays.asList((Object) null), observer.payloads);
+    }
+
+    @Test
+    public void shouldNotifyWithoutPayloadElementsWithoutChangeCalculator() {
+        adapter.updateAndNotify(1, "other string");
+
+        assertEquals(Arrays.asList((Object) null), observer.payloads);
+    }
+
+    @Test
+    public void shouldNotifyWithoutPayloadElementsOfDifferentClasses() {
+        adapter.updateAndNotify(1, new Post("title", 1));
+
+        assertEquals(Arrays.asList((Object) null), observer.payloads);
+    }
+
+    @Test
+    public void shouldMergeThePayloadMasks() {
+        List<Object> payloads = Arrays.<Object>asList(ChangePayload.of(TITLE), ChangePayload.of(LIKES));
+
+        assertEquals(TITLE | LIKES, ChangePayload.merge(payloads));
+    }
+
+    @Test
+    public void shouldMergeEmptyPayloadsAsAFullRender() {
+        assertEquals(ChangePayload.ALL, ChangePayload.merge(Collections.emptyList()));
+    }
+
+    @Test
+    public void shouldMergeUnknownPayloadsAsAFullRender() {
+        List<Object> payloads = Arrays.asList(ChangePayload.of(TITLE), new Object());
+
+        assertEquals(ChangePayload.ALL, ChangePayload.merge(payloads));
+    }
+
+    private static class Post {
+
+        final String title;
+        int likes;
+
+        Post(String title, int likes) {
+            this.title = title;
+            this.likes = likes;
+        }
+    }
+
+    private static class PostChangeCalculator implements ChangeCalculator<Post> {
+
+        @Override public int computeChanges(Post oldContent, Post newContent) {
+            int changes = 0;
+            if (!oldContent.title.equals(newContent.title)) {
+                changes |= TITLE;
+            }
+            if (oldContent.likes != newContent.likes) {
+                changes |= LIKES;
+            }
+            return changes;
+        }
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+        final List<Object> payloads = new ArrayList<>();
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            payloads.add(payload);
+        }
+    }
+}
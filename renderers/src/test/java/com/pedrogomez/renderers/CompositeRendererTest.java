@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class CompositeRendererTest {
+
+    private static final Object ANY_PAYLOAD = new Object();
+
+    private ViewGroup mockedContainer;
+    private CardRenderer renderer;
+
+    @Before
+    public void setUp() {
+        mockedContainer = mock(ViewGroup.class);
+        renderer = (CardRenderer) new CardRenderer(mockedContainer).copy();
+        renderer.onCreate(null, null, mock(ViewGroup.class));
+    }
+
+    @Test
+    public void shouldAddTheRootViewOfEveryChildToTheContainer() {
+        verify(mockedContainer).addView(renderer.getChild(0).getRootView());
+        verify(mockedContainer).addView(renderer.getChild(1).getRootView());
+    }
+
+    @Test
+    public void shouldRenderEveryChildWithItsSlice() {
+        render(new Card("title", "body"));
+
+        assertEquals(Collections.singletonList("title"), title().rendered);
+        assertEquals(Collections.singletonList("body"), body().rendered);
+    }
+
+    @Test
+    public void shouldRenderAgainEqualSlicesByDefault() {
+        render(new Card("title", "body"));
+
+        render(new Card(new String("title"), "other body"));
+
+        assertEquals(Arrays.asList("title", "title"), title().rendered);
+    }
+
+    @Test
+    public void shouldOnlyRenderTheChildrenWhoseSliceChanged() {
+        renderer.setSkipRenderForEqualSlices(true);
+        render(new Card("title", "body"));
+
+        render(new Card(new String("title"), "other body"));
+
+        assertEquals(Collections.singletonList("title"), title().rendered);
+        assertEquals(Arrays.asList("body", "other body"), body().rendered);
+    }
+
+    @Test
+    public void shouldRenderAgainTheSameSliceInstance() {
+        renderer.setSkipRenderForEqualSlices(true);
+        Card card = new Card("title", "body");
+        render(card);
+
+        render(card);
+
+        assertEquals(Arrays.asList("title", "title"), title().rendered);
+    }
+
+    @Test
+    public void shouldRenderAgainEveryChildAfterBeingRecycled() {
+        renderer.setSkipRenderForEqualSlices(true);
+        render(new Card("title", "body"));
+
+        renderer.onRecycled();
+        render(new Card(new String("title"), new String("body")));
+
+        assertEquals(Arrays.asList("title", "title"), title().rendered);
+        assertEquals(Arrays.asList("body", "body"), body().rendered);
+    }
+
+    @Test
+    public void shouldOnlyCancelTheRenderScopeOfTheChildrenRenderedAgain() {
+        renderer.setSkipRenderForEqualSlices(true);
+        render(new Card("title", "body"));
+        RenderScope.Token titleToken = title().getRenderScope().getToken();
+        RenderScope.Token bodyToken = body().getRenderScope().getToken();
+
+        renderer.cancelRenderScope();
+        render(new Card(new String("title"), "other body"));
+
+        assertFalse(titleToken.isCancelled());
+        assertTrue(bodyToken.isCancelled());
+    }
+
+    @Test
+    public void shouldNotCancelTheRenderScopeOfTheChildrenRenderedWithPayloads() {
+        Card card = new Card("title", "body");
+        render(card);
+        RenderScope.Token titleToken = title().getRenderScope().getToken();
+
+        renderer.render(Collections.singletonList(ANY_PAYLOAD));
+
+        assertFalse(titleToken.isCancelled());
+    }
+
+    @Test
+    public void shouldOnlyRenderAgainNewVersionsOfVersionedSlices() {
+        VersionedRenderer versionedRenderer = (VersionedRenderer) new VersionedRenderer().copy();
+        versionedRenderer.onCreate(null, null, mock(ViewGroup.class));
+        RecordingRenderer child = (RecordingRenderer) versionedRenderer.getChild(0);
+
+        versionedRenderer.setContent(new Item(1, "first"));
+        versionedRenderer.render(Collections.emptyList());
+        versionedRenderer.setContent(new Item(1, "first"));
+        versionedRenderer.render(Collections.emptyList());
+        versionedRenderer.setContent(new Item(2, "second"));
+        versionedRenderer.render(Collections.emptyList());
+
+        assertEquals(Arrays.asList("first", "second"), child.rendered);
+    }
+
+    @Test
+    public void shouldCancelTheRenderScopeOfEveryChildWhenRecycled() {
+        render(new Card("title", "body"));
+        RenderScope.Token titleToken = title().getRenderScope().getToken();
+
+        renderer.onRecycled();
+
+        assertTrue(titleToken.isCancelled());
+    }
+
+    @Test
+    public void shouldRenderEveryChildWhenThereArePayloads() {
+        Card card = new Card("title", "body");
+        render(card);
+
+        renderer.setContent(card);
+        renderer.render(Collections.singletonList(ANY_PAYLOAD));
+
+        assertEquals(Arrays.asList("title", "title"), title().rendered);
+        assertEquals(Collections.singletonList(ANY_PAYLOAD), title().lastPayloads);
+    }
+
+    @Test
+    public void shouldForwardTheLifecycleToTheChildren() {
+        renderer.onAttached();
+        renderer.onDetached();
+        renderer.onRecycled();
+
+        assertEquals(Arrays.asList("attached", "detached", "recycled"), title().events);
+        assertEquals(Arrays.asList("attached", "detached", "recycled"), body().events);
+    }
+
+    @Test
+    public void shouldSaveAndRestoreTheViewStateOfEveryChild() {
+        body().state = "expanded";
+
+        Bundle state = renderer.onSaveViewState();
+        body().state = null;
+        renderer.onRestoreViewState(state);
+
+        assertEquals("expanded", body().state);
+        assertNull(title().state);
+    }
+
+    @Test
+    public void shouldNotSaveAnyStateIfNoChildHasState() {
+        assertNull(renderer.onSaveViewState());
+    }
+
+    @Test
+    public void shouldCopyTheChildren() {
+        CardRenderer copy = (CardRenderer) renderer.copy();
+
+        assertNotSame(renderer.getChild(0), copy.getChild(0));
+        assertEquals(2, copy.getChildCount());
+    }
+
+    private void render(Card card) {
+        renderer.setContent(card);
+        renderer.render(Collections.emptyList());
+    }
+
+    private RecordingRenderer title() {
+        return (RecordingRenderer) renderer.getChild(0);
+    }
+
+    private RecordingRenderer body() {
+        return (RecordingRenderer) renderer.getChild(1);
+    }
+
+    private static class CardRenderer extends CompositeRenderer<Card> {
+
+        private final ViewGroup container;
+
+        CardRenderer(ViewGroup container) {
+            this.container = container;
+            addChild(new RecordingRenderer(), new Slicer<Card, String>() {
+                @Override public String slice(Card content) {
+                    return content.title;
+                }
+            });
+            addChild(new RecordingRenderer(), new Slicer<Card, String>() {
+                @Override public String slice(Card content) {
+                    return content.body;
+                }
+            });
+        }
+
+        @Override protected ViewGroup inflateContainer(LayoutInflater inflater, ViewGroup parent) {
+            return container;
+        }
+    }
+
+    private static class VersionedRenderer extends CompositeRenderer<Item> {
+
+        VersionedRenderer() {
+            addChild(new RecordingRenderer(), new Slicer<Item, Item>() {
+                @Override public Item slice(Item content) {
+                    return content;
+                }
+            });
+        }
+
+        @Override protected ViewGroup inflateContainer(LayoutInflater inflater, ViewGroup parent) {
+            return mock(ViewGroup.class);
+        }
+    }
+
+    private static class RecordingRenderer extends Renderer<Object> {
+
+        private static final String STATE_KEY = "state";
+
+        List<Object> rendered = new ArrayList<>();
+        List<String> events = new ArrayList<>();
+        List<Object> lastPayloads;
+        String state;
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return mock(View.class);
+        }
+
+        @Override public void render(List<Object> payloads) {
+            Object content = getContent();
+            rendered.add(content instanceof Item ? ((Item) content).text : content);
+            lastPayloads = payloads;
+        }
+
+        @Override public void onAttached() {
+            events.add("attached");
+        }
+
+        @Override public void onDetached() {
+            events.add("detached");
+        }
+
+        @Override public void onRecycled() {
+            events.add("recycled");
+        }
+
+        @Override protected Bundle onSaveViewState() {
+            if (state == null) {
+                return null;
+            }
+            Bundle bundle = new Bundle();
+            bundle.putString(STATE_KEY, state);
+            return bundle;
+        }
+
+        @Override protected void onRestoreViewState(Bundle bundle) {
+            state = bundle != null ? bundle.getString(STATE_KEY) : null;
+        }
+
+        @Override Renderer<Object> copy() {
+            RecordingRenderer copy = (RecordingRenderer) super.copy();
+            copy.rendered = new ArrayList<>();
+            copy.events = new ArrayList<>();
+            return copy;
+        }
+    }
+
+    private static class Item implements VersionedContent {
+
+        final long version;
+        final String text;
+
+        Item(long version, String text) {
+            this.version = version;
+            this.text = text;
+        }
+
+        @Override public long getId() {
+            return 0;
+        }
+
+        @Override public long getVersion() {
+            return version;
+        }
+    }
+
+    private static class Card {
+
+        final String title;
+        final String body;
+
+        Card(String title, String body) {
+            this.title = title;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class ConcatRendererAdapterTest {
+
+    @Mock private ViewGroup mockedParent;
+    @Mock private RendererViewHolder mockedRendererViewHolder;
+    @Mock private ObjectRenderer mockedRenderer;
+
+    private RendererBuilder sharedRendererBuilder;
+    private RendererAdapter<Object> header;
+    private RendererAdapter<Object> empty;
+    private RendererAdapter<Object> feed;
+    private RendererAdapter<Object> footer;
+    private ConcatRendererAdapter adapter;
+    private RecordingObserver observer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        sharedRendererBuilder = RendererBuilder.create()
+              .bind(String.class, new ObjectRenderer())
+              .bind(Integer.class, new SubObjectRenderer())
+              .getRendererBuilder();
+        header = new RendererAdapter<>(sharedRendererBuilder, new ArrayList<>(Arrays.asList("header")));
+        empty = new RendererAdapter<>(sharedRendererBuilder);
+        feed = spy(new RendererAdapter<>(sharedRendererBuilder, new ArrayList<>(Arrays.asList(1, "two", 3))));
+        footer = new RendererAdapter<>(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder(),
+              new ArrayList<>(Arrays.asList("footer")));
+        adapter = new ConcatRendererAdapter(header, empty, feed, footer);
+        observer = new RecordingObserver();
+        adapter.registerAdapterDataObserver(observer);
+    }
+
+    @Test
+    public void shouldReturnTheSumOfTheChildItemCounts() {
+        assertEquals(5, adapter.getItemCount());
+    }
+
+    @Test
+    public void shouldMapGlobalPositionsToChildAdapters() {
+        assertSame(header, adapter.getAdapterForPosition(0));
+        assertSame(feed, adapter.getAdapterForPosition(1));
+        assertEquals(0, adapter.getLocalPosition(1));
+        assertSame(feed, adapter.getAdapterForPosition(3));
+        assertEquals(2, adapter.getLocalPosition(3));
+        assertSame(footer, adapter.getAdapterForPosition(4));
+        assertEquals(0, adapter.getLocalPosition(4));
+    }
+
+    @Test
+    public void shouldShareViewTypesBetweenAdaptersWithTheSameRendererBuilder() {
+        assertEquals(adapter.getItemViewType(0), adapter.getItemViewType(2));
+        assertEquals(adapter.getItemViewType(1), adapter.getItemViewType(3));
+        assertNotEquals(adapter.getItemViewType(0), adapter.getItemViewType(1));
+        assertNotEquals(adapter.getItemViewType(0), adapter.getItemViewType(4));
+    }
+
+    @Test
+    public void shouldCreateViewHoldersUsingTheChildViewType() {
+        int viewType = adapter.getItemViewType(1);
+        doReturn(mockedRendererViewHolder).when(feed).onCreateViewHolder(mockedParent, 1);
+
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, viewType);
+
+        assertSame(mockedRendererViewHolder, viewHolder);
+    }
+
+    @Test
+    public void shouldBindViewHoldersUsingTheLocalPosition() {
+        when(mockedRendererViewHolder.getRenderer()).thenReturn(mockedRenderer);
+
+        adapter.onBindViewHolder(mockedRendererViewHolder, 2, Collections.emptyList());
+
+        verify(feed).onBindViewHolder(mockedRendererViewHolder, 1, Collections.emptyList());
+        verify(mockedRenderer).setContent("two");
+    }
+
+    @Test
+    public void shouldTranslateChildNotifications() {
+        feed.addAllAndNotify(1, Arrays.asList("a", "b"));
+        feed.removeAtAndNotify(0);
+        empty.addAllAndNotify(Arrays.asList("c"));
+
+        assertEquals(Arrays.asList("inserted 2 2", "removed 1 1", "inserted 1 1"), observer.events);
+        assertSame(empty, adapter.getAdapterForPosition(1));
+        assertSame(feed, adapter.getAdapterForPosition(2));
+        assertSame(footer, adapter.getAdapterForPosition(6));
+    }
+
+    @Test
+    public void shouldNotifyAddedAndRemovedAdapters() {
+        adapter.removeAdapter(feed);
+        adapter.addAdapter(0, feed);
+
+        assertEquals(Arrays.asList("removed 1 3", "inserted 0 3"), observer.events);
+        assertSame(header, adapter.getAdapterForPosition(3));
+    }
+
+    @Test
+    public void shouldNamespaceTheItemIdsOfEveryChild() {
+        assertNotEquals(adapter.getItemId(0), adapter.getItemId(4));
+        assertNotEquals(adapter.getItemId(0), adapter.getItemId(1));
+    }
+
+    @Test
+    public void shouldKeepTheItemIdsWhenOtherChildrenChange() {
+        long itemId = adapter.getItemId(2);
+
+        header.addAllAndNotify(Arrays.asList("other header"));
+
+        assertEquals(itemId, adapter.getItemId(3));
+    }
+
+    @Test
+    public void shouldHaveStableIdsOnlyIfEveryChildHasThem() {
+        RendererAdapter<Object> stable = givenAnAdapterWithStableIds();
+        RendererAdapter<Object> otherStable = givenAnAdapterWithStableIds();
+
+        assertTrue(new ConcatRendererAdapter(stable, otherStable).hasStableIds());
+        assertFalse(new ConcatRendererAdapter(stable, header).hasStableIds());
+        assertFalse(adapter.hasStableIds());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAcceptChildrenWithoutStableIdsOnceObservedWithStableIds() {
+        ConcatRendererAdapter stableAdapter = new ConcatRendererAdapter(givenAnAdapterWithStableIds());
+        stableAdapter.registerAdapterDataObserver(observer);
+
+        stableAdapter.addAdapter(header);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotCreateViewHoldersUsingRemovedAdapters() {
+        int viewType = adapter.getItemViewType(4);
+
+        adapter.removeAdapter(footer);
+
+        adapter.onCreateViewHolder(mockedParent, viewType);
+    }
+
+    @Test
+    public void shouldMoveTheViewTypesOfRemovedAdaptersToChildrenWithTheSameRendererBuilder() {
+        RendererAdapter<Object> other = spy(new RendererAdapter<>(sharedRendererBuilder,
+              new ArrayList<>(Arrays.asList(4))));
+        adapter.addAdapter(other);
+        int viewType = adapter.getItemViewType(1);
+        doReturn(mockedRendererViewHolder).when(other).onCreateViewHolder(mockedParent, 1);
+        adapter.removeAdapter(header);
+        adapter.removeAdapter(empty);
+
+        adapter.removeAdapter(feed);
+
+        assertSame(mockedRendererViewHolder, adapter.onCreateViewHolder(mockedParent, viewType));
+        assertEquals(viewType, adapter.getItemViewType(adapter.getAdapterOffset(other)));
+    }
+
+    private RendererAdapter<Object> givenAnAdapterWithStableIds() {
+        RendererAdapter<Object> stableAdapter = new RendererAdapter<>(sharedRendererBuilder,
+              new ArrayList<>(Arrays.asList("stable")));
+        stableAdapter.setHasStableIds(true);
+        return stableAdapter;
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override public void onItemRangeInserted(int positionStart, int itemCount) {
+            events.add("inserted " + positionStart + " " + itemCount);
+        }
+
+        @Override public void onItemRangeRemoved(int positionStart, int itemCount) {
+            events.add("removed " + positionStart + " " + itemCount);
+        }
+    }
+}
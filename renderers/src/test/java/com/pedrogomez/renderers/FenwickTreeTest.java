@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FenwickTreeTest {
+
+    private static final int[] ANY_COUNTS = {3, 0, 1, 5, 2, 0, 4};
+
+    private FenwickTree tree;
+
+    @Before
+    public void setUp() {
+        tree = new FenwickTree();
+        for (int count : ANY_COUNTS) {
+            tree.add(count);
+        }
+    }
+
+    @Test
+    public void shouldReturnTheSumOfEveryCount() {
+        assertEquals(15, tree.total());
+    }
+
+    @Test
+    public void shouldReturnPrefixSums() {
+        int sum = 0;
+        for (int i = 0; i < ANY_COUNTS.length; i++) {
+            assertEquals(sum, tree.prefixSum(i));
+            sum += ANY_COUNTS[i];
+        }
+    }
+
+    @Test
+    public void shouldFindTheIndexContainingEveryPosition() {
+        int position = 0;
+        for (int i = 0; i < ANY_COUNTS.length; i++) {
+            for (int j = 0; j < ANY_COUNTS[i]; j++) {
+                assertEquals(i, tree.indexOf(position++));
+            }
+        }
+    }
+
+    @Test
+    public void shouldUpdateOneCount() {
+        tree.set(1, 2);
+
+        assertEquals(17, tree.total());
+        assertEquals(1, tree.indexOf(4));
+        assertEquals(2, tree.indexOf(5));
+    }
+
+    @Test
+    public void shouldInsertAndRemoveCountsInTheMiddle() {
+        tree.insert(2, 10);
+
+        assertEquals(25, tree.total());
+        assertEquals(2, tree.indexOf(3));
+        assertEquals(3, tree.indexOf(13));
+
+        tree.remove(2);
+
+        assertEquals(15, tree.total());
+        assertEquals(2, tree.indexOf(3));
+    }
+
+    @Test
+    public void shouldGrowWhenManyCountsAreAdded() {
+        for (int i = 0; i < 100; i++) {
+            tree.add(1);
+        }
+
+        assertEquals(115, tree.total());
+        assertEquals(ANY_COUNTS.length + 50, tree.indexOf(65));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotFindPositionsOutOfRange() {
+        tree.indexOf(15);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class FilterableRendererAdapterTest {
+
+    private static final List<String> ANY_SOURCE = Arrays.asList("ant", "bee", "cat", "cow", "dog", "owl");
+    private static final Executor SAME_THREAD = new Executor() {
+        @Override public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private RecordingFilter filter;
+    private RecordingObserver observer;
+    private FilterableRendererAdapter<String> adapter;
+
+    @Before
+    public void setUp() {
+        filter = new RecordingFilter();
+        observer = new RecordingObserver();
+        RendererBuilder rendererBuilder = RendererBuilder.create(new ObjectRenderer()).getRendererBuilder();
+        adapter = new FilterableRendererAdapter<>(rendererBuilder, ANY_SOURCE, filter, SAME_THREAD, SAME_THREAD, 2);
+        adapter.registerAdapterDataObserver(observer);
+    }
+
+    @Test
+    public void shouldShowEveryElementBeforeFiltering() {
+        assertEquals(ANY_SOURCE, adapter.getCollection());
+    }
+
+    @Test
+    public void shouldShowOnlyMatchingElements() {
+        adapter.filter("o");
+
+        assertEquals(Arrays.asList("cow", "dog", "owl"), adapter.getCollection());
+    }
+
+    @Test
+    public void shouldNotifyRemovedRangesOnly() {
+        adapter.filter("o");
+
+        assertEquals(Arrays.asList("removed 0 3"), observer.events);
+    }
+
+    @Test
+    public void shouldNotifyInsertedRangesWhenTheFilterIsCleared() {
+        adapter.filter("ow");
+        observer.events.clear();
+
+        adapter.clearFilter();
+
+        assertEquals(Arrays.asList("inserted 0 3", "inserted 4 1"), observer.events);
+        assertEquals(ANY_SOURCE, adapter.getCollection());
+    }
+
+    @Test
+    public void shouldOnlyEvaluatePreviousMatchesWhenTheQueryIsNarrowed() {
+        adapter.filter("o");
+        filter.evaluated.clear();
+
+        adapter.filter("ow");
+
+        assertEquals(Arrays.asList("cow", "dog", "owl"), filter.evaluated);
+        assertEquals(Arrays.asList("cow", "owl"), adapter.getCollection());
+    }
+
+    @Test
+    public void shouldEvaluateEveryElementWhenTheQueryIsNotNarrowed() {
+        adapter.filter("ow");
+        filter.evaluated.clear();
+
+        adapter.filter("o");
+
+        assertEquals(ANY_SOURCE.size(), filter.evaluated.size());
+        assertEquals(Arrays.asList("cow", "dog", "owl"), adapter.getCollection());
+    }
+
+    @Test
+    public void shouldDiscardResultsOfPreviousQueries() {
+        DeferredExecutor workers = new DeferredExecutor();
+        adapter = new FilterableRendererAdapter<>(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder(),
+              ANY_SOURCE, filter, workers, SAME_THREAD, 1);
+
+        adapter.filter("a");
+        adapter.filter("d");
+        workers.runAll();
+
+        assertEquals(Arrays.asList("dog"), adapter.getCollection());
+    }
+
+    @Test
+    public void shouldReplaceTheVisibleElementsWhenTheSourceChanges() {
+        adapter.filter("o");
+        observer.events.clear();
+
+        adapter.setSource(Arrays.asList("fox", "yak"));
+
+        assertEquals(Arrays.asList("fox"), adapter.getCollection());
+        assertEquals(Arrays.asList("changed"), observer.events);
+    }
+
+    @Test
+    public void shouldApplyTheInheritedMutationsToTheSource() {
+        adapter.filter("o");
+
+        adapter.removeAtAndNotify(1);
+        adapter.addAndNotify(0, "bat");
+        adapter.updateAndNotify(2, "cod", null);
+        adapter.clearFilter();
+
+        assertEquals(Arrays.asList("ant", "bee", "cat", "bat", "cow", "cod"), adapter.getCollection());
+        assertEquals(6, adapter.getSourceCount());
+    }
+
+    @Test
+    public void shouldNotifyTheNextFilterPassAgainstTheMutatedCollection() {
+        adapter.filter("o");
+        adapter.removeAtAndNotify(0);
+        observer.events.clear();
+
+        adapter.filter("ow");
+
+        assertEquals(Arrays.asList("removed 0 1"), observer.events);
+        assertEquals(Arrays.asList("owl"), adapter.getCollection());
+    }
+
+    @Test
+    public void shouldRemoveTheElementsClearedFromTheSource() {
+        adapter.filter("o");
+
+        adapter.clearAndNotify();
+        adapter.clearFilter();
+
+        assertEquals(Arrays.asList("ant", "bee", "cat"), adapter.getCollection());
+    }
+
+    @Test
+    public void shouldStartAgainTheFilterPassInProgressWhenTheCollectionIsMutated() {
+        DeferredExecutor workers = new DeferredExecutor();
+        adapter = new FilterableRendererAdapter<>(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder(),
+              ANY_SOURCE, filter, workers, SAME_THREAD, 1);
+
+        adapter.filter("o");
+        adapter.removeAt(0);
+        workers.runAll();
+
+        assertEquals(Arrays.asList("cow", "dog", "owl"), adapter.getCollection());
+    }
+
+    @Test
+    public void shouldReportTheFilterErrorsAndKeepTheLastResult() {
+        adapter.filter("o");
+        observer.events.clear();
+
+        adapter.filter(RecordingFilter.FAILING_QUERY);
+
+        assertEquals(RecordingFilter.FAILING_QUERY, filter.failedQuery);
+        assertEquals(Arrays.asList("cow", "dog", "owl"), adapter.getCollection());
+        assertEquals("o", adapter.getQuery().toString());
+        assertEquals(0, observer.events.size());
+    }
+
+    private static class RecordingFilter extends ContentFilter<String> {
+
+        static final String FAILING_QUERY = "fail";
+
+        final List<String> evaluated = new ArrayList<>();
+        CharSequence failedQuery;
+
+        @Override public boolean matches(String content, CharSequence query) {
+            if (FAILING_QUERY.contentEquals(query)) {
+                throw new IllegalStateException("Filter error");
+            }
+            evaluated.add(content);
+            return content.contains(query);
+        }
+
+        @Override public void onError(CharSequence query, RuntimeException error) {
+            failedQuery = query;
+        }
+    }
+
+    private static class DeferredExecutor implements Executor {
+
+        private final List<Runnable> commands = new ArrayList<>();
+
+        @Override public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        void runAll() {
+            for (Runnable command : commands) {
+                command.run();
+            }
+            commands.clear();
+        }
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override public void onChanged() {
+            events.add("changed");
+        }
+
+        @Override public void onItemRangeInserted(int positionStart, int itemCount) {
+            events.add("inserted " + positionStart + " " + itemCount);
+        }
+
+        @Override public void onItemRangeRemoved(int positionStart, int itemCount) {
+            events.add("removed " + positionStart + " " + itemCount);
+        }
+    }
+}
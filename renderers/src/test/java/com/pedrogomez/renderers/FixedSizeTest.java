@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class FixedSizeTest {
+
+    private static final int ANY_WIDTH = 320;
+    private static final int ANY_HEIGHT = 48;
+
+    @Mock private ViewGroup mockedParent;
+    @Mock private RendererBuilder<Object> mockedRendererBuilder;
+    @Mock private ObjectRenderer mockedRenderer;
+
+    private View rootView;
+    private RendererAdapter<Object> adapter;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockedParent.getContext()).thenReturn(RuntimeEnvironment.application);
+        rootView = new View(RuntimeEnvironment.application);
+        when(mockedRenderer.getRootView()).thenReturn(rootView);
+        RendererViewHolder viewHolder = new RendererViewHolder(mockedRenderer);
+        when(mockedRendererBuilder.buildRendererViewHolder()).thenReturn(viewHolder);
+        adapter = new RendererAdapter<>(mockedRendererBuilder, new ArrayList<>());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptSizesWithoutAnyDimension() {
+        FixedSize.of(0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptNegativeSizes() {
+        FixedSize.height(-1);
+    }
+
+    @Test
+    public void shouldOnlyFixTheDimensionsPassed() {
+        FixedSize fixedSize = FixedSize.height(ANY_HEIGHT);
+
+        assertEquals(FixedSize.NOT_FIXED, fixedSize.getWidth());
+        assertEquals(ANY_HEIGHT, fixedSize.getHeight());
+    }
+
+    @Test
+    public void shouldStoreTheFixedSizeOfTheViewTypeBound() {
+        RendererAdapter<Object> adapter = RendererBuilder.create()
+              .bind(String.class, new ObjectRenderer())
+              .bind(Integer.class, new ObjectRenderer(), FixedSize.height(ANY_HEIGHT))
+              .build();
+
+        assertNull(adapter.getFixedSize(0));
+        assertEquals(FixedSize.height(ANY_HEIGHT), adapter.getFixedSize(1));
+    }
+
+    @Test
+    public void shouldStoreTheFixedSizeOfTheTypeBound() {
+        RendererAdapter<Object> adapter = RendererBuilder.create()
+              .bind(1, new ObjectRendererContentRenderer(), FixedSize.width(ANY_WIDTH))
+              .build();
+
+        assertEquals(FixedSize.width(ANY_WIDTH), adapter.getFixedSize(0));
+    }
+
+    @Test
+    public void shouldStoreTheFixedSizeOfTheOnlyPrototype() {
+        RendererAdapter<Object> adapter = RendererBuilder.create(new ObjectRenderer(), FixedSize.height(ANY_HEIGHT))
+              .build();
+
+        assertEquals(FixedSize.height(ANY_HEIGHT), adapter.getFixedSize(0));
+    }
+
+    @Test
+    public void shouldApplyTheFixedSizeToTheRootViewsCreated() {
+        rootView.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+              ViewGroup.LayoutParams.WRAP_CONTENT));
+        when(mockedRendererBuilder.getFixedSize(0)).thenReturn(FixedSize.height(ANY_HEIGHT));
+
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, 0);
+
+        assertEquals(ViewGroup.LayoutParams.MATCH_PARENT, rootView.getLayoutParams().width);
+        assertEquals(ANY_HEIGHT, rootView.getLayoutParams().height);
+        assertEquals(FixedSize.height(ANY_HEIGHT), viewHolder.getFixedSize());
+    }
+
+    @Test
+    public void shouldCreateLayoutParamsForRootViewsWithoutThem() {
+        when(mockedRendererBuilder.getFixedSize(0)).thenReturn(FixedSize.of(ANY_WIDTH, ANY_HEIGHT));
+
+        adapter.onCreateViewHolder(mockedParent, 0);
+
+        assertEquals(ANY_WIDTH, rootView.getLayoutParams().width);
+        assertEquals(ANY_HEIGHT, rootView.getLayoutParams().height);
+    }
+
+    @Test
+    public void shouldNotModifyTheRootViewsOfViewTypesWithoutFixedSize() {
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, 0);
+
+        assertNull(rootView.getLayoutParams());
+        assertNull(viewHolder.getFixedSize());
+    }
+}
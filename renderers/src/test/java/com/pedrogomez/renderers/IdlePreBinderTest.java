@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class IdlePreBinderTest {
+
+    private List<Integer> rendered;
+    private RendererAdapter<Object> adapter;
+    private IdlePreBinder preBinder;
+
+    @Before
+    public void setUp() {
+        rendered = new ArrayList<>();
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+        adapter = spy(RendererBuilder.create(new CountingRenderer(rendered)).buildWith(items));
+        doAnswer(new Answer<RendererViewHolder>() {
+            @Override public RendererViewHolder answer(InvocationOnMock invocation) throws Throwable {
+                CountingRenderer renderer = new CountingRenderer(rendered);
+                renderer.onCreate(null, null, mock(ViewGroup.class));
+                return new RendererViewHolder(renderer);
+            }
+        }).when(adapter).onCreateViewHolder(any(ViewGroup.class), anyInt());
+        preBinder = new IdlePreBinder(adapter, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptAnEmptyRange() {
+        new IdlePreBinder(adapter, 0);
+    }
+
+    @Test
+    public void shouldPreBindOnePositionAfterTheVisibleOnesEveryTime() {
+        assertTrue(preBinder.preBindNext(0, 3, true));
+        assertTrue(preBinder.preBindNext(0, 3, true));
+        assertFalse(preBinder.preBindNext(0, 3, true));
+
+        assertEquals(Arrays.asList(4, 5), rendered);
+        assertEquals(2, preBinder.getPreBoundCount());
+    }
+
+    @Test
+    public void shouldPreBindThePositionsBeforeTheVisibleOnesScrollingBackward() {
+        preBinder.preBindNext(10, 13, false);
+        preBinder.preBindNext(10, 13, false);
+
+        assertEquals(Arrays.asList(9, 8), rendered);
+    }
+
+    @Test
+    public void shouldNotPreBindPositionsOutOfTheAdapter() {
+        assertTrue(preBinder.preBindNext(95, 98, true));
+        assertFalse(preBinder.preBindNext(95, 98, true));
+
+        assertEquals(Collections.singletonList(99), rendered);
+    }
+
+    @Test
+    public void shouldReturnThePreBoundViewHolderForTheRequestedPosition() {
+        preBinder.preBindNext(0, 3, true);
+        int viewType = adapter.getItemViewType(4);
+
+        preBinder.positionTracker.getViewForPositionAndType(null, 4, viewType);
+        RecyclerView.ViewHolder viewHolder = preBinder.pool.getRecycledView(viewType);
+
+        assertEquals(4, ((RendererViewHolder) viewHolder).getRenderer().getContent());
+        assertEquals(0, preBinder.getPreBoundCount());
+    }
+
+    @Test
+    public void shouldNotReturnThePreBoundViewHolderForOtherPositions() {
+        preBinder.preBindNext(0, 3, true);
+        int viewType = adapter.getItemViewType(4);
+
+        preBinder.positionTracker.getViewForPositionAndType(null, 5, viewType);
+        RecyclerView.ViewHolder viewHolder = preBinder.pool.getRecycledView(viewType);
+
+        assertNull(viewHolder);
+        assertEquals(1, preBinder.getPreBoundCount());
+    }
+
+    @Test
+    public void shouldNotRenderAgainThePreBoundViewHolderWhenTheRecyclerViewBindsIt() {
+        preBinder.preBindNext(0, 3, true);
+        int viewType = adapter.getItemViewType(4);
+        preBinder.positionTracker.getViewForPositionAndType(null, 4, viewType);
+        RendererViewHolder viewHolder = (RendererViewHolder) preBinder.pool.getRecycledView(viewType);
+
+        adapter.onBindViewHolder(viewHolder, 4);
+
+        assertEquals(Collections.singletonList(4), rendered);
+    }
+
+    @Test
+    public void shouldRenderThePreBoundViewHolderBoundToAnotherPosition() {
+        preBinder.preBindNext(0, 3, true);
+        int viewType = adapter.getItemViewType(4);
+        preBinder.positionTracker.getViewForPositionAndType(null, 4, viewType);
+        RendererViewHolder viewHolder = (RendererViewHolder) preBinder.pool.getRecycledView(viewType);
+
+        adapter.onBindViewHolder(viewHolder, 6);
+
+        assertEquals(Arrays.asList(4, 6), rendered);
+    }
+
+    @Test
+    public void shouldReleaseThePreBoundViewHoldersOutOfTheNextPositions() {
+        preBinder.preBindNext(0, 3, true);
+        preBinder.preBindNext(0, 3, true);
+
+        preBinder.preBindNext(5, 8, true);
+
+        assertEquals(1, preBinder.getPreBoundCount());
+        assertEquals(Arrays.asList(4, 5, 9), rendered);
+    }
+
+    @Test
+    public void shouldReleaseThePreBoundViewHoldersWhenThePoolIsCleared() {
+        preBinder.preBindNext(0, 3, true);
+
+        preBinder.pool.clear();
+
+        assertEquals(0, preBinder.getPreBoundCount());
+    }
+
+    private static class CountingRenderer extends Renderer<Integer> {
+
+        private final List<Integer> rendered;
+
+        CountingRenderer(List<Integer> rendered) {
+            this.rendered = rendered;
+        }
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return new View(RuntimeEnvironment.application);
+        }
+
+        @Override public void render(List<Object> payloads) {
+            rendered.add(getContent());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class LookaheadPrefetcherTest {
+
+    private static final int ANY_WIDTH = 300;
+
+    private Context context;
+    private PrefetchingRenderer prototype;
+    private RendererAdapter<Object> adapter;
+    private LookaheadPrefetcher prefetcher;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.application;
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+        items.set(7, "not prefetched");
+        prototype = new PrefetchingRenderer();
+        adapter = RendererBuilder.create()
+              .bind(Integer.class, prototype)
+              .bind(String.class, new ObjectRenderer())
+              .buildWith(items);
+        prefetcher = new LookaheadPrefetcher(adapter, 2, 10);
+    }
+
+    @Test
+    public void shouldPrefetchTheItemsAfterTheVisibleOnesScrollingForward() {
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.asList(4, 5), prototype.prefetched);
+    }
+
+    @Test
+    public void shouldPrefetchTheItemsBeforeTheVisibleOnesScrollingBackward() {
+        prefetcher.update(context, 10, 13, false, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.asList(9, 8), prototype.prefetched);
+    }
+
+    @Test
+    public void shouldOnlyCallPrototypesImplementingPrefetcher() {
+        prefetcher.update(context, 2, 5, true, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.asList(6), prototype.prefetched);
+    }
+
+    @Test
+    public void shouldNotPrefetchTheSameItemTwice() {
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+        prefetcher.update(context, 1, 4, true, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.asList(4, 5, 6), prototype.prefetched);
+        assertEquals(0, prototype.cancelled.size());
+    }
+
+    @Test
+    public void shouldCancelTheItemsNotShownWhenTheDirectionChanges() {
+        prefetcher.update(context, 10, 13, true, ANY_WIDTH, 0);
+        prefetcher.update(context, 10, 13, false, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.asList(15, 14), prototype.cancelled);
+        assertEquals(Arrays.asList(14, 15, 9, 8), prototype.prefetched);
+    }
+
+    @Test
+    public void shouldPrefetchFurtherWhenScrollingFast() {
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+        prefetcher.update(context, 20, 23, true, ANY_WIDTH, 250);
+
+        assertEquals(10, prefetcher.getCurrentDistance());
+    }
+
+    @Test
+    public void shouldCancelThePendingItemsWhenDetached() {
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+
+        prefetcher.detach(mock(RecyclerView.class));
+
+        assertEquals(2, prototype.cancelled.size());
+    }
+
+    @Test
+    public void shouldPrefetchTheDefaultDistanceOnceTheScrollStops() {
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+        prefetcher.update(context, 20, 23, true, ANY_WIDTH, 250);
+
+        prefetcher.onScrollStateChanged(mock(RecyclerView.class), RecyclerView.SCROLL_STATE_IDLE);
+
+        assertEquals(2, prefetcher.getCurrentDistance());
+    }
+
+    @Test
+    public void shouldCancelThePendingItemsWhenTheAdapterIsModified() {
+        prefetcher.attach(mock(RecyclerView.class));
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+
+        adapter.removeAtAndNotify(0);
+
+        assertEquals(Arrays.asList(5, 4), prototype.cancelled);
+    }
+
+    @Test
+    public void shouldCancelThePendingItemsChanged() {
+        prefetcher.attach(mock(RecyclerView.class));
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+
+        adapter.updateAndNotify(5, 50);
+
+        assertEquals(Arrays.asList(5), prototype.cancelled);
+    }
+
+    @Test
+    public void shouldKeepThePendingItemsMovedWhenTheAdapterHasStableIds() {
+        adapter.setHasStableIds(true);
+        prefetcher.attach(mock(RecyclerView.class));
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+
+        adapter.removeAtAndNotify(0);
+
+        assertEquals(0, prototype.cancelled.size());
+    }
+
+    @Test
+    public void shouldStopObservingTheAdapterWhenDetached() {
+        RecyclerView recyclerView = mock(RecyclerView.class);
+        prefetcher.attach(recyclerView);
+        prefetcher.update(context, 0, 3, true, ANY_WIDTH, 0);
+        prefetcher.detach(recyclerView);
+        prototype.cancelled.clear();
+
+        adapter.removeAtAndNotify(0);
+
+        assertEquals(0, prototype.cancelled.size());
+    }
+
+    private static class PrefetchingRenderer extends Renderer<Integer> implements Prefetcher<Integer> {
+
+        final List<Integer> prefetched = new ArrayList<>();
+        final List<Integer> cancelled = new ArrayList<>();
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return null;
+        }
+
+        @Override public void render(List<Object> payloads) { }
+
+        @Override public void prefetch(Context context, Integer content, long itemId) {
+            prefetched.add(content);
+        }
+
+        @Override public void cancel(Context context, Integer content, long itemId) {
+            cancelled.add(content);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.View;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class MeasureCacheTest {
+
+    private static final long ANY_ID = 42;
+    private static final int ANY_SPEC = 1080;
+    private static final int ANY_OTHER_SPEC = 1920;
+    private static final int ANY_HEIGHT = 240;
+
+    private MeasureCache measureCache;
+
+    @Before
+    public void setUp() {
+        measureCache = new MeasureCache(2);
+    }
+
+    @Test
+    public void shouldReturnTheSizeStoredForTheSameVersionAndSpace() {
+        measureCache.put(ANY_ID, 1, ANY_SPEC, ANY_HEIGHT);
+
+        assertEquals(ANY_HEIGHT, measureCache.get(ANY_ID, 1, ANY_SPEC));
+    }
+
+    @Test
+    public void shouldNotReturnTheSizeOfOtherVersions() {
+        measureCache.put(ANY_ID, 1, ANY_SPEC, ANY_HEIGHT);
+
+        assertEquals(MeasureCache.NOT_CACHED, measureCache.get(ANY_ID, 2, ANY_SPEC));
+    }
+
+    @Test
+    public void shouldKeepTheSizesOfEverySpaceAvailable() {
+        measureCache.put(ANY_ID, 1, ANY_SPEC, ANY_HEIGHT);
+        measureCache.put(ANY_ID, 1, ANY_OTHER_SPEC, ANY_HEIGHT / 2);
+
+        assertEquals(ANY_HEIGHT, measureCache.get(ANY_ID, 1, ANY_SPEC));
+        assertEquals(ANY_HEIGHT / 2, measureCache.get(ANY_ID, 1, ANY_OTHER_SPEC));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedSizes() {
+        measureCache.put(1, 1, ANY_SPEC, ANY_HEIGHT);
+        measureCache.put(2, 1, ANY_SPEC, ANY_HEIGHT);
+        measureCache.get(1, 1, ANY_SPEC);
+
+        measureCache.put(3, 1, ANY_SPEC, ANY_HEIGHT);
+
+        assertEquals(ANY_HEIGHT, measureCache.get(1, 1, ANY_SPEC));
+        assertEquals(MeasureCache.NOT_CACHED, measureCache.get(2, 1, ANY_SPEC));
+    }
+
+    @Test
+    public void shouldRemoveEverySizeWhenCleared() {
+        measureCache.put(ANY_ID, 1, ANY_SPEC, ANY_HEIGHT);
+
+        measureCache.clear();
+
+        assertEquals(0, measureCache.size());
+    }
+
+    @Test
+    public void shouldRememberTheItemVersionMeasuredByEveryViewHolder() {
+        ObjectRenderer renderer = mock(ObjectRenderer.class);
+        when(renderer.getRootView()).thenReturn(mock(View.class));
+        RendererViewHolder viewHolder = new RendererViewHolder(renderer);
+
+        viewHolder.setMeasuredFor(ANY_ID, 1, ANY_SPEC);
+
+        assertTrue(viewHolder.isMeasuredFor(ANY_ID, 1, ANY_SPEC));
+        assertFalse(viewHolder.isMeasuredFor(ANY_ID, 2, ANY_SPEC));
+        assertFalse(viewHolder.isMeasuredFor(ANY_ID, 1, ANY_OTHER_SPEC));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.ComponentCallbacks2;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class MemoryTrimmerTest {
+
+    private static final int ANY_VIEW_TYPE = 3;
+    private static final int ANY_MAX = 8;
+
+    private MemoryTrimmer trimmer;
+
+    @Before
+    public void setUp() {
+        trimmer = new MemoryTrimmer();
+    }
+
+    @Test
+    public void shouldForwardTheTrimLevelToEveryTrimmable() {
+        Trimmable first = mock(Trimmable.class);
+        Trimmable second = mock(Trimmable.class);
+        trimmer.add(first);
+        trimmer.add(second);
+
+        trimmer.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+        verify(first).onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        verify(second).onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+    }
+
+    @Test
+    public void shouldNotForwardTheTrimLevelToTheTrimmablesRemoved() {
+        Trimmable trimmable = mock(Trimmable.class);
+        trimmer.add(trimmable);
+        trimmer.remove(trimmable);
+
+        trimmer.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        verify(trimmable, never()).onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    @Test
+    public void shouldKeepLessContentTheHigherTheTrimLevel() {
+        assertEquals(6, MemoryTrimmer.getRetainedCount(ANY_MAX, ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE));
+        assertEquals(4, MemoryTrimmer.getRetainedCount(ANY_MAX, ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW));
+        assertEquals(2, MemoryTrimmer.getRetainedCount(ANY_MAX, ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL));
+        assertEquals(2, MemoryTrimmer.getRetainedCount(ANY_MAX, ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN));
+        assertEquals(2, MemoryTrimmer.getRetainedCount(ANY_MAX, ComponentCallbacks2.TRIM_MEMORY_BACKGROUND));
+        assertEquals(0, MemoryTrimmer.getRetainedCount(ANY_MAX, ComponentCallbacks2.TRIM_MEMORY_COMPLETE));
+    }
+
+    @Test
+    public void shouldShrinkThePoolLimitsWhenTrimmed() {
+        TrimmableViewPool pool = new TrimmableViewPool();
+        pool.setMaxRecycledViews(ANY_VIEW_TYPE, ANY_MAX);
+
+        pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+        assertEquals(ANY_MAX / 2, pool.getCurrentMaxRecycledViews(ANY_VIEW_TYPE));
+        assertEquals(ANY_MAX, pool.getMaxRecycledViews(ANY_VIEW_TYPE));
+    }
+
+    @Test
+    public void shouldTrimTheViewTypesWithTheDefaultLimit() {
+        TrimmableViewPool pool = new TrimmableViewPool();
+        pool.putRecycledView(new RecyclerView.ViewHolder(mock(View.class)) { });
+
+        pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        assertEquals(0, pool.getCurrentMaxRecycledViews(0));
+    }
+
+    @Test
+    public void shouldGrowThePoolLimitsBackWhenThePoolIsEmpty() {
+        TrimmableViewPool pool = new TrimmableViewPool();
+        pool.setMaxRecycledViews(ANY_VIEW_TYPE, ANY_MAX);
+        pool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        pool.getRecycledView(ANY_VIEW_TYPE);
+        pool.getRecycledView(ANY_VIEW_TYPE);
+
+        assertEquals(2, pool.getCurrentMaxRecycledViews(ANY_VIEW_TYPE));
+    }
+
+    @Test
+    public void shouldNotGrowThePoolLimitsOverTheMaxConfigured() {
+        TrimmableViewPool pool = new TrimmableViewPool();
+        pool.setMaxRecycledViews(ANY_VIEW_TYPE, ANY_MAX);
+
+        pool.getRecycledView(ANY_VIEW_TYPE);
+
+        assertEquals(ANY_MAX, pool.getCurrentMaxRecycledViews(ANY_VIEW_TYPE));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedSizesOfTheMeasureCache() {
+        MeasureCache measureCache = new MeasureCache();
+        for (int i = 0; i < ANY_MAX; i++) {
+            measureCache.put(i, 1, 0, 100);
+        }
+
+        measureCache.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+        assertEquals(ANY_MAX / 2, measureCache.size());
+        assertEquals(MeasureCache.NOT_CACHED, measureCache.get(0, 1, 0));
+    }
+}
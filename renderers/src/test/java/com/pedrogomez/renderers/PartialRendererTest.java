@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class PartialRendererTest {
+
+    private PostRenderer renderer;
+
+    @Before
+    public void setUp() {
+        renderer = new PostRenderer();
+    }
+
+    @Test
+    public void shouldRenderEverythingWithoutPayloads() {
+        renderer.render(Collections.emptyList());
+
+        assertEquals(Arrays.asList("all"), renderer.rendered);
+    }
+
+    @Test
+    public void shouldRenderEverythingWithUnknownPayloads() {
+        renderer.render(Arrays.<Object>asList(ChangePayload.of(PartialRenderer.maskOf(Aspect.TITLE)), "unknown"));
+
+        assertEquals(Arrays.asList("all"), renderer.rendered);
+    }
+
+    @Test
+    public void shouldRenderOnlyTheAspectsChanged() {
+        renderer.render(Arrays.<Object>asList(ChangePayload.of(PartialRenderer.maskOf(Aspect.LIKES))));
+
+        assertEquals(Arrays.asList("LIKES"), renderer.rendered);
+    }
+
+    @Test
+    public void shouldRenderTheAspectsOfEveryPayloadOnce() {
+        renderer.render(Arrays.<Object>asList(
+              ChangePayload.of(PartialRenderer.maskOf(Aspect.COMMENTS)),
+              ChangePayload.of(PartialRenderer.maskOf(Aspect.TITLE) | PartialRenderer.maskOf(Aspect.COMMENTS))));
+
+        assertEquals(Arrays.asList("TITLE", "COMMENTS"), renderer.rendered);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAcceptMoreThan32Aspects() {
+        new TooManyAspectsRenderer();
+    }
+
+    private enum Aspect {
+        TITLE, LIKES, COMMENTS
+    }
+
+    private enum ManyAspects {
+        A0, A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16,
+        A17, A18, A19, A20, A21, A22, A23, A24, A25, A26, A27, A28, A29, A30, A31, A32
+    }
+
+    private static class PostRenderer extends PartialRenderer<Object, Aspect> {
+
+        final List<String> rendered = new ArrayList<>();
+
+        PostRenderer() {
+            super(Aspect.class);
+        }
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return null;
+        }
+
+        @Override protected void renderAll() {
+            rendered.add("all");
+        }
+
+        @Override protected void onRenderAspect(Aspect aspect) {
+            rendered.add(aspect.name());
+        }
+    }
+
+    private static class TooManyAspectsRenderer extends PartialRenderer<Object, ManyAspects> {
+
+        TooManyAspectsRenderer() {
+            super(ManyAspects.class);
+        }
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return null;
+        }
+
+        @Override protected void renderAll() { }
+
+        @Override protected void onRenderAspect(ManyAspects aspect) { }
+    }
+}
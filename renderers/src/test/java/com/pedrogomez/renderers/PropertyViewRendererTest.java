@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.View;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+import com.pedrogomez.renderers.PropertyViewRenderer.Properties;
+import com.pedrogomez.renderers.PropertyViewRenderer.Property;
+import com.pedrogomez.renderers.PropertyViewRenderer.PropertyRenderFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class PropertyViewRendererTest {
+
+    @Mock private View mockedView;
+    @Mock private ViewRenderer.InflateFunction<View> inflateFunction;
+
+    private RecordingProperty property;
+    private PropertyViewRenderer<Item, View> renderer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        property = new RecordingProperty();
+        renderer = new PropertyViewRenderer<>(inflateFunction, new PropertyRenderFunction<Item, View>() {
+            @Override public void render(Item content, View view, Properties properties) {
+                properties.set(mockedView, PropertyViewRenderer.VISIBILITY, content.visibility)
+                      .set(mockedView, property, content.count);
+            }
+        });
+    }
+
+    @Test
+    public void shouldApplyEveryPropertyTheFirstTime() {
+        render(new Item(View.VISIBLE, 1));
+
+        verify(mockedView).setVisibility(View.VISIBLE);
+        assertEquals(Collections.singletonList(1), property.applied);
+    }
+
+    @Test
+    public void shouldNotApplyThePropertiesNotChanged() {
+        render(new Item(View.VISIBLE, 1));
+
+        render(new Item(View.VISIBLE, 1));
+
+        verify(mockedView, times(1)).setVisibility(View.VISIBLE);
+        assertEquals(Collections.singletonList(1), property.applied);
+    }
+
+    @Test
+    public void shouldOnlyApplyThePropertiesChanged() {
+        render(new Item(View.VISIBLE, 1));
+
+        render(new Item(View.VISIBLE, 2));
+
+        verify(mockedView, times(1)).setVisibility(View.VISIBLE);
+        assertEquals(Arrays.asList(1, 2), property.applied);
+    }
+
+    @Test
+    public void shouldApplyThePropertiesDescribedForAnotherView() {
+        Properties properties = new Properties();
+        View first = mock(View.class);
+        View second = mock(View.class);
+
+        properties.set(first, property, 1);
+        properties.rewind();
+        properties.set(second, property, 1);
+
+        assertEquals(Arrays.asList(1, 1), property.applied);
+    }
+
+    @Test
+    public void shouldNotShareTheValuesAppliedBetweenCopies() {
+        render(new Item(View.VISIBLE, 1));
+
+        PropertyViewRenderer<Item, View> copy = (PropertyViewRenderer<Item, View>) renderer.copy();
+        copy.setContent(new Item(View.VISIBLE, 1));
+        copy.render(Collections.emptyList());
+
+        assertEquals(Arrays.asList(1, 1), property.applied);
+    }
+
+    private void render(Item item) {
+        renderer.setContent(item);
+        renderer.render(Collections.emptyList());
+    }
+
+    private static class RecordingProperty implements Property<View, Integer> {
+
+        final List<Integer> applied = new ArrayList<>();
+
+        @Override public void set(View view, Integer value) {
+            applied.add(value);
+        }
+    }
+
+    private static class Item {
+
+        final int visibility;
+        final int count;
+
+        Item(int visibility, int count) {
+            this.visibility = visibility;
+            this.count = count;
+        }
+    }
+}
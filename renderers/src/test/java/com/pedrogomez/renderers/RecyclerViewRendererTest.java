@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.os.Parcelable;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class RecyclerViewRendererTest {
+
+    private static final long ANY_ITEM_ID = 7;
+    private static final List<String> ANY_CONTENT = Arrays.asList("one", "two", "three");
+    private static final List<String> ANY_OTHER_CONTENT = Arrays.asList("four", "five");
+    private static final Object ANY_PAYLOAD = new Object();
+
+    @Mock private LayoutInflater mockedLayoutInflater;
+    @Mock private ViewGroup mockedParent;
+    @Mock private Parcelable mockedScrollState;
+
+    private CarouselRenderer prototype;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockedParent.getContext()).thenReturn(RuntimeEnvironment.application);
+        prototype = new CarouselRenderer(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder());
+    }
+
+    @Test
+    public void shouldShareTheRecycledViewPoolBetweenCopies() {
+        CarouselRenderer first = createRenderer();
+        CarouselRenderer second = createRenderer();
+
+        ArgumentCaptor<RecyclerView.RecycledViewPool> firstPool =
+              ArgumentCaptor.forClass(RecyclerView.RecycledViewPool.class);
+        ArgumentCaptor<RecyclerView.RecycledViewPool> secondPool =
+              ArgumentCaptor.forClass(RecyclerView.RecycledViewPool.class);
+        verify(first.getRecyclerView()).setRecycledViewPool(firstPool.capture());
+        verify(second.getRecyclerView()).setRecycledViewPool(secondPool.capture());
+        assertSame(firstPool.getValue(), secondPool.getValue());
+        assertSame(prototype.getSharedRecycledViewPool(), firstPool.getValue());
+    }
+
+    @Test
+    public void shouldCreateANewSharedPoolAfterReleasingTheSharedViews() {
+        RecyclerView.RecycledViewPool releasedPool = prototype.getSharedRecycledViewPool();
+
+        prototype.releaseSharedViews();
+
+        assertNotSame(releasedPool, prototype.getSharedRecycledViewPool());
+    }
+
+    @Test
+    public void shouldRenderTheInnerItemsUsingTheInnerAdapter() {
+        CarouselRenderer renderer = createRenderer();
+
+        bind(renderer, ANY_ITEM_ID);
+
+        assertEquals(ANY_CONTENT, renderer.getInnerAdapter().getCollection());
+    }
+
+    @Test
+    public void shouldReplaceTheInnerItemsWhenTheyChange() {
+        CarouselRenderer renderer = createRenderer();
+        bind(renderer, ANY_ITEM_ID);
+        RecyclerView.AdapterDataObserver observer = observe(renderer);
+
+        renderer.setContent(ANY_OTHER_CONTENT);
+        renderer.render(new ArrayList<>());
+
+        assertEquals(ANY_OTHER_CONTENT, renderer.getInnerAdapter().getCollection());
+        verify(observer).onChanged();
+    }
+
+    @Test
+    public void shouldNotReplaceTheInnerItemsWhenTheyDidNotChange() {
+        CarouselRenderer renderer = createRenderer();
+        bind(renderer, ANY_ITEM_ID);
+        RecyclerView.AdapterDataObserver observer = observe(renderer);
+
+        bind(renderer, ANY_ITEM_ID);
+
+        verify(observer, never()).onChanged();
+        verify(observer).onItemRangeChanged(0, ANY_CONTENT.size(), null);
+    }
+
+    @Test
+    public void shouldForwardThePayloadsToTheInnerItems() {
+        CarouselRenderer renderer = createRenderer();
+        bind(renderer, ANY_ITEM_ID);
+        RecyclerView.AdapterDataObserver observer = observe(renderer);
+
+        renderer.render(Collections.singletonList(ANY_PAYLOAD));
+
+        verify(observer, never()).onChanged();
+        verify(observer).onItemRangeChanged(0, ANY_CONTENT.size(), ANY_PAYLOAD);
+    }
+
+    @Test
+    public void shouldRestoreTheSavedScrollStateInOtherCopy() {
+        CarouselRenderer first = createRenderer();
+        CarouselRenderer second = createRenderer();
+        when(layoutManagerOf(first).onSaveInstanceState()).thenReturn(mockedScrollState);
+
+        second.onRestoreViewState(first.onSaveViewState());
+
+        verify(layoutManagerOf(second)).onRestoreInstanceState(mockedScrollState);
+    }
+
+    @Test
+    public void shouldNotSaveViewStateWithoutScrollState() {
+        CarouselRenderer renderer = createRenderer();
+
+        assertNull(renderer.onSaveViewState());
+    }
+
+    @Test
+    public void shouldScrollToTheStartItemsWithoutViewState() {
+        CarouselRenderer renderer = createRenderer();
+
+        renderer.onRestoreViewState(null);
+
+        verify(layoutManagerOf(renderer)).scrollToPosition(0);
+    }
+
+    @Test
+    public void shouldKeepTheScrollStateWhenTheInnerItemsAreRendered() {
+        CarouselRenderer renderer = createRenderer();
+
+        bind(renderer, ANY_ITEM_ID);
+        bind(renderer, ANY_ITEM_ID);
+
+        verify(layoutManagerOf(renderer), never()).scrollToPosition(0);
+        verify(layoutManagerOf(renderer), never()).onRestoreInstanceState(any(Parcelable.class));
+    }
+
+    private CarouselRenderer createRenderer() {
+        CarouselRenderer renderer = (CarouselRenderer) prototype.copy();
+        renderer.onCreate(null, mockedLayoutInflater, mockedParent);
+        return renderer;
+    }
+
+    private void bind(CarouselRenderer renderer, long itemId) {
+        renderer.setContent(ANY_CONTENT);
+        renderer.setItemId(itemId);
+        renderer.render(new ArrayList<>());
+    }
+
+    private RecyclerView.AdapterDataObserver observe(CarouselRenderer renderer) {
+        RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+        renderer.getInnerAdapter().registerAdapterDataObserver(observer);
+        return observer;
+    }
+
+    private LinearLayoutManager layoutManagerOf(CarouselRenderer renderer) {
+        return renderer.layoutManager;
+    }
+
+    private static class CarouselRenderer extends RecyclerViewRenderer<List<String>> {
+
+        LinearLayoutManager layoutManager;
+
+        CarouselRenderer(RendererBuilder innerRendererBuilder) {
+            super(innerRendererBuilder);
+        }
+
+        @Override protected List<?> getInnerItems(List<String> content) {
+            return content;
+        }
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return mock(RecyclerView.class);
+        }
+
+        @Override protected LinearLayoutManager createLayoutManager(Context context) {
+            layoutManager = mock(LinearLayoutManager.class);
+            return layoutManager;
+        }
+    }
+}
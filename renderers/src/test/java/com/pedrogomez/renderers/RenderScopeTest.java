@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class RenderScopeTest {
+
+    private static final String ANY_RESULT = "result";
+    private static final Object ANY_PAYLOAD = new Object();
+
+    @Mock private ObjectRenderer mockedRenderer;
+    @Mock private View mockedView;
+    @Mock private ViewGroup mockedParent;
+
+    private QueueExecutor background;
+    private QueueExecutor mainThread;
+    private RenderScope renderScope;
+    private RecordingCallback callback;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockedRenderer.getRootView()).thenReturn(mockedView);
+        background = new QueueExecutor();
+        mainThread = new QueueExecutor();
+        renderScope = new RenderScope(background, mainThread);
+        callback = new RecordingCallback();
+    }
+
+    @Test
+    public void shouldDeliverTheResultOnTheMainThreadExecutor() {
+        renderScope.submit(new ResultTask(), callback);
+
+        background.runAll();
+        assertEquals(0, callback.results.size());
+        mainThread.runAll();
+
+        assertEquals(Collections.singletonList(ANY_RESULT), callback.results);
+    }
+
+    @Test
+    public void shouldDeliverTheErrorsThrownByTheTask() {
+        renderScope.submit(new Callable<String>() {
+            @Override public String call() throws Exception {
+                throw new IllegalStateException();
+            }
+        }, callback);
+
+        background.runAll();
+        mainThread.runAll();
+
+        assertEquals(1, callback.errors.size());
+        assertEquals(0, callback.results.size());
+    }
+
+    @Test
+    public void shouldNotRunTheTasksCancelledBeforeStarting() {
+        ResultTask task = new ResultTask();
+        renderScope.submit(task, callback);
+
+        renderScope.cancel();
+        background.runAll();
+
+        assertFalse(task.called);
+        assertEquals(0, mainThread.commands.size());
+    }
+
+    @Test
+    public void shouldNotDeliverTheResultsOfACancelledBinding() {
+        renderScope.submit(new ResultTask(), callback);
+        background.runAll();
+
+        renderScope.cancel();
+        mainThread.runAll();
+
+        assertEquals(0, callback.results.size());
+    }
+
+    @Test
+    public void shouldKeepWorkingAfterBeingCancelled() {
+        RenderScope.Token cancelledToken = renderScope.getToken();
+        renderScope.cancel();
+
+        renderScope.submit(new ResultTask(), callback);
+        background.runAll();
+        mainThread.runAll();
+
+        assertTrue(cancelledToken.isCancelled());
+        assertNotSame(cancelledToken, renderScope.getToken());
+        assertEquals(Collections.singletonList(ANY_RESULT), callback.results);
+    }
+
+    @Test
+    public void shouldCancelTheRenderScopeWhenRenderingANewBinding() {
+        RendererAdapter<Object> adapter = createAdapter();
+
+        adapter.onBindViewHolder(new RendererViewHolder(mockedRenderer), 0);
+
+        verify(mockedRenderer).cancelRenderScope();
+    }
+
+    @Test
+    public void shouldNotCancelTheRenderScopeWhenRenderingPayloadsOfTheSameBinding() {
+        RendererAdapter<Object> adapter = createAdapter();
+        RendererViewHolder viewHolder = createViewHolder();
+        adapter.onBindViewHolder(viewHolder, 0);
+        RenderScope.Token token = viewHolder.getRenderer().getRenderScope().getToken();
+
+        adapter.onBindViewHolder(viewHolder, 0, Collections.<Object>singletonList(ANY_PAYLOAD));
+
+        assertFalse(token.isCancelled());
+    }
+
+    @Test
+    public void shouldCancelTheRenderScopeWhenRenderingTheSameBindingAgain() {
+        RendererAdapter<Object> adapter = createAdapter();
+        RendererViewHolder viewHolder = createViewHolder();
+        adapter.onBindViewHolder(viewHolder, 0);
+        RenderScope.Token token = viewHolder.getRenderer().getRenderScope().getToken();
+
+        adapter.onBindViewHolder(viewHolder, 0);
+
+        assertTrue(token.isCancelled());
+    }
+
+    @Test
+    public void shouldNotCancelTheRenderScopeWhenTheRenderIsSkipped() {
+        RendererAdapter<Object> adapter = createAdapter();
+        RendererViewHolder viewHolder = new RendererViewHolder(mockedRenderer);
+        viewHolder.setPreBoundContent(adapter.getItem(0));
+
+        adapter.onBindViewHolder(viewHolder, 0);
+
+        verify(mockedRenderer, never()).cancelRenderScope();
+    }
+
+    @Test
+    public void shouldCancelTheRenderScopeWhenTheRendererIsRecycled() {
+        createAdapter().onViewRecycled(new RendererViewHolder(mockedRenderer));
+
+        verify(mockedRenderer).cancelRenderScope();
+    }
+
+    @Test
+    public void shouldNotCancelTheRenderScopeWhenTheRendererIsDetached() {
+        createAdapter().onViewDetachedFromWindow(new RendererViewHolder(mockedRenderer));
+
+        verify(mockedRenderer, never()).cancelRenderScope();
+    }
+
+    @Test
+    public void shouldNotShareTheRenderScopeBetweenCopies() {
+        ObjectRenderer prototype = new ObjectRenderer();
+        RenderScope prototypeScope = prototype.getRenderScope();
+
+        assertNotSame(prototypeScope, prototype.copy().getRenderScope());
+    }
+
+    private RendererViewHolder createViewHolder() {
+        ObjectRenderer renderer = new ObjectRenderer();
+        renderer.setView(mockedView);
+        renderer.onCreate(null, null, mockedParent);
+        return new RendererViewHolder(renderer);
+    }
+
+    private RendererAdapter<Object> createAdapter() {
+        List<Object> collection = new ArrayList<>();
+        collection.add(new Object());
+        return new RendererAdapter<>(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder(), collection);
+    }
+
+    private static class ResultTask implements Callable<String> {
+
+        boolean called;
+
+        @Override public String call() {
+            called = true;
+            return ANY_RESULT;
+        }
+    }
+
+    private static class RecordingCallback implements RenderScope.Callback<String> {
+
+        final List<String> results = new ArrayList<>();
+        final List<Exception> errors = new ArrayList<>();
+
+        @Override public void onResult(String result) {
+            results.add(result);
+        }
+
+        @Override public void onError(Exception error) {
+            errors.add(error);
+        }
+    }
+
+    private static class QueueExecutor implements Executor {
+
+        final List<Runnable> commands = new ArrayList<>();
+
+        @Override public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        void runAll() {
+            while (!commands.isEmpty()) {
+                commands.remove(0).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class RenderWatchdogTest {
+
+    private static final long ANY_BUDGET_NANOS = 1;
+    private static final long HUGE_BUDGET_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int ANY_CAPACITY = 2;
+    private static final int ANY_VIEW_TYPE = 3;
+    private static final int ANY_POSITION = 0;
+
+    @Mock private ViewGroup mockedParent;
+    @Mock private RendererBuilder<Object> mockedRendererBuilder;
+    @Mock private RenderWatchdog.Listener mockedListener;
+
+    private FakeSampler sampler;
+    private SlowRenderer renderer;
+    private RendererAdapter<Object> adapter;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockedParent.getContext()).thenReturn(RuntimeEnvironment.application);
+        sampler = new FakeSampler();
+        renderer = new SlowRenderer(sampler);
+        renderer.onCreate(null, null, mockedParent);
+        RendererViewHolder viewHolder = new RendererViewHolder(renderer);
+        when(mockedRendererBuilder.buildRendererViewHolder()).thenReturn(viewHolder);
+        List<Object> collection = new ArrayList<>();
+        collection.add("content");
+        adapter = new RendererAdapter<>(mockedRendererBuilder, collection);
+    }
+
+    @Test
+    public void shouldRecordTheCallsOverTheBudget() {
+        RenderWatchdog watchdog = givenAWatchdog(ANY_BUDGET_NANOS);
+
+        bind(adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE));
+
+        List<RenderWatchdog.SlowRender> slowRenders = watchdog.getSlowRenders();
+        assertEquals(2, slowRenders.size());
+        assertEquals(RenderWatchdog.Phase.CREATE, slowRenders.get(0).getPhase());
+        assertEquals(ANY_VIEW_TYPE, slowRenders.get(0).getViewType());
+        assertEquals(RenderWatchdog.Phase.RENDER, slowRenders.get(1).getPhase());
+        assertSame(SlowRenderer.class, slowRenders.get(1).getRendererClass());
+        assertEquals(ANY_POSITION, slowRenders.get(1).getPosition());
+        assertTrue(slowRenders.get(1).getDurationNanos() > ANY_BUDGET_NANOS);
+    }
+
+    @Test
+    public void shouldNotRecordTheCallsUnderTheBudget() {
+        RenderWatchdog watchdog = givenAWatchdog(HUGE_BUDGET_NANOS);
+
+        bind(adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE));
+
+        assertTrue(watchdog.getSlowRenders().isEmpty());
+        verify(mockedListener, never()).onSlowRender(any(RenderWatchdog.SlowRender.class));
+    }
+
+    @Test
+    public void shouldNotifyTheSlowCallsToTheListener() {
+        RenderWatchdog watchdog = givenAWatchdog(ANY_BUDGET_NANOS);
+
+        bind(adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE));
+
+        verify(mockedListener).onSlowRender(watchdog.getSlowRenders().get(0));
+        verify(mockedListener).onSlowRender(watchdog.getSlowRenders().get(1));
+    }
+
+    @Test
+    public void shouldAttachTheStackSampledWhileTheCallWasRunning() {
+        RenderWatchdog watchdog = givenAWatchdog(ANY_BUDGET_NANOS);
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE);
+        renderer.sampleWhileRendering = true;
+
+        bind(viewHolder);
+
+        StackTraceElement[] stackTrace = watchdog.getSlowRenders().get(1).getStackTrace();
+        assertNotNull(stackTrace);
+        assertTrue(containsFrame(stackTrace, SlowRenderer.class.getName(), "render"));
+    }
+
+    @Test
+    public void shouldNotSampleTheCallsAlreadyFinished() {
+        RenderWatchdog watchdog = givenAWatchdog(ANY_BUDGET_NANOS);
+
+        bind(adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE));
+        sampler.runAll();
+
+        assertNull(watchdog.getSlowRenders().get(1).getStackTrace());
+        sampler.verifyAllCancelled();
+    }
+
+    @Test
+    public void shouldRecordTheCallsThrowingAnException() {
+        RenderWatchdog watchdog = givenAWatchdog(ANY_BUDGET_NANOS);
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE);
+        renderer.failure = new IllegalStateException();
+
+        try {
+            bind(viewHolder);
+            fail();
+        } catch (IllegalStateException expected) {
+            assertEquals(RenderWatchdog.Phase.RENDER, watchdog.getSlowRenders().get(1).getPhase());
+            sampler.verifyAllCancelled();
+        }
+    }
+
+    @Test
+    public void shouldKeepOnlyTheLastSlowCalls() {
+        RenderWatchdog watchdog = givenAWatchdog(ANY_BUDGET_NANOS);
+        RendererViewHolder viewHolder = adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE);
+
+        bind(viewHolder);
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION, Collections.<Object>singletonList("payload"));
+
+        List<RenderWatchdog.SlowRender> slowRenders = watchdog.getSlowRenders();
+        assertEquals(ANY_CAPACITY, slowRenders.size());
+        assertEquals(RenderWatchdog.Phase.RENDER, slowRenders.get(0).getPhase());
+        assertEquals(RenderWatchdog.Phase.RENDER, slowRenders.get(1).getPhase());
+    }
+
+    @Test
+    public void shouldDropTheSlowCallsRecordedWhenCleared() {
+        RenderWatchdog watchdog = givenAWatchdog(ANY_BUDGET_NANOS);
+        bind(adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE));
+
+        watchdog.clear();
+
+        assertTrue(watchdog.getSlowRenders().isEmpty());
+    }
+
+    @Test
+    public void shouldNotScheduleSamplesWithoutWatchdog() {
+        bind(adapter.onCreateViewHolder(mockedParent, ANY_VIEW_TYPE));
+
+        assertTrue(sampler.tasks.isEmpty());
+    }
+
+    private RenderWatchdog givenAWatchdog(long budgetNanos) {
+        RenderWatchdog watchdog = new RenderWatchdog(budgetNanos, ANY_CAPACITY, sampler);
+        watchdog.setListener(mockedListener);
+        adapter.setRenderWatchdog(watchdog);
+        return watchdog;
+    }
+
+    private void bind(RendererViewHolder viewHolder) {
+        adapter.onBindViewHolder(viewHolder, ANY_POSITION);
+    }
+
+    private static boolean containsFrame(StackTraceElement[] stackTrace, String className, String methodName) {
+        for (StackTraceElement element : stackTrace) {
+            if (element.getClassName().equals(className) && element.getMethodName().equals(methodName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleepOneMillisecond() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class SlowRenderer extends ObjectRenderer {
+
+        private final FakeSampler sampler;
+        boolean sampleWhileRendering;
+        RuntimeException failure;
+
+        SlowRenderer(FakeSampler sampler) {
+            this.sampler = sampler;
+            setView(mock(View.class));
+        }
+
+        @Override public void render(List<Object> payloads) {
+            sleepOneMillisecond();
+            if (sampleWhileRendering) {
+                sampler.runAll();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Scheduler keeping the samples until the test runs them.
+     */
+    private static class FakeSampler extends ScheduledThreadPoolExecutor {
+
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<ScheduledFuture<?>> futures = new ArrayList<>();
+
+        FakeSampler() {
+            super(1);
+        }
+
+        @Override public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            tasks.add(command);
+            futures.add(future);
+            return future;
+        }
+
+        void runAll() {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+
+        void verifyAllCancelled() {
+            for (ScheduledFuture<?> future : futures) {
+                verify(future).cancel(false);
+            }
+        }
+    }
+}
@@ -170,6 +170,27 @@ public class RendererBuilderTest {
               new RendererContent<>(new Object(), type)));
     }
 
+    @Test
+    public void shouldUseTheTypeOfTypedContentBeforeClassBindings() {
+        int type = 1;
+        RendererBuilder rendererBuilder = RendererBuilder.create()
+              .bind(TypedObject.class, new ObjectRenderer())
+              .bind(type, new ObjectRendererContentRenderer())
+              .getRendererBuilder();
+
+        assertEquals(ObjectRendererContentRenderer.class, rendererBuilder.getPrototypeClass(new TypedObject(type)));
+    }
+
+    @Test
+    public void shouldUseClassBindingsForTypedContentWithUnboundTypes() {
+        RendererBuilder rendererBuilder = RendererBuilder.create()
+              .bind(TypedObject.class, new ObjectRenderer())
+              .bind(1, new ObjectRendererContentRenderer())
+              .getRendererBuilder();
+
+        assertEquals(ObjectRenderer.class, rendererBuilder.getPrototypeClass(new TypedObject(2)));
+    }
+
     @Test(expected = PrototypeNotFoundException.class)
     public void shouldFailForWrongType() {
         int type = 1;
@@ -260,4 +281,17 @@ public class RendererBuilderTest {
         ChildClass() {
         }
     }
+
+    private static class TypedObject implements TypedContent {
+
+        private final int type;
+
+        TypedObject(int type) {
+            this.type = type;
+        }
+
+        @Override public int getType() {
+            return type;
+        }
+    }
 }
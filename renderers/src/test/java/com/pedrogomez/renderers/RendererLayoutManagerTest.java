@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class RendererLayoutManagerTest {
+
+    private static final RecyclerView.Recycler NO_RECYCLER = null;
+
+    @Mock private RecyclerView mockedRecyclerView;
+
+    private RendererLayoutManager layoutManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        layoutManager = new RendererLayoutManager(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void shouldNotConfigureTheRecyclerViewWithFixedSizeByDefault() {
+        layoutManager.onAttachedToWindow(mockedRecyclerView);
+
+        verify(mockedRecyclerView, never()).setHasFixedSize(anyBoolean());
+    }
+
+    @Test
+    public void shouldConfigureTheRecyclerViewWithFixedSizeWhenEnabled() {
+        layoutManager.setRecyclerViewFixedSize(true);
+
+        layoutManager.onAttachedToWindow(mockedRecyclerView);
+
+        verify(mockedRecyclerView).setHasFixedSize(true);
+    }
+
+    @Test
+    public void shouldRestoreThePreviousFixedSizeWhenDetached() {
+        layoutManager.setRecyclerViewFixedSize(true);
+        layoutManager.onAttachedToWindow(mockedRecyclerView);
+
+        layoutManager.onDetachedFromWindow(mockedRecyclerView, NO_RECYCLER);
+
+        verify(mockedRecyclerView).setHasFixedSize(false);
+    }
+
+    @Test
+    public void shouldKeepTheFixedSizeConfiguredBeforeWhenDetached() {
+        when(mockedRecyclerView.hasFixedSize()).thenReturn(true);
+        layoutManager.setRecyclerViewFixedSize(true);
+        layoutManager.onAttachedToWindow(mockedRecyclerView);
+
+        layoutManager.onDetachedFromWindow(mockedRecyclerView, NO_RECYCLER);
+
+        verify(mockedRecyclerView, never()).setHasFixedSize(false);
+    }
+
+    @Test
+    public void shouldRestoreThePreviousFixedSizeWhenDisabledWhileAttached() {
+        layoutManager.setRecyclerViewFixedSize(true);
+        layoutManager.onAttachedToWindow(mockedRecyclerView);
+
+        layoutManager.setRecyclerViewFixedSize(false);
+
+        verify(mockedRecyclerView).setHasFixedSize(false);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.app.Activity;
+import android.content.Context;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class RetainedRendererAdapterTest {
+
+    @Mock private RecyclerView mockedRecyclerView;
+    @Mock private RecyclerView mockedNewRecyclerView;
+    @Mock private Activity mockedActivity;
+
+    private RendererAdapter<Object> adapter;
+    private QueuePool pool;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        adapter = RendererBuilder.create(new ObjectRenderer()).build();
+        pool = new QueuePool();
+        when(mockedRecyclerView.getAdapter()).thenReturn((RecyclerView.Adapter) adapter);
+        when(mockedRecyclerView.getRecycledViewPool()).thenReturn(pool);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldOnlyRetainRendererAdapters() {
+        when(mockedRecyclerView.getAdapter()).thenReturn(null);
+
+        RetainedRendererAdapter.retain(mockedRecyclerView);
+    }
+
+    @Test
+    public void shouldDetachTheAdapterKeepingTheRecycledViews() {
+        RetainedRendererAdapter.retain(mockedRecyclerView);
+
+        verify(mockedRecyclerView).swapAdapter(null, true);
+    }
+
+    @Test
+    public void shouldRestoreTheSameAdapter() {
+        RetainedRendererAdapter retained = RetainedRendererAdapter.retain(mockedRecyclerView);
+
+        RendererAdapter<Object> restored = retained.restore(mockedNewRecyclerView);
+
+        assertSame(adapter, restored);
+        verify(mockedNewRecyclerView).setAdapter(adapter);
+    }
+
+    @Test
+    public void shouldOnlyRetainTheViewHoldersNotTiedToAnActivity() {
+        pool.viewHolders.add(createViewHolder(RuntimeEnvironment.application));
+        pool.viewHolders.add(createViewHolder(mockedActivity));
+
+        RetainedRendererAdapter retained = RetainedRendererAdapter.retain(mockedRecyclerView);
+
+        assertEquals(1, retained.getRetainedViewHolderCount());
+    }
+
+    @Test
+    public void shouldReuseThePoolWithTheViewHoldersRetained() {
+        pool.viewHolders.add(createViewHolder(RuntimeEnvironment.application));
+        RetainedRendererAdapter retained = RetainedRendererAdapter.retain(mockedRecyclerView);
+
+        retained.restore(mockedNewRecyclerView);
+
+        verify(mockedNewRecyclerView).setRecycledViewPool(any(RecyclerView.RecycledViewPool.class));
+    }
+
+    @Test
+    public void shouldNotReplaceThePoolIfNoViewHolderWasRetained() {
+        pool.viewHolders.add(createViewHolder(mockedActivity));
+        RetainedRendererAdapter retained = RetainedRendererAdapter.retain(mockedRecyclerView);
+
+        retained.restore(mockedNewRecyclerView);
+
+        verify(mockedNewRecyclerView, never()).setRecycledViewPool(any(RecyclerView.RecycledViewPool.class));
+    }
+
+    private RendererViewHolder createViewHolder(Context context) {
+        ObjectRenderer renderer = mock(ObjectRenderer.class);
+        View rootView = new View(RuntimeEnvironment.application);
+        when(renderer.getRootView()).thenReturn(rootView);
+        when(renderer.getContext()).thenReturn(context);
+        return new RendererViewHolder(renderer);
+    }
+
+    private static class QueuePool extends RecyclerView.RecycledViewPool {
+
+        final List<RecyclerView.ViewHolder> viewHolders = new ArrayList<>();
+
+        @Override public RecyclerView.ViewHolder getRecycledView(int viewType) {
+            return viewHolders.isEmpty() ? null : viewHolders.remove(0);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Test harness attaching a RendererAdapter to a real RecyclerView under Robolectric and scripting
+ * scrolls and flings over it, to track the recycling efficiency of the library without a device.
+ *
+ * The RecyclerView is measured and laid out with the viewport size passed instead of being
+ * attached to a window, so the first screen doesn't depend on the Robolectric display. The
+ * RendererAdapter is set as the adapter of the RecyclerView. The ViewHolders created and bound are
+ * counted and timed with a RendererMetricsListener, the ones recycled with a RecyclerListener and
+ * the ones taken back from the RecycledViewPool with a counting pool. Flings are simulated frame by
+ * frame with a constant deceleration, so the result never depends on the Robolectric scheduler.
+ */
+class ScrollSimulation {
+
+    static final int FRAME_MILLIS = 16;
+    private static final float FLING_DECELERATION = 0.95f;
+    private static final int MIN_FLING_STEP = 1;
+
+    private final RecyclerView recyclerView;
+    private final LinearLayoutManager layoutManager;
+    private final CountingViewPool viewPool;
+    private final Counter counter;
+    private final int width;
+    private final int height;
+    private long scrollNanos;
+    private long allocatedBytes;
+
+    ScrollSimulation(Context context, RendererAdapter adapter, int width, int height) {
+        this.width = width;
+        this.height = height;
+        recyclerView = new RecyclerView(context);
+        layoutManager = new LinearLayoutManager(context);
+        recyclerView.setLayoutManager(layoutManager);
+        viewPool = new CountingViewPool();
+        recyclerView.setRecycledViewPool(viewPool);
+        counter = new Counter();
+        recyclerView.setRecyclerListener(counter);
+        adapter.setMetricsListener(counter);
+        recyclerView.setAdapter(adapter);
+    }
+
+    RecyclerView getRecyclerView() {
+        return recyclerView;
+    }
+
+    /**
+     * Measures and lays out the RecyclerView with the viewport size, creating the first screen.
+     */
+    ScrollSimulation layout() {
+        long start = start();
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+              View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, width, height);
+        finish(start);
+        return this;
+    }
+
+    /**
+     * Scrolls the same distance in every frame, like a slow drag.
+     *
+     * @param dy pixels scrolled per frame, negative to scroll up.
+     * @param frames number of frames.
+     */
+    ScrollSimulation scroll(int dy, int frames) {
+        long start = start();
+        for (int i = 0; i < frames; i++) {
+            recyclerView.scrollBy(0, dy);
+        }
+        finish(start);
+        return this;
+    }
+
+    /**
+     * Scrolls one frame after another decelerating from the velocity passed until it stops.
+     *
+     * @param velocityY initial velocity in pixels per second, negative to fling up.
+     */
+    ScrollSimulation fling(int velocityY) {
+        long start = start();
+        float velocity = velocityY;
+        int dy = Math.round(velocity * FRAME_MILLIS / 1000f);
+        while (Math.abs(dy) >= MIN_FLING_STEP) {
+            recyclerView.scrollBy(0, dy);
+            velocity *= FLING_DECELERATION;
+            dy = Math.round(velocity * FRAME_MILLIS / 1000f);
+        }
+        finish(start);
+        return this;
+    }
+
+    int getFirstVisiblePosition() {
+        return layoutManager.findFirstVisibleItemPosition();
+    }
+
+    Report getReport() {
+        return new Report(counter.creates, counter.binds, viewPool.poolHits, counter.recycles, counter.bindNanos,
+              scrollNanos, allocatedBytes);
+    }
+
+    private long start() {
+        allocatedBytes -= Math.max(0, currentThreadAllocatedBytes());
+        return System.nanoTime();
+    }
+
+    private void finish(long start) {
+        scrollNanos += System.nanoTime() - start;
+        allocatedBytes += Math.max(0, currentThreadAllocatedBytes());
+    }
+
+    /**
+     * @return the bytes allocated by the current thread, -1 if the JVM doesn't measure them.
+     */
+    private static long currentThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            try {
+                return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(
+                      Thread.currentThread().getId());
+            } catch (UnsupportedOperationException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counters of one simulation, accumulated over every step run.
+     */
+    static final class Report {
+
+        final int creates;
+        final int binds;
+        final int poolHits;
+        final int recycles;
+        final long bindNanos;
+        final long scrollNanos;
+        final long allocatedBytes;
+
+        Report(int creates, int binds, int poolHits, int recycles, long bindNanos, long scrollNanos,
+              long allocatedBytes) {
+            this.creates = creates;
+            this.binds = binds;
+            this.poolHits = poolHits;
+            this.recycles = recycles;
+            this.bindNanos = bindNanos;
+            this.scrollNanos = scrollNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * @return the fraction of ViewHolders needed taken from the RecycledViewPool instead of
+         * created.
+         */
+        float getPoolHitRate() {
+            int requested = poolHits + creates;
+            return requested == 0 ? 0 : (float) poolHits / requested;
+        }
+
+        long getNanosPerBind() {
+            return binds == 0 ? 0 : bindNanos / binds;
+        }
+
+        long getAllocatedBytesPerBind() {
+            return binds == 0 ? 0 : allocatedBytes / binds;
+        }
+
+        @Override public String toString() {
+            return "creates=" + creates + " binds=" + binds + " poolHits=" + poolHits + " recycles=" + recycles
+                  + " poolHitRate=" + getPoolHitRate() + " nanosPerBind=" + getNanosPerBind()
+                  + " allocatedBytesPerBind=" + getAllocatedBytesPerBind() + " scrollMillis="
+                  + scrollNanos / 1000000;
+        }
+    }
+
+    /**
+     * RecycledViewPool counting the ViewHolders taken from it instead of being created.
+     */
+    private static final class CountingViewPool extends RecyclerView.RecycledViewPool {
+
+        int poolHits;
+
+        @Override public RecyclerView.ViewHolder getRecycledView(int viewType) {
+            RecyclerView.ViewHolder viewHolder = super.getRecycledView(viewType);
+            if (viewHolder != null) {
+                poolHits++;
+            }
+            return viewHolder;
+        }
+    }
+
+    /**
+     * Counts the ViewHolders recycled, created and bound by the RendererAdapter, timing the binds.
+     */
+    private static final class Counter implements RecyclerView.RecyclerListener, RendererMetricsListener {
+
+        int creates;
+        int binds;
+        int recycles;
+        long bindNanos;
+
+        @Override public void onViewRecycled(RecyclerView.ViewHolder holder) {
+            recycles++;
+        }
+
+        @Override public void onCreate(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) {
+            creates++;
+        }
+
+        @Override public void onBind(int viewType, Class<? extends Renderer> rendererClass, long durationNanos,
+              boolean reused) {
+            binds++;
+            bindNanos += durationNanos;
+        }
+
+        @Override public void onRecycle(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) { }
+
+        @Override public void onAttach(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) { }
+
+        @Override public void onDetach(int viewType, Class<? extends Renderer> rendererClass, long durationNanos) { }
+    }
+}
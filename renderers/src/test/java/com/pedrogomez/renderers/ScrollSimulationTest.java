@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+@Category(ScrollSimulationTests.class)
+public class ScrollSimulationTest {
+
+    private static final int VIEWPORT_WIDTH = 480;
+    private static final int VIEWPORT_HEIGHT = 800;
+    private static final int ROW_HEIGHT = 100;
+    private static final int VISIBLE_ROWS = VIEWPORT_HEIGHT / ROW_HEIGHT;
+    private static final int ITEM_COUNT = 1000;
+    private static final int ANY_FLING_VELOCITY = 8000;
+
+    @Test
+    public void shouldOnlyCreateTheFirstScreenWhenLaidOut() {
+        ScrollSimulation simulation = givenASimulation(createItems(ITEM_COUNT, false));
+
+        ScrollSimulation.Report report = simulation.layout().getReport();
+
+        assertEquals(VISIBLE_ROWS, report.creates);
+        assertEquals(VISIBLE_ROWS, report.binds);
+    }
+
+    @Test
+    public void shouldReuseTheRecycledViewHoldersWhileScrolling() {
+        ScrollSimulation simulation = givenASimulation(createItems(ITEM_COUNT, false)).layout();
+
+        ScrollSimulation.Report report = simulation.scroll(ROW_HEIGHT / 4, ITEM_COUNT).getReport();
+
+        assertTrue(report.toString(), report.creates <= VISIBLE_ROWS + 4);
+        assertTrue(report.toString(), report.binds >= ITEM_COUNT / 4);
+        assertTrue(report.toString(), report.getPoolHitRate() > 0.9f);
+    }
+
+    @Test
+    public void shouldKeepAPoolPerViewTypeWhileScrollingMixedContent() {
+        ScrollSimulation simulation = givenASimulation(createItems(ITEM_COUNT, true)).layout();
+
+        ScrollSimulation.Report report = simulation.scroll(ROW_HEIGHT / 2, ITEM_COUNT).getReport();
+
+        assertTrue(report.toString(), report.creates <= 2 * (VISIBLE_ROWS + 4));
+        assertTrue(report.toString(), report.getPoolHitRate() > 0.9f);
+    }
+
+    @Test
+    public void shouldNotBindAgainTheViewsCachedWhenScrollingBackASingleRow() {
+        ScrollSimulation simulation = givenASimulation(createItems(ITEM_COUNT, false)).layout();
+        simulation.scroll(ROW_HEIGHT, 1);
+        int binds = simulation.getReport().binds;
+
+        simulation.scroll(-ROW_HEIGHT, 1);
+
+        assertEquals(binds, simulation.getReport().binds);
+    }
+
+    @Test
+    public void shouldScrollTheFlingsUntilTheyStop() {
+        ScrollSimulation simulation = givenASimulation(createItems(ITEM_COUNT, false)).layout();
+
+        ScrollSimulation.Report report = simulation.fling(ANY_FLING_VELOCITY).getReport();
+
+        assertTrue(report.toString(), simulation.getFirstVisiblePosition() > VISIBLE_ROWS);
+        assertTrue(report.toString(), report.getPoolHitRate() > 0.5f);
+    }
+
+    private ScrollSimulation givenASimulation(List<Object> items) {
+        RendererAdapter<Object> adapter = RendererBuilder.create()
+              .bind(String.class, new RowRenderer())
+              .bind(Integer.class, new OtherRowRenderer())
+              .buildWith(items);
+        return new ScrollSimulation(RuntimeEnvironment.application, adapter, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+    }
+
+    private static List<Object> createItems(int count, boolean mixed) {
+        List<Object> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(mixed && i % 2 == 1 ? (Object) i : "item " + i);
+        }
+        return items;
+    }
+
+    private static class RowRenderer extends Renderer<Object> {
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            View view = new View(parent.getContext());
+            view.setLayoutParams(new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+            return view;
+        }
+
+        @Override public void render(List<Object> payloads) { }
+    }
+
+    private static class OtherRowRenderer extends RowRenderer {
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class SectionedRendererAdapterTest {
+
+    private static final String ANY_HEADER = "header";
+    private static final String ANY_OTHER_HEADER = "other header";
+
+    private RendererBuilder rendererBuilder;
+    private SectionedRendererAdapter<String> adapter;
+    private RecordingObserver observer;
+
+    @Before
+    public void setUp() {
+        rendererBuilder = RendererBuilder.create(new ObjectRenderer()).getRendererBuilder();
+        adapter = new SectionedRendererAdapter<>(rendererBuilder);
+        adapter.addSection(ANY_HEADER, Arrays.asList("a", "b"));
+        adapter.addSection(null, Arrays.asList("c"));
+        adapter.addSection(ANY_OTHER_HEADER, Collections.<String>emptyList());
+        adapter.addSection(ANY_HEADER, Arrays.asList("d", "e"));
+        observer = new RecordingObserver();
+        adapter.registerAdapterDataObserver(observer);
+    }
+
+    @Test
+    public void shouldShowHeadersAsVirtualRows() {
+        assertEquals(Arrays.<Object>asList(ANY_HEADER, "a", "b", "c", ANY_OTHER_HEADER, ANY_HEADER, "d", "e"),
+              new ArrayList<>(adapter.getCollection()));
+        assertEquals(8, adapter.getItemCount());
+    }
+
+    @Test
+    public void shouldMapPositionsToSectionsAndItems() {
+        assertEquals(0, adapter.getSectionForPosition(0));
+        assertEquals(-1, adapter.getItemIndexForPosition(0));
+        assertEquals(1, adapter.getItemIndexForPosition(2));
+        assertEquals(1, adapter.getSectionForPosition(3));
+        assertEquals(0, adapter.getItemIndexForPosition(3));
+        assertEquals(2, adapter.getSectionForPosition(4));
+        assertEquals(3, adapter.getSectionForPosition(7));
+        assertEquals(1, adapter.getItemIndexForPosition(7));
+    }
+
+    @Test
+    public void shouldMapItemsToPositions() {
+        assertEquals(0, adapter.getSectionPosition(0));
+        assertEquals(1, adapter.getItemPosition(0, 0));
+        assertEquals(3, adapter.getItemPosition(1, 0));
+        assertEquals(4, adapter.getSectionPosition(2));
+        assertEquals(7, adapter.getItemPosition(3, 1));
+    }
+
+    @Test
+    public void shouldInsertItemsIntoOneSection() {
+        adapter.addItemAndNotify(2, "f");
+
+        assertEquals("f", adapter.getItem(5));
+        assertEquals(ANY_HEADER, adapter.getItem(6));
+        assertEquals(Arrays.asList("inserted 5 1"), observer.events);
+    }
+
+    @Test
+    public void shouldRemoveItemsFromOneSection() {
+        String removed = adapter.removeItemAndNotify(0, 1);
+
+        assertEquals("b", removed);
+        assertEquals("c", adapter.getItem(2));
+        assertEquals(Arrays.asList("removed 2 1"), observer.events);
+    }
+
+    @Test
+    public void shouldAddAndRemoveWholeSections() {
+        adapter.addSectionAndNotify(1, ANY_OTHER_HEADER, Arrays.asList("x", "y"));
+
+        assertEquals(Arrays.asList("inserted 3 3"), observer.events);
+        assertEquals("y", adapter.getItem(5));
+
+        adapter.removeSectionAndNotify(0);
+
+        assertEquals("removed 0 3", observer.events.get(1));
+        assertEquals(ANY_OTHER_HEADER, adapter.getItem(0));
+        assertEquals(8, adapter.getItemCount());
+    }
+
+    @Test
+    public void shouldExpandItemsIntoSeveralRows() {
+        adapter = new SectionedRendererAdapter<>(rendererBuilder, new CharacterRowMapper());
+        adapter.registerAdapterDataObserver(observer);
+        adapter.addSection(ANY_HEADER, Arrays.asList("ab", "", "cde"));
+
+        assertEquals(Arrays.<Object>asList(ANY_HEADER, 'a', 'b', 'c', 'd', 'e'),
+              new ArrayList<>(adapter.getCollection()));
+        assertEquals(2, adapter.getItemIndexForPosition(4));
+
+        adapter.updateItemAndNotify(0, 0, "xyzw");
+
+        assertEquals('w', adapter.getItem(4));
+        assertEquals(Arrays.asList("changed 1 2", "inserted 3 2"), observer.events);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowListBasedMutations() {
+        adapter.add("z");
+    }
+
+    @Test
+    public void shouldNotNotifyTheListBasedMutationsRejected() {
+        try {
+            adapter.removeAtAndNotify(1);
+        } catch (IllegalStateException expected) {
+            assertEquals(Collections.emptyList(), observer.events);
+            assertEquals(8, adapter.getItemCount());
+            return;
+        }
+        fail();
+    }
+
+    @Test
+    public void shouldRemoveEverySectionWhenCleared() {
+        adapter.clearAndNotify();
+
+        assertEquals(0, adapter.getSectionCount());
+        assertEquals(0, adapter.getItemCount());
+    }
+
+    private static class CharacterRowMapper implements RowMapper<String> {
+
+        @Override public int getRowCount(String item) {
+            return item.length();
+        }
+
+        @Override public Object getRow(String item, int row) {
+            return item.charAt(row);
+        }
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount) {
+            events.add("changed " + positionStart + " " + itemCount);
+        }
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            onItemRangeChanged(positionStart, itemCount);
+        }
+
+        @Override public void onItemRangeInserted(int positionStart, int itemCount) {
+            events.add("inserted " + positionStart + " " + itemCount);
+        }
+
+        @Override public void onItemRangeRemoved(int positionStart, int itemCount) {
+            events.add("removed " + positionStart + " " + itemCount);
+        }
+    }
+}
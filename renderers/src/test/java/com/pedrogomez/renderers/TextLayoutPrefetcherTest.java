@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.content.Context;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class TextLayoutPrefetcherTest {
+
+    private static final int ANY_WIDTH = 300;
+    private static final Executor SAME_THREAD = new Executor() {
+        @Override public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private Context context;
+    private RecordingTextLayoutCache cache;
+    private RendererAdapter<Object> adapter;
+    private TextLayoutPrefetcher prefetcher;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.application;
+        cache = new RecordingTextLayoutCache();
+        List<Object> comments = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            comments.add("comment " + i);
+        }
+        comments.set(10, 10);
+        adapter = RendererBuilder.create()
+              .bind(String.class, new CommentRenderer())
+              .bind(Integer.class, new ObjectRenderer())
+              .buildWith(comments);
+        prefetcher = new TextLayoutPrefetcher(adapter, cache, 3, SAME_THREAD);
+    }
+
+    @Test
+    public void shouldPrefetchTheItemsAfterTheLastVisibleOneScrollingForward() {
+        prefetcher.update(context, 2, 5, true, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.<CharSequence>asList("comment 6", "comment 7", "comment 8"), cache.created);
+    }
+
+    @Test
+    public void shouldPrefetchTheItemsBeforeTheFirstVisibleOneScrollingBackward() {
+        prefetcher.update(context, 2, 5, false, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.<CharSequence>asList("comment 1", "comment 0"), cache.created);
+    }
+
+    @Test
+    public void shouldOnlyPrefetchItemsRenderedByTextLayoutSpecs() {
+        prefetcher.update(context, 6, 9, true, ANY_WIDTH, 0);
+
+        assertEquals(Arrays.<CharSequence>asList("comment 11", "comment 12"), cache.created);
+    }
+
+    @Test
+    public void shouldNotPrefetchLayoutsAlreadyCached() {
+        prefetcher.update(context, 2, 5, true, ANY_WIDTH, 0);
+        cache.created.clear();
+
+        prefetcher.update(context, 2, 5, true, ANY_WIDTH, 0);
+
+        assertEquals(0, cache.created.size());
+    }
+
+    @Test
+    public void shouldStoreTheLayoutsUsingTheItemIdAndTheWidthOfTheField() {
+        prefetcher.update(context, 0, 0, true, ANY_WIDTH, 0);
+
+        assertNotNull(cache.get(adapter.getItemId(1), 0, ANY_WIDTH - CommentRenderer.MARGIN, "comment 1"));
+        assertNull(cache.get(adapter.getItemId(1), 0, ANY_WIDTH, "comment 1"));
+    }
+
+    @Test
+    public void shouldNotReturnLayoutsBuiltForOtherTexts() {
+        Layout layout = mock(Layout.class);
+        cache.put(1, 0, ANY_WIDTH, "text", layout);
+
+        assertSame(layout, cache.get(1, 0, ANY_WIDTH, "text"));
+        assertNull(cache.get(1, 0, ANY_WIDTH, "other text"));
+    }
+
+    @Test
+    public void shouldKeepCancellableTheTaskQueuedWhileACancelledOneWasRunning() {
+        QueueExecutor executor = new QueueExecutor();
+        prefetcher = new TextLayoutPrefetcher(adapter, cache, 3, executor);
+        final long itemId = adapter.getItemId(1);
+        prefetcher.onPrefetch(context, ANY_WIDTH, 1, "comment 1", itemId);
+        cache.onCreateLayout = new Runnable() {
+            @Override public void run() {
+                cache.onCreateLayout = null;
+                prefetcher.onCancel(context, "comment 1", itemId);
+                prefetcher.onPrefetch(context, ANY_WIDTH, 1, "comment 1", itemId);
+            }
+        };
+        executor.runNext();
+
+        prefetcher.onCancel(context, "comment 1", itemId);
+        executor.runNext();
+
+        assertEquals(Arrays.<CharSequence>asList("comment 1"), cache.created);
+    }
+
+    private static class RecordingTextLayoutCache extends TextLayoutCache {
+
+        final List<CharSequence> created = new ArrayList<>();
+        Runnable onCreateLayout;
+
+        @Override Layout createLayout(CharSequence text, TextPaint paint, int width) {
+            created.add(text);
+            if (onCreateLayout != null) {
+                onCreateLayout.run();
+            }
+            return mock(Layout.class);
+        }
+    }
+
+    private static class QueueExecutor implements Executor {
+
+        final List<Runnable> commands = new ArrayList<>();
+
+        @Override public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        void runNext() {
+            commands.remove(0).run();
+        }
+    }
+
+    private static class CommentRenderer extends Renderer<String> implements TextLayoutSpec<String> {
+
+        static final int MARGIN = 20;
+
+        private final TextPaint paint = mock(TextPaint.class);
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return null;
+        }
+
+        @Override public void render(List<Object> payloads) { }
+
+        @Override public int getTextFieldCount() {
+            return 1;
+        }
+
+        @Override public CharSequence getText(String content, int field) {
+            return content;
+        }
+
+        @Override public TextPaint getTextPaint(Context context, int field) {
+            return paint;
+        }
+
+        @Override public int getTextWidth(int availableWidth, int field) {
+            return availableWidth - MARGIN;
+        }
+    }
+}
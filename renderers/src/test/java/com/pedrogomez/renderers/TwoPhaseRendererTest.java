@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class TwoPhaseRendererTest {
+
+    private static final long ANY_ID = 42;
+
+    private QueueExecutor executor;
+    private FormattingRenderer prototype;
+
+    @Before
+    public void setUp() {
+        executor = new QueueExecutor();
+        prototype = new FormattingRenderer(executor);
+    }
+
+    @Test
+    public void shouldApplyTheViewModelComputedForTheContent() {
+        FormattingRenderer renderer = bind(prototype.copy(), new Item(ANY_ID, 1));
+
+        assertEquals(Collections.singletonList("item 42 v1"), renderer.applied);
+    }
+
+    @Test
+    public void shouldReuseTheViewModelOfTheSameVersionBetweenCopies() {
+        bind(prototype.copy(), new Item(ANY_ID, 1));
+
+        FormattingRenderer renderer = bind(prototype.copy(), new Item(ANY_ID, 1));
+
+        assertEquals(1, prototype.computed.size());
+        assertEquals(Collections.singletonList("item 42 v1"), renderer.applied);
+    }
+
+    @Test
+    public void shouldComputeAgainNewVersionsOfAnItem() {
+        bind(prototype.copy(), new Item(ANY_ID, 1));
+
+        FormattingRenderer renderer = bind(prototype.copy(), new Item(ANY_ID, 2));
+
+        assertEquals(2, prototype.computed.size());
+        assertEquals(Collections.singletonList("item 42 v2"), renderer.applied);
+    }
+
+    @Test
+    public void shouldComputeAgainDifferentInstancesOfNotVersionedContent() {
+        Object first = "first";
+        Object second = "second";
+        bind(prototype.copy(), first);
+
+        bind(prototype.copy(), second);
+
+        assertEquals(Arrays.asList(first, second), prototype.computed);
+    }
+
+    @Test
+    public void shouldComputeAgainNotVersionedContentModifiedInPlace() {
+        StringBuilder content = new StringBuilder("first");
+        FormattingRenderer renderer = bind(prototype.copy(), content);
+
+        content.append(" edited");
+        renderer.render(Collections.emptyList());
+
+        assertEquals(Arrays.asList("first", "first edited"), renderer.applied);
+    }
+
+    @Test
+    public void shouldNotPrefetchNotVersionedContent() {
+        prototype.prefetch(null, "content", ANY_ID);
+
+        assertEquals(0, executor.commands.size());
+    }
+
+    @Test
+    public void shouldNotComputeOnTheMainThreadTheViewModelsPrefetched() {
+        Item item = new Item(ANY_ID, 1);
+        prototype.prefetch(null, item, ANY_ID);
+        executor.runAll();
+
+        FormattingRenderer renderer = bind(prototype.copy(), item);
+
+        assertEquals(1, prototype.computed.size());
+        assertEquals(Collections.singletonList("item 42 v1"), renderer.applied);
+    }
+
+    @Test
+    public void shouldNotPrefetchTheSameItemTwice() {
+        Item item = new Item(ANY_ID, 1);
+
+        prototype.prefetch(null, item, ANY_ID);
+        prototype.prefetch(null, item, ANY_ID);
+
+        assertEquals(1, executor.commands.size());
+    }
+
+    @Test
+    public void shouldNotComputeTheViewModelsCancelledBeforeStarting() {
+        Item item = new Item(ANY_ID, 1);
+        prototype.prefetch(null, item, ANY_ID);
+
+        prototype.cancel(null, item, ANY_ID);
+        executor.runAll();
+
+        assertEquals(0, prototype.computed.size());
+    }
+
+    @Test
+    public void shouldKeepPendingTheTaskQueuedWhileACancelledOneWasRunning() {
+        final Item item = new Item(ANY_ID, 1);
+        final Item newVersion = new Item(ANY_ID, 2);
+        prototype.prefetch(null, item, ANY_ID);
+        prototype.onCompute = new Runnable() {
+            @Override public void run() {
+                prototype.onCompute = null;
+                prototype.cancel(null, item, ANY_ID);
+                prototype.prefetch(null, newVersion, ANY_ID);
+            }
+        };
+        executor.runNext();
+
+        prototype.prefetch(null, newVersion, ANY_ID);
+
+        assertEquals(1, executor.commands.size());
+    }
+
+    @Test
+    public void shouldComputeAgainAfterClearingTheViewModels() {
+        bind(prototype.copy(), new Item(ANY_ID, 1));
+
+        prototype.clearViewModels();
+        bind(prototype.copy(), new Item(ANY_ID, 1));
+
+        assertEquals(2, prototype.computed.size());
+    }
+
+    private FormattingRenderer bind(Renderer<Object> copy, Object content) {
+        FormattingRenderer renderer = (FormattingRenderer) copy;
+        renderer.setContent(content);
+        renderer.setItemId(ANY_ID);
+        renderer.render(Collections.emptyList());
+        return renderer;
+    }
+
+    private static class FormattingRenderer extends TwoPhaseRenderer<Object, String> {
+
+        final List<Object> computed = Collections.synchronizedList(new ArrayList<>());
+        List<String> applied = new ArrayList<>();
+        Runnable onCompute;
+
+        FormattingRenderer(Executor executor) {
+            super(10, executor);
+        }
+
+        @Override protected String compute(Object content) {
+            computed.add(content);
+            if (onCompute != null) {
+                onCompute.run();
+            }
+            return content.toString();
+        }
+
+        @Override protected void apply(String viewModel, List<Object> payloads) {
+            applied.add(viewModel);
+        }
+
+        @Override Renderer<Object> copy() {
+            FormattingRenderer copy = (FormattingRenderer) super.copy();
+            copy.applied = new ArrayList<>();
+            return copy;
+        }
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return null;
+        }
+    }
+
+    private static class Item implements VersionedContent {
+
+        private final long id;
+        private final long version;
+
+        Item(long id, long version) {
+            this.id = id;
+            this.version = version;
+        }
+
+        @Override public long getId() {
+            return id;
+        }
+
+        @Override public long getVersion() {
+            return version;
+        }
+
+        @Override public String toString() {
+            return "item " + id + " v" + version;
+        }
+    }
+
+    private static class QueueExecutor implements Executor {
+
+        final List<Runnable> commands = new ArrayList<>();
+
+        @Override public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        void runAll() {
+            while (!commands.isEmpty()) {
+                runNext();
+            }
+        }
+
+        void runNext() {
+            commands.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class VersionedContentTest {
+
+    private static final long ANY_ID = 42;
+
+    @Mock private ObjectRenderer mockedRenderer;
+    @Mock private View mockedView;
+
+    private List<Object> collection;
+    private RendererAdapter<Object> adapter;
+    private RendererViewHolder viewHolder;
+    private RecordingObserver observer;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockedRenderer.getRootView()).thenReturn(mockedView);
+        collection = new ArrayList<>();
+        adapter = new RendererAdapter<>(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder(), collection);
+        viewHolder = new RendererViewHolder(mockedRenderer);
+        observer = new RecordingObserver();
+        adapter.registerAdapterDataObserver(observer);
+    }
+
+    @Test
+    public void shouldUseTheIdOfVersionedContentAsItemId() {
+        collection.add(new Item(ANY_ID, 1));
+
+        assertEquals(ANY_ID, adapter.getItemId(0));
+    }
+
+    @Test
+    public void shouldNotRenderAgainTheSameVersionOfAnItem() {
+        collection.add(new Item(ANY_ID, 1));
+        bind();
+
+        adapter.update(0, new Item(ANY_ID, 1));
+        bind();
+
+        verify(mockedRenderer, times(1)).render(anyListOf(Object.class));
+    }
+
+    @Test
+    public void shouldRenderNewVersionsOfAnItem() {
+        collection.add(new Item(ANY_ID, 1));
+        bind();
+
+        adapter.update(0, new Item(ANY_ID, 2));
+        bind();
+
+        verify(mockedRenderer, times(2)).render(anyListOf(Object.class));
+    }
+
+    @Test
+    public void shouldRenderAgainAfterBeingRecycled() {
+        collection.add(new Item(ANY_ID, 1));
+        bind();
+
+        adapter.onViewRecycled(viewHolder);
+        bind();
+
+        verify(mockedRenderer, times(2)).render(anyListOf(Object.class));
+    }
+
+    @Test
+    public void shouldRenderPayloadsOfTheSameVersion() {
+        collection.add(new Item(ANY_ID, 1));
+        bind();
+
+        List<Object> payloads = Collections.<Object>singletonList("payload");
+        adapter.onBindViewHolder(viewHolder, 0, payloads);
+
+        verify(mockedRenderer).render(payloads);
+    }
+
+    @Test
+    public void shouldUpdateTheExtraValuesOfMovedItemsNotRenderedAgain() {
+        final List<Integer> positions = new ArrayList<>();
+        adapter = new RendererAdapter<Object>(RendererBuilder.create(new ObjectRenderer()).getRendererBuilder(),
+              collection) {
+            @Override protected void updateRendererExtraValues(Object content, Renderer renderer, int position) {
+                positions.add(position);
+            }
+        };
+        collection.add(new Item(ANY_ID, 1));
+        bind();
+
+        collection.add(0, "new first element");
+        adapter.onBindViewHolder(viewHolder, 1, Collections.emptyList());
+
+        verify(mockedRenderer, times(1)).render(anyListOf(Object.class));
+        assertEquals(Arrays.asList(0, 1), positions);
+    }
+
+    @Test
+    public void shouldRenderAgainEqualElementsByDefault() {
+        collection.add("content");
+        bind();
+
+        adapter.update(0, new String("content"));
+        bind();
+
+        verify(mockedRenderer, times(2)).render(anyListOf(Object.class));
+    }
+
+    @Test
+    public void shouldNotRenderAgainEqualElementsIfConfigured() {
+        adapter.setSkipRenderForEqualContent(true);
+        collection.add("content");
+        bind();
+
+        adapter.update(0, new String("content"));
+        bind();
+
+        verify(mockedRenderer, times(1)).render(anyListOf(Object.class));
+    }
+
+    @Test
+    public void shouldRenderAgainTheSameInstanceIfConfigured() {
+        adapter.setSkipRenderForEqualContent(true);
+        collection.add("content");
+        bind();
+
+        bind();
+
+        verify(mockedRenderer, times(2)).render(anyListOf(Object.class));
+    }
+
+    @Test
+    public void shouldNotNotifyUpdatesWithTheSameVersion() {
+        collection.add(new Item(ANY_ID, 1));
+
+        adapter.updateAndNotify(0, new Item(ANY_ID, 1));
+
+        assertEquals(0, observer.changes);
+    }
+
+    @Test
+    public void shouldNotifyUpdatesWithNewVersions() {
+        collection.add(new Item(ANY_ID, 1));
+
+        adapter.updateAndNotify(0, new Item(ANY_ID, 2));
+
+        assertEquals(1, observer.changes);
+    }
+
+    @Test
+    public void shouldNotifyUpdatesWithEqualElementsByDefault() {
+        collection.add("content");
+
+        adapter.updateAndNotify(0, new String("content"));
+
+        assertEquals(1, observer.changes);
+        verify(mockedRenderer, never()).render(anyListOf(Object.class));
+    }
+
+    private void bind() {
+        adapter.onBindViewHolder(viewHolder, 0, Collections.emptyList());
+    }
+
+    private static class Item implements VersionedContent {
+
+        private final long id;
+        private final long version;
+
+        Item(long id, long version) {
+            this.id = id;
+            this.version = version;
+        }
+
+        @Override public long getId() {
+            return id;
+        }
+
+        @Override public long getVersion() {
+            return version;
+        }
+    }
+
+    private static class RecordingObserver extends RecyclerView.AdapterDataObserver {
+
+        int changes;
+
+        @Override public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            changes++;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2014 Pedro Vicente Gómez Sánchez.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.pedrogomez.renderers;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.github.pedrovgs.renderers.BuildConfig;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@Config(sdk = 19, constants = BuildConfig.class)
+@RunWith(RobolectricGradleTestRunner.class)
+public class ViewStateStoreTest {
+
+    private static final String EXPANDED = "expanded";
+
+    private RendererAdapter<Object> adapter;
+    private RendererViewHolder firstViewHolder;
+    private RendererViewHolder secondViewHolder;
+
+    @Before
+    public void setUp() {
+        List<Object> collection = new ArrayList<Object>(Arrays.asList("first", "second"));
+        adapter = new RendererAdapter<>(RendererBuilder.create(new ExpandableRenderer()).getRendererBuilder(),
+              collection);
+        adapter.setHasStableIds(true);
+        firstViewHolder = new RendererViewHolder(new ExpandableRenderer());
+        secondViewHolder = new RendererViewHolder(new ExpandableRenderer());
+    }
+
+    @Test
+    public void shouldRestoreTheViewStateOfRecycledItems() {
+        bind(firstViewHolder, 0);
+        rendererOf(firstViewHolder).expanded = true;
+
+        adapter.onViewRecycled(firstViewHolder);
+        bind(secondViewHolder, 0);
+
+        assertTrue(rendererOf(secondViewHolder).expanded);
+    }
+
+    @Test
+    public void shouldNotRestoreTheViewStateOfOtherItems() {
+        bind(firstViewHolder, 0);
+        rendererOf(firstViewHolder).expanded = true;
+
+        adapter.onViewRecycled(firstViewHolder);
+        bind(firstViewHolder, 1);
+
+        assertFalse(rendererOf(firstViewHolder).expanded);
+    }
+
+    @Test
+    public void shouldNotSaveTheViewStateWithoutStableIds() {
+        adapter.setHasStableIds(false);
+        bind(firstViewHolder, 0);
+        rendererOf(firstViewHolder).expanded = true;
+
+        adapter.onViewRecycled(firstViewHolder);
+
+        assertEquals(0, adapter.saveViewState().size());
+    }
+
+    @Test
+    public void shouldSaveTheViewStateOfTheItemsBound() {
+        bind(firstViewHolder, 0);
+        bind(secondViewHolder, 1);
+        rendererOf(secondViewHolder).expanded = true;
+
+        ViewStateStore store = adapter.saveViewState();
+
+        assertNull(store.get(0));
+        assertTrue(store.get(1).getBoolean(EXPANDED));
+    }
+
+    @Test
+    public void shouldRestoreTheViewStateInOtherAdapter() {
+        bind(firstViewHolder, 1);
+        rendererOf(firstViewHolder).expanded = true;
+        ViewStateStore store = adapter.saveViewState();
+        setUp();
+
+        adapter.restoreViewState(store);
+        bind(secondViewHolder, 1);
+
+        assertTrue(rendererOf(secondViewHolder).expanded);
+    }
+
+    @Test
+    public void shouldWriteTheStatesToAParcel() {
+        ViewStateStore store = new ViewStateStore();
+        Bundle state = new Bundle();
+        state.putBoolean(EXPANDED, true);
+        store.put(7, state);
+
+        Parcel parcel = Parcel.obtain();
+        store.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        ViewStateStore restoredStore = ViewStateStore.CREATOR.createFromParcel(parcel);
+        parcel.recycle();
+
+        assertEquals(1, restoredStore.size());
+        assertTrue(restoredStore.get(7).getBoolean(EXPANDED));
+    }
+
+    private void bind(RendererViewHolder viewHolder, int position) {
+        adapter.onBindViewHolder(viewHolder, position, Collections.emptyList());
+    }
+
+    private ExpandableRenderer rendererOf(RendererViewHolder viewHolder) {
+        return (ExpandableRenderer) viewHolder.getRenderer();
+    }
+
+    private static class ExpandableRenderer extends Renderer<Object> {
+
+        private final View rootView = mock(View.class);
+        boolean expanded;
+
+        @Override public View getRootView() {
+            return rootView;
+        }
+
+        @Override protected View inflate(LayoutInflater inflater, ViewGroup parent) {
+            return rootView;
+        }
+
+        @Override public void render(List<Object> payloads) { }
+
+        @Override protected Bundle onSaveViewState() {
+            if (!expanded) {
+                return null;
+            }
+            Bundle state = new Bundle();
+            state.putBoolean(EXPANDED, true);
+            return state;
+        }
+
+        @Override protected void onRestoreViewState(Bundle state) {
+            expanded = state != null && state.getBoolean(EXPANDED);
+        }
+    }
+}
@@ -20,14 +20,15 @@ import android.os.Bundle;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 
-import com.pedrogomez.renderers.RendererAdapter;
 import com.pedrogomez.renderers.RendererBuilder;
+import com.pedrogomez.renderers.SectionedRendererAdapter;
 import com.pedrogomez.renderers.sample.R;
 import com.pedrogomez.renderers.sample.model.RandomVideoCollectionGenerator;
 import com.pedrogomez.renderers.sample.model.Video;
 import com.pedrogomez.renderers.sample.ui.renderers.SectionRenderer;
 import com.pedrogomez.renderers.sample.ui.renderers.VideoRenderer;
 
+import java.util.Collections;
 import java.util.List;
 
 import butterknife.Bind;
@@ -54,16 +55,15 @@ public class AdvancedRecyclerViewActivity extends Activity {
 
         List<Video> videoCollection = RandomVideoCollectionGenerator.generateList(VIDEO_COUNT);
 
-        RendererAdapter adapter = RendererBuilder.create()
+        RendererBuilder rendererBuilder = RendererBuilder.create()
               .bind(Video.class, new VideoRenderer())
               .bind(String.class, new SectionRenderer())
-              .build()
-              .into(recyclerView);
-        recyclerView.setAdapter(adapter);
+              .getRendererBuilder();
+        SectionedRendererAdapter<Video> adapter = new SectionedRendererAdapter<>(rendererBuilder);
 
         for (int i = 0, videoCollectionSize = videoCollection.size(); i < videoCollectionSize; i++) {
-            adapter.add("Video #" + (i + 1));
-            adapter.add(videoCollection.get(i));
+            adapter.addSection("Video #" + (i + 1), Collections.singletonList(videoCollection.get(i)));
         }
+        adapter.into(recyclerView);
     }
 }
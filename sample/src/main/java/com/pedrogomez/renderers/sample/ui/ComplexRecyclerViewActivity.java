@@ -20,9 +20,9 @@ import android.os.Bundle;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 
-import com.pedrogomez.renderers.RendererAdapter;
 import com.pedrogomez.renderers.RendererBuilder;
 import com.pedrogomez.renderers.RendererContent;
+import com.pedrogomez.renderers.SectionedRendererAdapter;
 import com.pedrogomez.renderers.sample.R;
 import com.pedrogomez.renderers.sample.model.RandomVideoCollectionGenerator;
 import com.pedrogomez.renderers.sample.model.Video;
@@ -30,6 +30,7 @@ import com.pedrogomez.renderers.sample.ui.renderers.FooterRenderer;
 import com.pedrogomez.renderers.sample.ui.renderers.SectionRenderer2;
 import com.pedrogomez.renderers.sample.ui.renderers.VideoRenderer;
 
+import java.util.Collections;
 import java.util.List;
 
 import butterknife.Bind;
@@ -59,17 +60,19 @@ public class ComplexRecyclerViewActivity extends Activity {
 
         List<Video> videoCollection = RandomVideoCollectionGenerator.generateList(VIDEO_COUNT);
 
-        RendererAdapter adapter = RendererBuilder.create()
+        RendererBuilder rendererBuilder = RendererBuilder.create()
               .bind(Video.class, new VideoRenderer())
               .bind(TYPE_FOOTER, new FooterRenderer())
               .bind(TYPE_SECTION, new SectionRenderer2())
-              .build()
-              .into(recyclerView);
+              .getRendererBuilder();
+        SectionedRendererAdapter<Video> adapter = new SectionedRendererAdapter<>(rendererBuilder);
 
         for (int i = 0, videoCollectionSize = videoCollection.size(); i < videoCollectionSize; i++) {
-            adapter.add(new RendererContent<>("Video #" + (i + 1), TYPE_SECTION));
-            adapter.add(videoCollection.get(i));
+            adapter.addSection(new RendererContent<>("Video #" + (i + 1), TYPE_SECTION),
+                  Collections.singletonList(videoCollection.get(i)));
         }
-        adapter.add(new RendererContent<>("by Alberto Ballano", TYPE_FOOTER));
+        // The footer is the header of a last section without items.
+        adapter.addSection(new RendererContent<>("by Alberto Ballano", TYPE_FOOTER), Collections.<Video>emptyList());
+        adapter.into(recyclerView);
     }
 }
@@ -20,6 +20,8 @@ import android.os.Bundle;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 
+import com.pedrogomez.renderers.LookaheadPrefetcher;
+import com.pedrogomez.renderers.RendererAdapter;
 import com.pedrogomez.renderers.RendererBuilder;
 import com.pedrogomez.renderers.sample.R;
 import com.pedrogomez.renderers.sample.model.RandomVideoCollectionGenerator;
@@ -52,8 +54,9 @@ public class SimpleRecyclerViewActivity extends Activity {
 
         List<Video> videoCollection = RandomVideoCollectionGenerator.generateList(VIDEO_COUNT);
 
-        RendererBuilder.create(new VideoRenderer())
+        RendererAdapter<Video> adapter = RendererBuilder.create(new VideoRenderer())
               .buildWith(videoCollection)
               .into(recyclerView);
+        new LookaheadPrefetcher(adapter).attach(recyclerView);
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.pedrogomez.renderers.sample.ui.renderers;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -22,6 +23,7 @@ import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import com.pedrogomez.renderers.Prefetcher;
 import com.pedrogomez.renderers.Renderer;
 import com.pedrogomez.renderers.sample.R;
 import com.pedrogomez.renderers.sample.model.Video;
@@ -39,7 +41,7 @@ import butterknife.OnClick;
  *
  * @author Pedro Vicente Gómez Sánchez.
  */
-public class VideoRenderer extends Renderer<Video> {
+public class VideoRenderer extends Renderer<Video> implements Prefetcher<Video> {
 
     @Bind(R.id.iv_thumbnail)
     ImageView thumbnail;
@@ -85,4 +87,21 @@ public class VideoRenderer extends Renderer<Video> {
               .into(thumbnail);
         title.setText(video.getTitle());
     }
+
+    /**
+     * Downloads the thumbnail of the videos about to be shown, using the video as request tag to be
+     * able to cancel it.
+     */
+    @Override
+    public void prefetch(Context context, Video video, long itemId) {
+        Picasso.with(context)
+              .load(video.getThumbnail())
+              .tag(video)
+              .fetch();
+    }
+
+    @Override
+    public void cancel(Context context, Video video, long itemId) {
+        Picasso.with(context).cancelTag(video);
+    }
 }